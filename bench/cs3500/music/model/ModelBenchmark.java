@@ -0,0 +1,168 @@
+package cs3500.music.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the operations of {@link MusicEditorModel} on generated pieces of different
+ * densities. A piece has {@code density} notes starting on every one of its {@code beats} beats,
+ * spread over five octaves, each lasting one to four beats. Every editing benchmark undoes its
+ * own edit, so the piece is the same size for every invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+  private static final int LOWEST_PITCH = 36;
+  private static final int PITCH_RANGE = 60;
+
+  @Param({"1", "8", "64"})
+  private int density;
+
+  @Param({"1000"})
+  private int beats;
+
+  private MusicEditorOperations model;
+  private int[] starts;
+  private int[] durations;
+  private int[] instruments;
+  private int[] pitches;
+  private int next;
+
+  /**
+   * Generates the piece being benchmarked, remembering where each of its notes is so that the
+   * editing benchmarks can find them.
+   */
+  @Setup
+  public void setup() {
+    int count = this.density * this.beats;
+    this.starts = new int[count];
+    this.durations = new int[count];
+    this.instruments = new int[count];
+    this.pitches = new int[count];
+    MusicEditorBuilder builder = new MusicEditorBuilder();
+    for (int i = 0; i < count; i++) {
+      int start = i / this.density;
+      int k = i % this.density;
+      this.starts[i] = start;
+      this.durations[i] = (i % 4) + 1;
+      this.instruments[i] = k % 16;
+      this.pitches[i] = LOWEST_PITCH + (((start * 7) + (k * 13)) % PITCH_RANGE);
+      builder.addNote(start, start + this.durations[i] - 1, this.instruments[i], this.pitches[i],
+          64);
+    }
+    this.model = builder.build();
+    this.next = 0;
+  }
+
+  /**
+   * Picks the next note of the piece to be edited, cycling through all of them.
+   *
+   * @return the index of the note
+   */
+  private int nextNote() {
+    this.next = (this.next + 1) % this.starts.length;
+    return this.next;
+  }
+
+  /**
+   * Adds a note in the middle of the piece and then removes it.
+   */
+  @Benchmark
+  public void addAndRemoveNote() {
+    int i = this.nextNote();
+    this.model.addNote(this.starts[i], this.starts[i] + 2, 127, this.pitches[i], 64);
+    this.model.removeNote(this.starts[i], 127, this.pitches[i]);
+  }
+
+  /**
+   * Moves a note forward by two beats and then back.
+   */
+  @Benchmark
+  public void editNotePosition() {
+    int i = this.nextNote();
+    this.model.editNotePosition(this.starts[i], this.instruments[i], this.pitches[i],
+        this.starts[i] + 2);
+    this.model.editNotePosition(this.starts[i] + 2, this.instruments[i], this.pitches[i],
+        this.starts[i]);
+  }
+
+  /**
+   * Lengthens a note and then shortens it again.
+   */
+  @Benchmark
+  public void editNoteDuration() {
+    int i = this.nextNote();
+    this.model.editNoteDuration(this.starts[i], this.instruments[i], this.pitches[i], 8);
+    this.model.editNoteDuration(this.starts[i], this.instruments[i], this.pitches[i],
+        this.durations[i]);
+  }
+
+  /**
+   * Moves a note to the other end of its octave and then back.
+   */
+  @Benchmark
+  public void editNotePitch() {
+    int i = this.nextNote();
+    int pitch = this.pitches[i];
+    int edited = ((pitch / 12) * 12) + (11 - (pitch % 12));
+    this.model.editNotePitch(this.starts[i], this.instruments[i], pitch, edited);
+    this.model.editNotePitch(this.starts[i], this.instruments[i], edited, pitch);
+  }
+
+  /**
+   * Gets the data of every note in the piece.
+   *
+   * @return the data of every note
+   */
+  @Benchmark
+  public List<Integer[]> getNotes() {
+    return this.model.getNotes();
+  }
+
+  /**
+   * Visits the data of every note in the piece without creating objects.
+   *
+   * @param blackhole   consumes the visited data
+   */
+  @Benchmark
+  public void forEachNote(Blackhole blackhole) {
+    this.model.forEachNote((start, end, instrument, pitch, volume) -> blackhole.consume(end));
+  }
+
+  /**
+   * Gets the data of the notes being played at a beat, cycling through the beats of the piece.
+   *
+   * @return the data of the notes at the beat
+   */
+  @Benchmark
+  public List<Integer[]> getNotesAtBeat() {
+    return this.model.getNotesAtBeat(this.starts[this.nextNote()]);
+  }
+
+  /**
+   * Gets the length of the piece.
+   *
+   * @return the length of the piece
+   */
+  @Benchmark
+  public int getLength() {
+    return this.model.getLength();
+  }
+}
@@ -0,0 +1,154 @@
+package cs3500.music.util;
+
+import cs3500.music.model.MusicEditorBuilder;
+import cs3500.music.model.MusicEditorOperations;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link MusicReader#parseFile} over every music file in the {@code build} folder.
+ * Each file is read into memory first so that only parsing is measured. The {@link Scanner}
+ * based parser that {@code MusicReader} replaced is kept here as a baseline, and both parsers
+ * are measured with a builder that only counts notes, as well as {@code MusicReader} with the
+ * builder for the model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MusicReaderBenchmark {
+  @Param({"500.txt", "WantYouGone.txt", "allstar.txt", "b5.txt", "df-ttfaf.txt", "ham-burn.txt",
+      "jude.txt", "lnl.txt", "loz-sos.txt", "mary-little-lamb.txt", "myRhapsody.txt",
+      "mystery-1.txt", "mystery-2.txt", "mystery-3.txt", "odyssey.txt", "pink.txt", "sotw.txt",
+      "stayalive.txt", "trek.txt", "twist.txt", "zelda.txt", "zoot-lw.txt", "zoot-zl.txt"})
+  private String file;
+
+  private String text;
+
+  /**
+   * Reads the music file being benchmarked into memory.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  @Setup
+  public void setup() throws IOException {
+    this.text = new String(Files.readAllBytes(Paths.get("build", this.file)),
+        StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Parses the file with the Scanner based parser.
+   *
+   * @return the number of notes parsed
+   */
+  @Benchmark
+  public long scanner() {
+    return scannerParseFile(new StringReader(this.text), new CountingBuilder());
+  }
+
+  /**
+   * Parses the file with {@link MusicReader}.
+   *
+   * @return the number of notes parsed
+   */
+  @Benchmark
+  public long musicReader() {
+    return MusicReader.parseFile(new StringReader(this.text), new CountingBuilder());
+  }
+
+  /**
+   * Parses the file with {@link MusicReader} into a new model.
+   *
+   * @return the parsed model
+   */
+  @Benchmark
+  public MusicEditorOperations musicReaderIntoModel() {
+    return MusicReader.parseFile(new StringReader(this.text), new MusicEditorBuilder());
+  }
+
+  /**
+   * The {@link Scanner} based parser that {@link MusicReader#parseFile} replaced, kept here as
+   * the baseline for comparison.
+   *
+   * @param readable   the source of data for the music composition
+   * @param piece      a builder for helping to construct a new composition
+   * @param <T>        the main model interface type describing music compositions
+   * @return a new composition created from the builder using data from the readable
+   */
+  private static <T> T scannerParseFile(Readable readable, CompositionBuilder<T> piece) {
+    Scanner scanner = new Scanner(readable);
+    while (scanner.hasNext()) {
+      String lineType = scanner.next();
+      switch (lineType) {
+        case "tempo":
+          try {
+            piece.setTempo(scanner.nextInt());
+          } catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("Malformed tempo line: " + scanner.nextLine());
+          }
+          break;
+        case "note":
+          try {
+            int startBeat = scanner.nextInt();
+            int endBeat = scanner.nextInt();
+            int instrument = scanner.nextInt();
+            int pitch = scanner.nextInt();
+            int volume = scanner.nextInt();
+            piece.addNote(startBeat, endBeat, instrument, pitch, volume);
+          } catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("Malformed note line: " + scanner.nextLine());
+          }
+          break;
+        default:
+          throw new IllegalArgumentException("Bad line type: " + lineType);
+      }
+    }
+
+    return piece.build();
+  }
+
+  /**
+   * A builder that only counts the notes added to it.
+   */
+  private static final class CountingBuilder implements CompositionBuilder<Long> {
+    private long notes = 0;
+
+    @Override
+    public Long build() {
+      return this.notes;
+    }
+
+    @Override
+    public CompositionBuilder<Long> setTempo(int tempo) {
+      return this;
+    }
+
+    @Override
+    public CompositionBuilder<Long> addNote(int start, int end, int instrument, int pitch,
+                                            int volume) {
+      this.notes++;
+      return this;
+    }
+  }
+}
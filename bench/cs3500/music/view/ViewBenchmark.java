@@ -0,0 +1,103 @@
+package cs3500.music.view;
+
+import cs3500.music.model.MusicEditorBuilder;
+import cs3500.music.model.MusicEditorOperations;
+import cs3500.music.util.MusicReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.Sequence;
+
+import java.io.FileReader;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the rendering of the views that do not need a screen, over music files from the
+ * {@code build} folder: printing the whole piece with {@link ConsoleView} to an
+ * {@code Appendable} that discards everything, and creating the MIDI sequence of the piece in
+ * {@link MidiView}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ViewBenchmark {
+  @Param({"mary-little-lamb.txt", "mystery-1.txt", "zelda.txt", "df-ttfaf.txt",
+      "stayalive.txt"})
+  private String file;
+
+  private MusicEditorOperations model;
+  private MidiView midi;
+
+  /**
+   * Reads the music file being benchmarked into a model, and creates a MIDI view of it over a
+   * mock sequencer.
+   *
+   * @throws Exception if the file cannot be read, or the MIDI view cannot be created
+   */
+  @Setup
+  public void setup() throws Exception {
+    try (FileReader reader = new FileReader(Paths.get("build", this.file).toFile())) {
+      this.model = MusicReader.parseFile(reader, new MusicEditorBuilder());
+    }
+    this.midi = new MidiView.Builder(this.model).setSequencer(new MockSequencer()).build();
+  }
+
+  /**
+   * Prints the whole piece with a console view.
+   *
+   * @return the console view that printed the piece
+   */
+  @Benchmark
+  public ConsoleView consoleView() {
+    ConsoleView view = new ConsoleView.Builder(this.model).setAppendable(new NullAppendable())
+        .build();
+    view.initialize();
+    return view;
+  }
+
+  /**
+   * Creates the MIDI sequence of the whole piece.
+   *
+   * @return the sequence of the piece
+   * @throws InvalidMidiDataException if the sequence cannot be created
+   */
+  @Benchmark
+  public Sequence midiCreateSequence() throws InvalidMidiDataException {
+    return this.midi.createSequence();
+  }
+
+  /**
+   * An {@code Appendable} that discards everything appended to it.
+   */
+  private static final class NullAppendable implements Appendable {
+    @Override
+    public Appendable append(CharSequence csq) {
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+      return this;
+    }
+  }
+}
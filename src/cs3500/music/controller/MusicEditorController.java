@@ -5,6 +5,7 @@ import java.awt.event.KeyEvent;
 import java.io.FileReader;
 import java.io.IOException;
 
+import cs3500.music.model.ConcurrentModel;
 import cs3500.music.model.MusicEditorBuilder;
 import cs3500.music.model.MusicEditorOperations;
 import cs3500.music.model.ViewOnlyModel;
@@ -66,14 +67,17 @@ public class MusicEditorController extends KeyAdapter {
   }
 
   /**
-   * Sets the model of this controller using the notes from the given file.
+   * Sets the model of this controller using the notes from the given file. The model is shared
+   * with the views, and may be read and edited from more than one thread, such as the event
+   * dispatch thread and the thread that set up the editor, so it is made thread-safe.
    *
    * @param fileName   the name of the file to be represented by the model
    * @throws IllegalArgumentException if there is no file with the given name
    */
   private void setModel(String fileName) throws IllegalArgumentException {
     try {
-      this.model = MusicReader.parseFile(new FileReader(fileName), new MusicEditorBuilder());
+      this.model = new ConcurrentModel(
+          MusicReader.parseFile(new FileReader(fileName), new MusicEditorBuilder()));
     } catch (IOException e) {
       throw new IllegalArgumentException("No file exists with the given name: \""
           + fileName + "\".");
@@ -81,8 +85,10 @@ public class MusicEditorController extends KeyAdapter {
   }
 
   /**
-   * Handles events when a key has been pressed. Uses the keyEvents set in the view to run. If no
-   * runnables or key codes have been set, nothing runs.
+   * Handles events when a key has been pressed. Ctrl+Z undoes the last edit to the model, and
+   * Ctrl+Y or Ctrl+Shift+Z redoes it (Cmd may be used instead of Ctrl), unless the view is
+   * playing the piece. Otherwise, uses the keyEvents set in the view to run. If no runnables or
+   * key codes have been set, nothing runs.
    *
    * @param e   the event that occurs when a key has been pressed
    * @throws IllegalArgumentException if the view has not been set yet
@@ -92,6 +98,15 @@ public class MusicEditorController extends KeyAdapter {
     if (this.view == null) {
       throw new IllegalArgumentException("View has not been set.");
     }
+    if (e.isControlDown() || e.isMetaDown()) {
+      if (e.getKeyCode() == KeyEvent.VK_Z && !e.isShiftDown()) {
+        this.undo();
+        return;
+      } else if (e.getKeyCode() == KeyEvent.VK_Y || e.getKeyCode() == KeyEvent.VK_Z) {
+        this.redo();
+        return;
+      }
+    }
     Runnable r = view.getKeyEventRunnables().getOrDefault(e.getKeyCode(), null);
     if (r != null) {
       r.run();
@@ -115,6 +130,56 @@ public class MusicEditorController extends KeyAdapter {
     this.model.addNote(start, end, instrument, pitch, volume);
   }
 
+  /**
+   * Undoes the last edit to the model that has not been undone, and updates the view if there
+   * was one. Nothing is undone while the view is playing the piece.
+   *
+   * @return true if an edit was undone, false if there was none to undo or the view is playing
+   * @throws IllegalArgumentException if the model or view has not been set yet
+   */
+  public boolean undo() throws IllegalArgumentException {
+    this.modelAndViewException();
+    if (this.view.isPlaying()) {
+      return false;
+    }
+    boolean undone = this.model.undo();
+    if (undone) {
+      this.view.update();
+    }
+    return undone;
+  }
+
+  /**
+   * Redoes the edit to the model that was undone most recently, and updates the view if there
+   * was one. Nothing is redone while the view is playing the piece.
+   *
+   * @return true if an edit was redone, false if there was none to redo or the view is playing
+   * @throws IllegalArgumentException if the model or view has not been set yet
+   */
+  public boolean redo() throws IllegalArgumentException {
+    this.modelAndViewException();
+    if (this.view.isPlaying()) {
+      return false;
+    }
+    boolean redone = this.model.redo();
+    if (redone) {
+      this.view.update();
+    }
+    return redone;
+  }
+
+  /**
+   * Helper to the undo and redo methods. Checks if the model and view have been set, and if not
+   * throws an exception.
+   *
+   * @throws IllegalArgumentException if the model or view has not been set yet
+   */
+  private void modelAndViewException() throws IllegalArgumentException {
+    if (this.model == null || this.view == null) {
+      throw new IllegalArgumentException("Model and view have not been set.");
+    }
+  }
+
   /**
    * Gets the log for the view this controller is using.
    * @return the log of events for the view.
@@ -0,0 +1,90 @@
+package cs3500.music.model;
+
+/**
+ * Represents the edits that can be made to the currently opened piece within a batch, given by
+ * {@link MusicEditorOperations#applyBatch(java.util.function.Consumer)}. Each edit is checked and
+ * applied as it is made, exactly as the edit of the same name in {@link MusicEditorOperations},
+ * but listeners are only told of the batch as a whole once every edit in it has been made. An
+ * editor can only be used while its batch is being applied.
+ */
+public interface BatchEditor {
+  /**
+   * Adds a new note to the currently opened piece, as described in
+   * {@link MusicEditorOperations#addNote(int, int, int, int, int)}.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the pitch at which the note is played [0, 127]
+   * @param volume       the volume at which the note is played [0, 127]
+   * @throws IllegalStateException if the batch is no longer being applied
+   * @throws IllegalArgumentException if the note is invalid
+   */
+  void addNote(int start, int end, int instrument, int pitch, int volume)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Removes a note from the currently opened piece, as described in
+   * {@link MusicEditorOperations#removeNote(int, int, int)}.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the pitch at which the note is played [0, 127]
+   * @throws IllegalStateException if the batch is no longer being applied
+   * @throws IllegalArgumentException if no note exists at the specified location
+   */
+  void removeNote(int start, int instrument, int pitch)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Changes the pitch of a note from the currently opened piece, as described in
+   * {@link MusicEditorOperations#editNotePitch(int, int, int, int)}.
+   *
+   * @param start         the starting position of the note (measured in beats)
+   * @param instrument    the instrument the note is played in [0, 127]
+   * @param pitch         the pitch at which the note is played [0, 127]
+   * @param editedPitch   the new pitch of the note [0, 127]
+   * @throws IllegalStateException if the batch is no longer being applied
+   * @throws IllegalArgumentException if the edit is invalid
+   */
+  void editNotePitch(int start, int instrument, int pitch, int editedPitch)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Changes the position of a note from the currently opened piece, as described in
+   * {@link MusicEditorOperations#editNotePosition(int, int, int, int)}.
+   *
+   * @param start         the starting position of the note (measured in beats)
+   * @param instrument    the instrument the note is played in [0, 127]
+   * @param pitch         the pitch at which the note is played [0, 127]
+   * @param editedStart   the new start position of the note (measured in beats)
+   * @throws IllegalStateException if the batch is no longer being applied
+   * @throws IllegalArgumentException if the edit is invalid
+   */
+  void editNotePosition(int start, int instrument, int pitch, int editedStart)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Changes the duration of a note from the currently opened piece, as described in
+   * {@link MusicEditorOperations#editNoteDuration(int, int, int, int)}.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the pitch at which the note is played [0, 127]
+   * @param editedEnd    the new duration of the note (measured in beats)
+   * @throws IllegalStateException if the batch is no longer being applied
+   * @throws IllegalArgumentException if the edit is invalid
+   */
+  void editNoteDuration(int start, int instrument, int pitch, int editedEnd)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Sets the tempo of the currently opened piece, as described in
+   * {@link MusicEditorOperations#setTempo(int)}.
+   *
+   * @param tempo   the tempo to set the piece
+   * @throws IllegalStateException if the batch is no longer being applied
+   * @throws IllegalArgumentException if the given tempo is negative
+   */
+  void setTempo(int tempo) throws IllegalStateException, IllegalArgumentException;
+}
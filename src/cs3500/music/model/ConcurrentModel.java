@@ -0,0 +1,354 @@
+package cs3500.music.model;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe version of the MusicEditorOperations interface. Every call is passed on to the
+ * given model, which is not thread-safe itself, under a {@link StampedLock}: operations that
+ * change the model take the lock exclusively, and operations that only read it share it.
+ *
+ * <p>Reads that do a bounded amount of work ({@code getOpenedId}, {@code getTempo},
+ * {@code getLength}, and {@code getVersion}) first run without locking at all, as optimistic
+ * reads, and are only run again under the shared lock if a write happened while they ran. Such
+ * a read may see the model half way through an edit, so anything it returns or throws is
+ * dropped unless the lock shows there was no write. Reads that go through every note, which
+ * would be done twice whenever a write gets in the way, and reads that follow links through the
+ * model, which a half finished edit could leave in a loop, always take the shared lock. A
+ * snapshot that is still at the current version is read without locking at all.
+ * {@code forEachNote} goes through the notes of a snapshot, so its action runs without the lock
+ * held, and may read or change this model.</p>
+ *
+ * <p>Events from the given model are given while it is being changed, so they are queued, in
+ * the order the changes were made, and only given to the listeners registered with this model
+ * after the lock is released. Listeners may then read or change this model without waiting on a
+ * lock their own thread holds. The queue is emptied by one thread at a time, so listeners are
+ * told of changes in order, and a call that changes this model returns only once its events have
+ * been given.</p>
+ */
+public final class ConcurrentModel implements MusicEditorOperations {
+  private final MusicEditorOperations model;
+  private final StampedLock lock;
+  private final AtomicReference<PieceSnapshot> snapshot;
+  private final ListenerList listeners;
+  private final Queue<Runnable> events;
+
+  /**
+   * Constructs a new {@code ConcurrentModel}, which guards every call to the given model. The
+   * given model should not be used other than through this one.
+   *
+   * @param model   the model every call is passed on to
+   * @throws IllegalArgumentException if the given model is uninitialized
+   */
+  public ConcurrentModel(MusicEditorOperations model) throws IllegalArgumentException {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot pass uninitialized model.");
+    }
+    this.model = model;
+    this.lock = new StampedLock();
+    this.snapshot = new AtomicReference<>(null);
+    this.listeners = new ListenerList();
+    this.events = new ConcurrentLinkedQueue<>();
+    this.model.addListener(new EventQueue());
+  }
+
+  @Override
+  public void create() {
+    this.write(this.model::create);
+  }
+
+  @Override
+  public void open(int id) throws IllegalArgumentException, IllegalStateException {
+    this.write(() -> this.model.open(id));
+  }
+
+  @Override
+  public void close(int id) throws IllegalArgumentException {
+    this.write(() -> this.model.close(id));
+  }
+
+  @Override
+  public List<Integer> getPieceIds() {
+    return this.read(this.model::getPieceIds);
+  }
+
+  @Override
+  public int getOpenedId() throws IllegalStateException {
+    return this.readOptimistically(this.model::getOpenedId);
+  }
+
+  @Override
+  public boolean undo() throws IllegalStateException {
+    long stamp = this.lock.writeLock();
+    try {
+      return this.model.undo();
+    } finally {
+      this.lock.unlockWrite(stamp);
+      this.giveEvents();
+    }
+  }
+
+  @Override
+  public boolean redo() throws IllegalStateException {
+    long stamp = this.lock.writeLock();
+    try {
+      return this.model.redo();
+    } finally {
+      this.lock.unlockWrite(stamp);
+      this.giveEvents();
+    }
+  }
+
+  @Override
+  public void addNote(int start, int end, int instrument, int pitch, int volume)
+      throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.addNote(start, end, instrument, pitch, volume));
+  }
+
+  @Override
+  public void removeNote(int start, int instrument, int pitch)
+      throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.removeNote(start, instrument, pitch));
+  }
+
+  @Override
+  public void editNotePitch(int start, int instrument, int pitch, int editedPitch)
+      throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.editNotePitch(start, instrument, pitch, editedPitch));
+  }
+
+  @Override
+  public void editNotePosition(int start, int instrument, int pitch, int editedStart)
+      throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.editNotePosition(start, instrument, pitch, editedStart));
+  }
+
+  @Override
+  public void editNoteDuration(int start, int instrument, int pitch, int editedEnd)
+      throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.editNoteDuration(start, instrument, pitch, editedEnd));
+  }
+
+  @Override
+  public void setTempo(int tempo) throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.setTempo(tempo));
+  }
+
+  @Override
+  public int getTempo() throws IllegalStateException {
+    return this.readOptimistically(this.model::getTempo);
+  }
+
+  @Override
+  public List<Integer[]> getNotes() throws IllegalStateException {
+    return this.read(this.model::getNotes);
+  }
+
+  @Override
+  public void forEachNote(NoteConsumer consumer)
+      throws IllegalStateException, IllegalArgumentException {
+    this.getSnapshot().forEachNote(consumer);
+  }
+
+  @Override
+  public List<Integer[]> getNotesAtBeat(int beat) throws IllegalStateException {
+    return this.read(() -> this.model.getNotesAtBeat(beat));
+  }
+
+  @Override
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat)
+      throws IllegalStateException, IllegalArgumentException {
+    return this.read(() -> this.model.getNotesInRange(fromBeat, toBeat));
+  }
+
+  @Override
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch, int highPitch)
+      throws IllegalStateException, IllegalArgumentException {
+    return this.read(() -> this.model.getNotesInRange(fromBeat, toBeat, lowPitch, highPitch));
+  }
+
+  @Override
+  public int getLength() throws IllegalStateException {
+    return this.readOptimistically(this.model::getLength);
+  }
+
+  @Override
+  public long getVersion() {
+    return this.readOptimistically(this.model::getVersion);
+  }
+
+  /**
+   * Gets a snapshot of the currently opened piece at the current version of the model. If the
+   * last snapshot published by this model is still at the current version, it is returned
+   * without locking. Otherwise a new snapshot is taken while holding the lock exclusively, as
+   * taking one marks the notes of the piece as shared with the snapshot.
+   *
+   * @return a snapshot of the currently opened piece
+   * @throws IllegalStateException if there is no currently opened piece
+   */
+  @Override
+  public PieceSnapshot getSnapshot() throws IllegalStateException {
+    PieceSnapshot published = this.snapshot.get();
+    if (published != null && published.getVersion() == this.getVersion()) {
+      return published;
+    }
+    long stamp = this.lock.writeLock();
+    try {
+      published = this.model.getSnapshot();
+      this.snapshot.set(published);
+      return published;
+    } finally {
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Applies the given batch of edits while holding the lock exclusively for the whole batch, so
+   * no read sees it half applied. The batch should only use this model through the editor it is
+   * given, as any other call would wait on the lock its own thread holds.
+   *
+   * @param batch   the batch of edits to apply
+   * @throws IllegalStateException if there is no currently opened piece, or a batch is already
+   *                               being applied
+   * @throws IllegalArgumentException if the given batch is uninitialized, or any edit in it is
+   *                                  invalid
+   */
+  @Override
+  public void applyBatch(Consumer<BatchEditor> batch)
+      throws IllegalStateException, IllegalArgumentException {
+    this.write(() -> this.model.applyBatch(batch));
+  }
+
+  @Override
+  public void addListener(MusicEditorListener listener) throws IllegalArgumentException {
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(MusicEditorListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Helper to every method that changes the model. Runs the given edit while holding the lock
+   * exclusively, then gives the events it queued to the listeners.
+   *
+   * @param edit   the edit to the model
+   */
+  private void write(Runnable edit) {
+    long stamp = this.lock.writeLock();
+    try {
+      edit.run();
+    } finally {
+      this.lock.unlockWrite(stamp);
+      this.giveEvents();
+    }
+  }
+
+  /**
+   * Helper to the write, undo, and redo methods. Gives every queued event to the listeners, in
+   * the order they were queued. Only one thread gives events at a time, and a thread that has to
+   * wait for another finds the events it queued already given.
+   */
+  private void giveEvents() {
+    synchronized (this.events) {
+      Runnable event = this.events.poll();
+      while (event != null) {
+        event.run();
+        event = this.events.poll();
+      }
+    }
+  }
+
+  /**
+   * Helper to the getPieceIds, getNotes, getNotesAtBeat, and getNotesInRange methods, and to the
+   * readOptimistically method.
+   * Runs the given read while sharing the lock.
+   *
+   * @param read   the read of the model
+   * @param <T>    the type of the value read
+   * @return the value read
+   */
+  private <T> T read(Supplier<T> read) {
+    long stamp = this.lock.readLock();
+    try {
+      return read.get();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Helper to the getOpenedId, getTempo, getLength, and getVersion methods. Runs the given read
+   * without locking, and keeps its result, or the exception it threw, only if no write happened
+   * while it ran. Otherwise, runs the read again while sharing the lock.
+   *
+   * @param read   the read of the model, which must do a bounded amount of work whatever state
+   *               the model is in
+   * @param <T>    the type of the value read
+   * @return the value read
+   */
+  private <T> T readOptimistically(Supplier<T> read) {
+    long stamp = this.lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        T value = read.get();
+        if (this.lock.validate(stamp)) {
+          return value;
+        }
+      } catch (RuntimeException e) {
+        if (this.lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    return this.read(read);
+  }
+
+  /**
+   * Represents the listener registered with the guarded model, which queues every event it is
+   * given, while the lock is held, to be given to the listeners of this model once it is released.
+   */
+  private final class EventQueue implements MusicEditorListener {
+    @Override
+    public void noteAdded(long version, int start, int end, int instrument, int pitch,
+                          int volume) {
+      events.add(() -> listeners.noteAdded(version, start, end, instrument, pitch, volume));
+    }
+
+    @Override
+    public void noteRemoved(long version, int start, int end, int instrument, int pitch,
+                            int volume) {
+      events.add(() -> listeners.noteRemoved(version, start, end, instrument, pitch, volume));
+    }
+
+    @Override
+    public void noteMoved(long version, int start, int end, int instrument, int pitch,
+                          int volume, int newStart, int newPitch) {
+      events.add(() -> listeners.noteMoved(version, start, end, instrument, pitch, volume,
+          newStart, newPitch));
+    }
+
+    @Override
+    public void noteResized(long version, int start, int end, int instrument, int pitch,
+                            int volume, int newEnd) {
+      events.add(() -> listeners.noteResized(version, start, end, instrument, pitch, volume,
+          newEnd));
+    }
+
+    @Override
+    public void tempoChanged(long version, int tempo, int newTempo) {
+      events.add(() -> listeners.tempoChanged(version, tempo, newTempo));
+    }
+
+    @Override
+    public void pieceChanged(long version) {
+      events.add(() -> listeners.pieceChanged(version));
+    }
+  }
+}
@@ -0,0 +1,480 @@
+package cs3500.music.model;
+
+import cs3500.music.util.MidiConversion;
+
+/**
+ * Represents the history of edits made to a piece, so that they can be undone and redone. Each
+ * edit is kept as a record of a few ints, holding just enough to apply the edit again or to apply
+ * its inverse, rather than a copy of the piece. A note is found by its pitch and its index among
+ * the notes of that pitch, so that notes which are otherwise the same are put back exactly where
+ * they were. Records are kept in a ring of fixed depth, and once it is full the oldest record is
+ * dropped to make room for the newest.
+ *
+ * <p>An edit made soon after the last one, to the same note in the same way, is merged into the
+ * last record, so that dragging a note or changing the tempo in small steps is undone in one step.
+ * Recording an edit drops every record that was undone before it, so they can no longer be
+ * redone.</p>
+ *
+ * <p>The edits of a batch are recorded as a group, which is undone and redone in one step, and
+ * dropped as a whole once its oldest record no longer fits. Edits are only merged within the same
+ * group, or outside of any group.</p>
+ */
+public final class EditJournal {
+  public static final int DEFAULT_DEPTH = 1000;
+  public static final long COALESCE_MILLIS = 500;
+
+  private static final int ADD = 0;
+  private static final int REMOVE = 1;
+  private static final int PITCH = 2;
+  private static final int POSITION = 3;
+  private static final int DURATION = 4;
+  private static final int TEMPO = 5;
+  private static final int WIDTH = 7;
+  private static final int NO_GROUP = 0;
+  private static final MusicEditorListener SILENT = new ListenerList();
+
+  private final int depth;
+  private final int[] records;
+  private final long[] times;
+  private final int[] groups;
+  private int first;
+  private int count;
+  private int applied;
+  private int group;
+  private int lastGroup;
+  private int grouped;
+
+  /**
+   * Constructs a new, empty {@code EditJournal} keeping the {@code DEFAULT_DEPTH} most recent
+   * edits.
+   */
+  protected EditJournal() {
+    this(DEFAULT_DEPTH);
+  }
+
+  /**
+   * Constructs a new, empty {@code EditJournal} keeping the given number of most recent edits.
+   *
+   * @param depth   the number of edits kept
+   * @throws IllegalArgumentException if the given depth is negative or zero
+   */
+  protected EditJournal(int depth) throws IllegalArgumentException {
+    if (depth <= 0) {
+      throw new IllegalArgumentException("Depth must be positive and non-zero.");
+    }
+    this.depth = depth;
+    this.records = new int[depth * WIDTH];
+    this.times = new long[depth];
+    this.groups = new int[depth];
+    this.lastGroup = NO_GROUP;
+    this.clear();
+  }
+
+  /**
+   * Copy constructor.
+   * Constructs a copy of the given {@code EditJournal}, holding the same records, so that the
+   * journal can be put back as it was if a batch of edits is rolled back.
+   *
+   * @param other   the journal to be copied
+   * @throws IllegalArgumentException if the given journal is uninitialized
+   */
+  protected EditJournal(EditJournal other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Cannot duplicate uninitialized journal.");
+    }
+    this.depth = other.depth;
+    this.records = other.records.clone();
+    this.times = other.times.clone();
+    this.groups = other.groups.clone();
+    this.first = other.first;
+    this.count = other.count;
+    this.applied = other.applied;
+    this.group = other.group;
+    this.lastGroup = other.lastGroup;
+    this.grouped = other.grouped;
+  }
+
+  /**
+   * Drops every record in this journal.
+   */
+  protected void clear() {
+    this.first = 0;
+    this.count = 0;
+    this.applied = 0;
+    this.group = NO_GROUP;
+    this.grouped = 0;
+  }
+
+  /**
+   * Starts a group of records, so that every edit recorded until {@link #endGroup()} is undone and
+   * redone in one step.
+   */
+  protected void beginGroup() {
+    this.lastGroup = this.lastGroup == Integer.MAX_VALUE ? NO_GROUP + 1 : this.lastGroup + 1;
+    this.group = this.lastGroup;
+    this.grouped = 0;
+  }
+
+  /**
+   * Ends the current group of records. If the group held more records than this journal keeps, it
+   * can no longer be undone as a whole, so every record is dropped.
+   */
+  protected void endGroup() {
+    if (this.grouped > this.depth) {
+      this.clear();
+    }
+    this.group = NO_GROUP;
+    this.grouped = 0;
+  }
+
+  /**
+   * Records that a note was added.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   * @param index        the index of the note among the notes of its pitch
+   */
+  protected void recordAdd(int start, int end, int instrument, int pitch, int volume,
+                           int index) {
+    this.record(ADD, start, end, instrument, pitch, volume, index);
+  }
+
+  /**
+   * Records that a note was removed.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   * @param index        the index of the note among the notes of its pitch, before it was removed
+   */
+  protected void recordRemove(int start, int end, int instrument, int pitch, int volume,
+                              int index) {
+    this.record(REMOVE, start, end, instrument, pitch, volume, index);
+  }
+
+  /**
+   * Records that the pitch of a note was changed, merging it into the last record if that moved
+   * the same note to the old pitch.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the old MIDI pitch of the note
+   * @param newPitch     the new MIDI pitch of the note
+   * @param index        the index of the note among the notes of the old pitch
+   * @param newIndex     the index of the note among the notes of the new pitch
+   */
+  protected void recordPitch(int start, int instrument, int pitch, int newPitch, int index,
+                             int newIndex) {
+    int last = this.coalescable(PITCH);
+    if (last >= 0 && this.records[last + 1] == start && this.records[last + 2] == instrument
+        && this.records[last + 4] == pitch && this.records[last + 6] == index) {
+      this.records[last + 4] = newPitch;
+      this.records[last + 6] = newIndex;
+    } else {
+      this.record(PITCH, start, instrument, pitch, newPitch, index, newIndex);
+    }
+  }
+
+  /**
+   * Records that the starting position of a note was changed, merging it into the last record if
+   * that moved the same note to the old position.
+   *
+   * @param start        the old starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param newStart     the new starting position of the note (measured in beats)
+   * @param index        the index of the note among the notes of its pitch, before it was moved
+   * @param newIndex     the index of the note among the notes of its pitch, after it was moved
+   */
+  protected void recordPosition(int start, int instrument, int pitch, int newStart, int index,
+                                int newIndex) {
+    int last = this.coalescable(POSITION);
+    if (last >= 0 && this.records[last + 2] == instrument && this.records[last + 3] == pitch
+        && this.records[last + 4] == start && this.records[last + 6] == index) {
+      this.records[last + 4] = newStart;
+      this.records[last + 6] = newIndex;
+    } else {
+      this.record(POSITION, start, instrument, pitch, newStart, index, newIndex);
+    }
+  }
+
+  /**
+   * Records that the duration of a note was changed, merging it into the last record if that
+   * changed the duration of the same note.
+   *
+   * @param start         the starting position of the note (measured in beats)
+   * @param instrument    the instrument the note is played in [0, 127]
+   * @param pitch         the MIDI pitch of the note
+   * @param duration      the old duration of the note (measured in beats)
+   * @param newDuration   the new duration of the note (measured in beats)
+   * @param index         the index of the note among the notes of its pitch
+   */
+  protected void recordDuration(int start, int instrument, int pitch, int duration,
+                                int newDuration, int index) {
+    int last = this.coalescable(DURATION);
+    if (last >= 0 && this.records[last + 1] == start && this.records[last + 2] == instrument
+        && this.records[last + 3] == pitch && this.records[last + 6] == index) {
+      this.records[last + 5] = newDuration;
+    } else {
+      this.record(DURATION, start, instrument, pitch, duration, newDuration, index);
+    }
+  }
+
+  /**
+   * Records that the tempo of the piece was changed, merging it into the last record if that also
+   * changed the tempo.
+   *
+   * @param tempo      the old tempo of the piece
+   * @param newTempo   the new tempo of the piece
+   */
+  protected void recordTempo(int tempo, int newTempo) {
+    int last = this.coalescable(TEMPO);
+    if (last >= 0) {
+      this.records[last + 2] = newTempo;
+    } else {
+      this.record(TEMPO, tempo, newTempo, 0, 0, 0, 0);
+    }
+  }
+
+  /**
+   * Checks if there is an edit in this journal that can be undone.
+   *
+   * @return true if an edit can be undone, false otherwise
+   */
+  protected boolean canUndo() {
+    return this.applied > 0;
+  }
+
+  /**
+   * Checks if there is an edit in this journal that was undone and can be redone.
+   *
+   * @return true if an edit can be redone, false otherwise
+   */
+  protected boolean canRedo() {
+    return this.applied < this.count;
+  }
+
+  /**
+   * Undoes the most recent edit that has not been undone, by applying its inverse to the given
+   * piece, which should be the piece the edits were made to, and tells the given listener of the
+   * change. If the edit is part of a group, the whole group is undone, and the listener is told
+   * that the piece changed.
+   *
+   * @param piece      the piece the edits were made to
+   * @param version    the version the model moves on to with the change
+   * @param listener   the listener to be told of the change
+   * @return true if an edit was undone, false if there was none to undo
+   */
+  protected boolean undo(Piece piece, long version, MusicEditorListener listener) {
+    if (!this.canUndo()) {
+      return false;
+    }
+    int undone = this.groups[this.index(this.applied - 1)];
+    MusicEditorListener told = undone == NO_GROUP ? listener : SILENT;
+    do {
+      this.apply(piece, this.index(this.applied - 1) * WIDTH, true, version, told);
+      this.applied--;
+    } while (undone != NO_GROUP && this.canUndo()
+        && this.groups[this.index(this.applied - 1)] == undone);
+    if (undone != NO_GROUP) {
+      listener.pieceChanged(version);
+    }
+    return true;
+  }
+
+  /**
+   * Redoes the edit that was undone most recently, by applying it to the given piece again, and
+   * tells the given listener of the change. If the edit is part of a group, the whole group is
+   * redone, and the listener is told that the piece changed.
+   *
+   * @param piece      the piece the edits were made to
+   * @param version    the version the model moves on to with the change
+   * @param listener   the listener to be told of the change
+   * @return true if an edit was redone, false if there was none to redo
+   */
+  protected boolean redo(Piece piece, long version, MusicEditorListener listener) {
+    if (!this.canRedo()) {
+      return false;
+    }
+    int redone = this.groups[this.index(this.applied)];
+    MusicEditorListener told = redone == NO_GROUP ? listener : SILENT;
+    do {
+      this.apply(piece, this.index(this.applied) * WIDTH, false, version, told);
+      this.applied++;
+    } while (redone != NO_GROUP && this.canRedo()
+        && this.groups[this.index(this.applied)] == redone);
+    if (redone != NO_GROUP) {
+      listener.pieceChanged(version);
+    }
+    return true;
+  }
+
+  /**
+   * Helper to the undo and redo methods. Applies the record starting at the given index to the
+   * given piece, or its inverse, and tells the given listener of the change. The data of a note
+   * that is moved or resized is read from the piece before it is changed.
+   *
+   * @param piece      the piece the edits were made to
+   * @param r          the index of the first value of the record
+   * @param inverse    true if the inverse of the record is applied, false otherwise
+   * @param version    the version the model moves on to with the change
+   * @param listener   the listener to be told of the change
+   */
+  private void apply(Piece piece, int r, boolean inverse, long version,
+                     MusicEditorListener listener) {
+    int[] rec = this.records;
+    int type = rec[r];
+    if (type == TEMPO) {
+      piece.setTempo(inverse ? rec[r + 1] : rec[r + 2]);
+      listener.tempoChanged(version, inverse ? rec[r + 2] : rec[r + 1],
+          inverse ? rec[r + 1] : rec[r + 2]);
+      return;
+    }
+    int pitch = type == ADD || type == REMOVE ? rec[r + 4] : rec[r + 3];
+    int octave = MidiConversion.getOctave(pitch);
+    Pitch p = MidiConversion.getPitch(pitch);
+    Integer[] note;
+    switch (type) {
+      case ADD:
+      case REMOVE:
+        if ((type == ADD) == inverse) {
+          piece.removeNoteAt(octave, p, rec[r + 6]);
+          listener.noteRemoved(version, rec[r + 1], rec[r + 2], rec[r + 3], rec[r + 4],
+              rec[r + 5]);
+        } else {
+          piece.addNoteAt(octave, p, rec[r + 6], rec[r + 1],
+              MidiConversion.getDuration(rec[r + 1], rec[r + 2]), rec[r + 3], rec[r + 5]);
+          listener.noteAdded(version, rec[r + 1], rec[r + 2], rec[r + 3], rec[r + 4],
+              rec[r + 5]);
+        }
+        break;
+      case PITCH:
+        int newPitch = rec[r + 4];
+        if (inverse) {
+          note = piece.getNoteAt(octave, MidiConversion.getPitch(newPitch), rec[r + 6]);
+          piece.moveNoteAt(octave, MidiConversion.getPitch(newPitch), rec[r + 6], p, rec[r + 5],
+              rec[r + 1]);
+          this.moved(note, rec[r + 1], pitch, version, listener);
+        } else {
+          note = piece.getNoteAt(octave, p, rec[r + 5]);
+          piece.moveNoteAt(octave, p, rec[r + 5], MidiConversion.getPitch(newPitch), rec[r + 6],
+              rec[r + 1]);
+          this.moved(note, rec[r + 1], newPitch, version, listener);
+        }
+        break;
+      case POSITION:
+        if (inverse) {
+          note = piece.getNoteAt(octave, p, rec[r + 6]);
+          piece.moveNoteAt(octave, p, rec[r + 6], p, rec[r + 5], rec[r + 1]);
+          this.moved(note, rec[r + 1], pitch, version, listener);
+        } else {
+          note = piece.getNoteAt(octave, p, rec[r + 5]);
+          piece.moveNoteAt(octave, p, rec[r + 5], p, rec[r + 6], rec[r + 4]);
+          this.moved(note, rec[r + 4], pitch, version, listener);
+        }
+        break;
+      default:
+        int duration = inverse ? rec[r + 4] : rec[r + 5];
+        note = piece.getNoteAt(octave, p, rec[r + 6]);
+        piece.setDurationAt(octave, p, rec[r + 6], duration);
+        listener.noteResized(version, note[MidiConversion.NOTE_START],
+            note[MidiConversion.NOTE_END], note[MidiConversion.NOTE_INSTRUMENT], pitch,
+            note[MidiConversion.NOTE_VOLUME], note[MidiConversion.NOTE_START] + duration - 1);
+        break;
+    }
+  }
+
+  /**
+   * Helper to the apply method. Tells the given listener that the given note was moved.
+   *
+   * @param note       the note data of the note, before it was moved
+   * @param newStart   the new starting position of the note (measured in beats)
+   * @param newPitch   the new MIDI pitch of the note
+   * @param version    the version the model moves on to with the change
+   * @param listener   the listener to be told of the change
+   */
+  private void moved(Integer[] note, int newStart, int newPitch, long version,
+                     MusicEditorListener listener) {
+    listener.noteMoved(version, note[MidiConversion.NOTE_START], note[MidiConversion.NOTE_END],
+        note[MidiConversion.NOTE_INSTRUMENT], note[MidiConversion.NOTE_PITCH],
+        note[MidiConversion.NOTE_VOLUME], newStart, newPitch);
+  }
+
+  /**
+   * Adds a new record to this journal after the last edit that has not been undone, dropping
+   * every record after it, and dropping the oldest record if the journal is full, along with the
+   * rest of its group. The record joins the current group, if there is one.
+   *
+   * @param type   the type of the edit
+   * @param a      the first value of the record
+   * @param b      the second value of the record
+   * @param c      the third value of the record
+   * @param d      the fourth value of the record
+   * @param e      the fifth value of the record
+   * @param f      the sixth value of the record
+   */
+  private void record(int type, int a, int b, int c, int d, int e, int f) {
+    this.count = this.applied;
+    if (this.count == this.depth) {
+      int dropped = this.groups[this.first];
+      do {
+        this.first = (this.first + 1) % this.depth;
+        this.count--;
+      } while (dropped != NO_GROUP && this.count > 0 && this.groups[this.first] == dropped);
+    }
+    int i = this.index(this.count);
+    int r = i * WIDTH;
+    this.records[r] = type;
+    this.records[r + 1] = a;
+    this.records[r + 2] = b;
+    this.records[r + 3] = c;
+    this.records[r + 4] = d;
+    this.records[r + 5] = e;
+    this.records[r + 6] = f;
+    this.times[i] = System.currentTimeMillis();
+    this.groups[i] = this.group;
+    if (this.group != NO_GROUP) {
+      this.grouped++;
+    }
+    this.count++;
+    this.applied = this.count;
+  }
+
+  /**
+   * Finds the last record, if an edit of the given type could be merged into it: the record is of
+   * the same type and in the current group, it has not been undone, nothing was undone after it,
+   * and it was recorded less than {@code COALESCE_MILLIS} ago. Refreshes the time of the record if
+   * so.
+   *
+   * @param type   the type of the edit
+   * @return the index of the first value of the last record, or -1 if the edit cannot be merged
+   */
+  private int coalescable(int type) {
+    if (this.applied == 0 || this.applied != this.count) {
+      return -1;
+    }
+    int i = this.index(this.applied - 1);
+    long now = System.currentTimeMillis();
+    if (this.records[i * WIDTH] != type || this.groups[i] != this.group
+        || now - this.times[i] >= COALESCE_MILLIS) {
+      return -1;
+    }
+    this.times[i] = now;
+    return i * WIDTH;
+  }
+
+  /**
+   * Gets the index in the ring of the record with the given position, counting from the oldest.
+   *
+   * @param n   the position of the record
+   * @return the index of the record in the ring
+   */
+  private int index(int n) {
+    return (this.first + n) % this.depth;
+  }
+}
@@ -0,0 +1,147 @@
+package cs3500.music.model;
+
+import java.util.Arrays;
+
+/**
+ * Represents a growable table of ints with a fixed number of columns, which can be copied without
+ * copying its values. The rows are kept in fixed size chunks, with the values of each row next to
+ * each other, and a copy shares every chunk with the table it was copied from. Once a table is
+ * copied, a chunk is only copied the first time a different value is written to it, by either
+ * table, so each edit after a copy costs at most one chunk per row it changes.
+ */
+public final class IntTable {
+  private static final int CHUNK_BITS = 8;
+  private static final int CHUNK_ROWS = 1 << CHUNK_BITS;
+  private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int width;
+  private int[][] chunks;
+  private boolean[] shared;
+  private int capacity;
+
+  /**
+   * Default constructor.
+   * Constructs a new {@code IntTable} with the given number of columns and room for no rows.
+   *
+   * @param width   the number of columns in each row
+   * @throws IllegalArgumentException if the given width is negative or zero
+   */
+  protected IntTable(int width) throws IllegalArgumentException {
+    if (width <= 0) {
+      throw new IllegalArgumentException("Width must be positive and non-zero.");
+    }
+    this.width = width;
+    this.chunks = new int[0][];
+    this.shared = new boolean[0];
+    this.capacity = 0;
+  }
+
+  /**
+   * Copy constructor.
+   * Constructs a copy of the given {@code IntTable}, sharing all of its chunks. Every chunk is
+   * marked as shared in both tables, so that neither table writes to a chunk the other can read.
+   * Takes time proportional to the number of chunks, not the number of values.
+   *
+   * @param other   the table to be copied
+   * @throws IllegalArgumentException if the given table is uninitialized
+   */
+  protected IntTable(IntTable other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Cannot duplicate uninitialized table.");
+    }
+    Arrays.fill(other.shared, true);
+    this.width = other.width;
+    this.chunks = other.chunks.clone();
+    this.shared = other.shared.clone();
+    this.capacity = other.capacity;
+  }
+
+  /**
+   * Gets the number of rows this table has room for.
+   *
+   * @return the capacity of this table
+   */
+  protected int capacity() {
+    return this.capacity;
+  }
+
+  /**
+   * Makes room in this table for at least the given number of rows. New values are 0.
+   *
+   * @param minCapacity   the number of rows this table should have room for
+   */
+  protected void ensureCapacity(int minCapacity) {
+    if (minCapacity <= this.capacity) {
+      return;
+    }
+    int newCapacity = Math.max(minCapacity, Math.max(INITIAL_CAPACITY, this.capacity * 2));
+    if (newCapacity <= CHUNK_ROWS) {
+      this.resizeChunk(0, newCapacity);
+    } else {
+      int count = (newCapacity + CHUNK_MASK) >>> CHUNK_BITS;
+      int old = this.chunks.length;
+      if (old > 0 && this.chunks[old - 1].length < CHUNK_ROWS * this.width) {
+        this.resizeChunk(old - 1, CHUNK_ROWS);
+      }
+      this.chunks = Arrays.copyOf(this.chunks, count);
+      this.shared = Arrays.copyOf(this.shared, count);
+      for (int c = old; c < count; c++) {
+        this.chunks[c] = new int[CHUNK_ROWS * this.width];
+      }
+      newCapacity = count << CHUNK_BITS;
+    }
+    this.capacity = newCapacity;
+  }
+
+  /**
+   * Helper to the ensureCapacity method. Replaces the given chunk with a copy with room for the
+   * given number of rows, creating it if there is no such chunk yet. The new chunk is not shared.
+   *
+   * @param c      the index of the chunk
+   * @param rows   the number of rows in the new chunk
+   */
+  private void resizeChunk(int c, int rows) {
+    if (c == this.chunks.length) {
+      this.chunks = Arrays.copyOf(this.chunks, c + 1);
+      this.shared = Arrays.copyOf(this.shared, c + 1);
+      this.chunks[c] = new int[rows * this.width];
+    } else {
+      this.chunks[c] = Arrays.copyOf(this.chunks[c], rows * this.width);
+    }
+    this.shared[c] = false;
+  }
+
+  /**
+   * Gets the value at the given row and column.
+   *
+   * @param row      the row of the value, less than the capacity of this table
+   * @param column   the column of the value, less than the width of this table
+   * @return the value at the row and column
+   */
+  protected int get(int row, int column) {
+    return this.chunks[row >>> CHUNK_BITS][((row & CHUNK_MASK) * this.width) + column];
+  }
+
+  /**
+   * Sets the value at the given row and column, first copying its chunk if the chunk is shared
+   * with another table. Writing the value that is already there does nothing.
+   *
+   * @param row      the row of the value, less than the capacity of this table
+   * @param column   the column of the value, less than the width of this table
+   * @param value    the new value
+   */
+  protected void set(int row, int column, int value) {
+    int c = row >>> CHUNK_BITS;
+    int i = ((row & CHUNK_MASK) * this.width) + column;
+    int[] chunk = this.chunks[c];
+    if (chunk[i] != value) {
+      if (this.shared[c]) {
+        chunk = chunk.clone();
+        this.chunks[c] = chunk;
+        this.shared[c] = false;
+      }
+      chunk[i] = value;
+    }
+  }
+}
@@ -0,0 +1,329 @@
+package cs3500.music.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents an index over every note in a piece, keyed by the pitch of each note and the
+ * interval of beats it covers. Implemented as a treap ordered by pitch and then by starting
+ * position, where every node also keeps the latest end position found in its subtree so that
+ * whole subtrees can be skipped when searching for the notes played in a range of beats.
+ *
+ * <p>The notes of one pitch form a single run of the tree's order, searched as an interval tree
+ * of their own, so a search over a range of beats and pitches takes O(log n) for each pitch in
+ * the range that has notes, plus the number of notes found. Notes are found in order of pitch
+ * and then of starting position, so they need no sorting.</p>
+ *
+ * <p>Nodes are the slots of the notes in a {@link NoteStore}, and the links between them are
+ * kept in a table indexed by slot, so the tree allocates no objects per note. A copy of a tree
+ * shares that table with the original, as described in {@link IntTable}, until either of them
+ * changes.</p>
+ */
+public final class IntervalTree {
+  private static final int NIL = -1;
+  private static final int LEFT = 0;
+  private static final int RIGHT = 1;
+  private static final int MAX_END = 2;
+  private static final long NO_PITCH = Long.MAX_VALUE;
+
+  private final NoteStore store;
+  private final IntTable nodes;
+  private int root;
+
+  /**
+   * Default constructor.
+   * Constructs a new, empty {@code IntervalTree} over the notes in the given store.
+   *
+   * @param store   the store holding the note data for every slot
+   */
+  protected IntervalTree(NoteStore store) {
+    this.store = store;
+    this.nodes = new IntTable(3);
+    this.root = NIL;
+  }
+
+  /**
+   * Copy constructor.
+   * Constructs a copy of the given {@code IntervalTree} with the same shape, over the notes in the
+   * given store. The given store should hold the same notes in the same slots as the store of
+   * the given tree.
+   *
+   * @param other   the tree to be copied
+   * @param store   the store holding the note data for every slot
+   * @throws IllegalArgumentException if the given tree is uninitialized
+   */
+  protected IntervalTree(IntervalTree other, NoteStore store) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Cannot duplicate uninitialized tree.");
+    }
+    this.store = store;
+    this.nodes = new IntTable(other.nodes);
+    this.root = other.root;
+  }
+
+  /**
+   * Adds the note at the given slot to this tree.
+   *
+   * @param slot   the slot of the note
+   */
+  protected void add(int slot) {
+    this.nodes.ensureCapacity(slot + 1);
+    this.nodes.set(slot, LEFT, NIL);
+    this.nodes.set(slot, RIGHT, NIL);
+    this.nodes.set(slot, MAX_END, this.store.getEnd(slot));
+    this.root = this.insert(this.root, slot, this.store.getPitch(slot), this.store.getStart(slot));
+  }
+
+  /**
+   * Removes the note at the given slot from this tree. Must be called with the starting position
+   * the note had when it was added, and while it still has the pitch it had when it was added,
+   * so it should be called before either of them changes.
+   *
+   * @param slot    the slot of the note
+   * @param start   the starting position of the note when it was added
+   */
+  protected void remove(int slot, int start) {
+    this.root = this.delete(this.root, slot, this.store.getPitch(slot), start);
+  }
+
+  /**
+   * Gets the latest end position of any note in this tree, kept at the root of the tree.
+   *
+   * @return the latest end position of any note, or 0 if there are no notes
+   */
+  protected int maxEnd() {
+    return this.root == NIL ? 0 : this.nodes.get(this.root, MAX_END);
+  }
+
+  /**
+   * Returns a list of note data for every note in this tree played at any beat in the given
+   * range, with a pitch in the given range, ordered by pitch and then by starting position, and
+   * then by slot, so the order of notes with the same pitch and start depends on which slots
+   * were free when they were added. A note is played at every beat from its start up to, but
+   * not including, its end. Data is arranged the same as described in
+   * {@link MusicEditorOperations#getNotes()}.
+   *
+   * @param fromBeat    the first beat to check for notes
+   * @param toBeat      the last beat to check for notes
+   * @param lowPitch    the lowest MIDI pitch of the notes
+   * @param highPitch   the highest MIDI pitch of the notes
+   * @return a list of note data for every note in this tree in the given ranges
+   */
+  protected List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch,
+                                            int highPitch) {
+    List<Integer[]> notes = new ArrayList<>();
+    long pitch = this.ceilingPitch(lowPitch);
+    while (pitch <= highPitch) {
+      this.search(this.root, (int) pitch, fromBeat, toBeat, notes);
+      pitch = this.ceilingPitch((int) pitch + 1);
+    }
+    return notes;
+  }
+
+  /**
+   * Helper to the getNotesInRange method. Finds the lowest pitch of any note in this tree that
+   * is at least the given pitch.
+   *
+   * @param pitch   the lowest MIDI pitch to look for
+   * @return the lowest pitch found, or {@code NO_PITCH} if every note is lower
+   */
+  private long ceilingPitch(int pitch) {
+    long found = NO_PITCH;
+    int node = this.root;
+    while (node != NIL) {
+      if (this.store.getPitch(node) >= pitch) {
+        found = this.store.getPitch(node);
+        node = this.nodes.get(node, LEFT);
+      } else {
+        node = this.nodes.get(node, RIGHT);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Helper to the getNotesInRange method. Collects, in order, every note of the given pitch in
+   * the given subtree that starts at or before the last beat and ends after the first beat,
+   * skipping subtrees that end too early, and subtrees that only hold other pitches or notes
+   * that start too late.
+   *
+   * @param node       the root of the subtree being searched
+   * @param pitch      the MIDI pitch of the notes
+   * @param fromBeat   the first beat to check for notes
+   * @param toBeat     the last beat to check for notes
+   * @param notes      the note data of the notes found so far
+   */
+  private void search(int node, int pitch, int fromBeat, int toBeat, List<Integer[]> notes) {
+    if (node == NIL || this.nodes.get(node, MAX_END) <= fromBeat) {
+      return;
+    }
+    int p = this.store.getPitch(node);
+    if (p > pitch || (p == pitch && this.store.getStart(node) > toBeat)) {
+      this.search(this.nodes.get(node, LEFT), pitch, fromBeat, toBeat, notes);
+    } else if (p < pitch) {
+      this.search(this.nodes.get(node, RIGHT), pitch, fromBeat, toBeat, notes);
+    } else {
+      this.search(this.nodes.get(node, LEFT), pitch, fromBeat, toBeat, notes);
+      if (this.store.getEnd(node) > fromBeat) {
+        notes.add(this.store.getNote(node));
+      }
+      this.search(this.nodes.get(node, RIGHT), pitch, fromBeat, toBeat, notes);
+    }
+  }
+
+  /**
+   * Helper to the add method. Inserts the given slot into the given subtree, rotating it upward
+   * until the heap order of priorities is restored.
+   *
+   * @param node    the root of the subtree
+   * @param slot    the slot to be inserted
+   * @param pitch   the MIDI pitch of the note at the slot
+   * @param start   the starting position of the note at the slot
+   * @return the new root of the subtree
+   */
+  private int insert(int node, int slot, int pitch, int start) {
+    if (node == NIL) {
+      return slot;
+    }
+    if (this.compare(pitch, start, slot, node) < 0) {
+      this.nodes.set(node, LEFT, this.insert(this.nodes.get(node, LEFT), slot, pitch, start));
+      if (priority(this.nodes.get(node, LEFT)) > priority(node)) {
+        node = this.rotateRight(node);
+      }
+    } else {
+      this.nodes.set(node, RIGHT, this.insert(this.nodes.get(node, RIGHT), slot, pitch, start));
+      if (priority(this.nodes.get(node, RIGHT)) > priority(node)) {
+        node = this.rotateLeft(node);
+      }
+    }
+    this.update(node);
+    return node;
+  }
+
+  /**
+   * Helper to the remove method. Deletes the given slot from the given subtree, if it is there.
+   *
+   * @param node    the root of the subtree
+   * @param slot    the slot to be deleted
+   * @param pitch   the MIDI pitch of the note at the slot when it was added
+   * @param start   the starting position of the note at the slot when it was added
+   * @return the new root of the subtree
+   */
+  private int delete(int node, int slot, int pitch, int start) {
+    if (node == NIL) {
+      return NIL;
+    } else if (node == slot) {
+      return this.merge(this.nodes.get(node, LEFT), this.nodes.get(node, RIGHT));
+    } else if (this.compare(pitch, start, slot, node) < 0) {
+      this.nodes.set(node, LEFT, this.delete(this.nodes.get(node, LEFT), slot, pitch, start));
+    } else {
+      this.nodes.set(node, RIGHT, this.delete(this.nodes.get(node, RIGHT), slot, pitch, start));
+    }
+    this.update(node);
+    return node;
+  }
+
+  /**
+   * Helper to the delete method. Joins two subtrees, where every note in the left subtree is
+   * ordered before every note in the right subtree.
+   *
+   * @param a   the left subtree
+   * @param b   the right subtree
+   * @return the root of the joined subtree
+   */
+  private int merge(int a, int b) {
+    if (a == NIL) {
+      return b;
+    } else if (b == NIL) {
+      return a;
+    } else if (priority(a) > priority(b)) {
+      this.nodes.set(a, RIGHT, this.merge(this.nodes.get(a, RIGHT), b));
+      this.update(a);
+      return a;
+    } else {
+      this.nodes.set(b, LEFT, this.merge(a, this.nodes.get(b, LEFT)));
+      this.update(b);
+      return b;
+    }
+  }
+
+  /**
+   * Rotates the given subtree to the right, making its left child the new root.
+   *
+   * @param node   the root of the subtree
+   * @return the new root of the subtree
+   */
+  private int rotateRight(int node) {
+    int pivot = this.nodes.get(node, LEFT);
+    this.nodes.set(node, LEFT, this.nodes.get(pivot, RIGHT));
+    this.nodes.set(pivot, RIGHT, node);
+    this.update(node);
+    this.update(pivot);
+    return pivot;
+  }
+
+  /**
+   * Rotates the given subtree to the left, making its right child the new root.
+   *
+   * @param node   the root of the subtree
+   * @return the new root of the subtree
+   */
+  private int rotateLeft(int node) {
+    int pivot = this.nodes.get(node, RIGHT);
+    this.nodes.set(node, RIGHT, this.nodes.get(pivot, LEFT));
+    this.nodes.set(pivot, LEFT, node);
+    this.update(node);
+    this.update(pivot);
+    return pivot;
+  }
+
+  /**
+   * Recomputes the latest end position in the subtree rooted at the given node.
+   *
+   * @param node   the root of the subtree
+   */
+  private void update(int node) {
+    int max = this.store.getEnd(node);
+    if (this.nodes.get(node, LEFT) != NIL) {
+      max = Math.max(max, this.nodes.get(this.nodes.get(node, LEFT), MAX_END));
+    }
+    if (this.nodes.get(node, RIGHT) != NIL) {
+      max = Math.max(max, this.nodes.get(this.nodes.get(node, RIGHT), MAX_END));
+    }
+    this.nodes.set(node, MAX_END, max);
+  }
+
+  /**
+   * Orders a slot against a node in the tree by pitch, then by starting position, breaking ties
+   * by slot. Slots are reused once their notes are removed, so ties are not broken by the order
+   * the notes were added.
+   *
+   * @param pitch   the MIDI pitch of the note at the slot
+   * @param start   the starting position of the note at the slot
+   * @param slot    the slot being placed
+   * @param node    the node in the tree
+   * @return a negative number, zero, or a positive number if the slot is ordered before, at, or
+   *         after the node
+   */
+  private int compare(int pitch, int start, int slot, int node) {
+    int result = Integer.compare(pitch, this.store.getPitch(node));
+    if (result == 0) {
+      result = Integer.compare(start, this.store.getStart(node));
+    }
+    return result != 0 ? result : Integer.compare(slot, node);
+  }
+
+  /**
+   * Gets the heap priority of the given slot, a fixed scrambling of the slot number.
+   *
+   * @param slot   the slot of a note
+   * @return the priority of the slot
+   */
+  private static int priority(int slot) {
+    int h = slot * 0x9E3779B9;
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    return h;
+  }
+}
@@ -0,0 +1,88 @@
+package cs3500.music.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Represents the listeners registered with a model, which is itself a listener that passes every
+ * event on to each of them in the order they were registered. Listeners are kept in a
+ * copy-on-write list, as they are registered far less often than events are given, so that a
+ * listener can be registered or removed from any thread, or while an event is being given.
+ */
+public final class ListenerList implements MusicEditorListener {
+  private final List<MusicEditorListener> listeners;
+
+  /**
+   * Constructs a new {@code ListenerList} with no listeners.
+   */
+  protected ListenerList() {
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Registers the given listener, so that it is given every later event.
+   *
+   * @param listener   the listener to be registered
+   * @throws IllegalArgumentException if the given listener is uninitialized
+   */
+  protected void add(MusicEditorListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Given listener is uninitialized.");
+    }
+    this.listeners.add(listener);
+  }
+
+  /**
+   * Removes the given listener, if it is registered, so that it is given no later events.
+   *
+   * @param listener   the listener to be removed
+   */
+  protected void remove(MusicEditorListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  @Override
+  public void noteAdded(long version, int start, int end, int instrument, int pitch, int volume) {
+    for (MusicEditorListener listener : this.listeners) {
+      listener.noteAdded(version, start, end, instrument, pitch, volume);
+    }
+  }
+
+  @Override
+  public void noteRemoved(long version, int start, int end, int instrument, int pitch,
+                          int volume) {
+    for (MusicEditorListener listener : this.listeners) {
+      listener.noteRemoved(version, start, end, instrument, pitch, volume);
+    }
+  }
+
+  @Override
+  public void noteMoved(long version, int start, int end, int instrument, int pitch, int volume,
+                        int newStart, int newPitch) {
+    for (MusicEditorListener listener : this.listeners) {
+      listener.noteMoved(version, start, end, instrument, pitch, volume, newStart, newPitch);
+    }
+  }
+
+  @Override
+  public void noteResized(long version, int start, int end, int instrument, int pitch,
+                          int volume, int newEnd) {
+    for (MusicEditorListener listener : this.listeners) {
+      listener.noteResized(version, start, end, instrument, pitch, volume, newEnd);
+    }
+  }
+
+  @Override
+  public void tempoChanged(long version, int tempo, int newTempo) {
+    for (MusicEditorListener listener : this.listeners) {
+      listener.tempoChanged(version, tempo, newTempo);
+    }
+  }
+
+  @Override
+  public void pieceChanged(long version) {
+    for (MusicEditorListener listener : this.listeners) {
+      listener.pieceChanged(version);
+    }
+  }
+}
@@ -2,13 +2,27 @@ package cs3500.music.model;
 
 import cs3500.music.util.CompositionBuilder;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+
 /**
  * Represents a builder for an editor model. Uses the {@link MusicEditorOperations#setTempo(int)}
- * and {@link MusicEditorOperations#addNote(int, int, int, int, int)} methods to build the piece,
- * without needing to touch the model itself.
+ * method and adds notes in bulk to build the piece, without needing to touch the model itself.
+ *
+ * <p>Added notes are checked right away, but are held by the builder and only added to the model
+ * together when {@link #build()} is called, so that loading a whole piece sorts each pitch once
+ * rather than inserting every note in order.</p>
  */
 public class MusicEditorBuilder implements CompositionBuilder<MusicEditorOperations> {
-  private final MusicEditorOperations model;
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final MusicEditorModel model;
+  private int[] starts;
+  private int[] ends;
+  private int[] instruments;
+  private int[] pitches;
+  private int[] volumes;
+  private int pending;
 
   /**
    * Constructs a new {@code MusicEditorBuilder}. Initializes and creates a new piece in a
@@ -17,10 +31,26 @@ public class MusicEditorBuilder implements CompositionBuilder<MusicEditorOperati
   public MusicEditorBuilder() {
     this.model = new MusicEditorModel();
     this.model.create();
+    this.starts = new int[INITIAL_CAPACITY];
+    this.ends = new int[INITIAL_CAPACITY];
+    this.instruments = new int[INITIAL_CAPACITY];
+    this.pitches = new int[INITIAL_CAPACITY];
+    this.volumes = new int[INITIAL_CAPACITY];
+    this.pending = 0;
   }
 
+  /**
+   * Adds every note held by this builder to the model, and returns the model.
+   *
+   * @return the model built by this builder
+   */
   @Override
   public MusicEditorOperations build() {
+    if (this.pending > 0) {
+      this.model.addNotes(this.starts, this.ends, this.instruments, this.pitches, this.volumes,
+          this.pending);
+      this.pending = 0;
+    }
     return this.model;
   }
 
@@ -31,11 +61,51 @@ public class MusicEditorBuilder implements CompositionBuilder<MusicEditorOperati
     return this;
   }
 
+  /**
+   * Sets the number of notes that the pieces of the model which are not opened can hold in
+   * memory, before the least recently opened of them are written to disk.
+   *
+   * @param budget   the number of notes held in memory
+   * @return this builder
+   * @throws IllegalArgumentException if the given budget is negative
+   */
+  public MusicEditorBuilder setNoteBudget(int budget) throws IllegalArgumentException {
+    this.model.setNoteBudget(budget);
+    return this;
+  }
+
+  /**
+   * Sets the directory that the pieces of the model are written to once they are over the note
+   * budget.
+   *
+   * @param directory   the directory pieces are written to
+   * @return this builder
+   * @throws IllegalArgumentException if the given directory is uninitialized
+   */
+  public MusicEditorBuilder setDirectory(Path directory) throws IllegalArgumentException {
+    this.model.setDirectory(directory);
+    return this;
+  }
+
   @Override
   public CompositionBuilder<MusicEditorOperations> addNote(int start, int end, int instrument,
                                                            int pitch, int volume)
       throws IllegalArgumentException {
-    this.model.addNote(start, end, instrument, pitch, volume);
+    Piece.checkNote(start, end, instrument, pitch, volume);
+    if (this.pending == this.starts.length) {
+      int capacity = this.starts.length * 2;
+      this.starts = Arrays.copyOf(this.starts, capacity);
+      this.ends = Arrays.copyOf(this.ends, capacity);
+      this.instruments = Arrays.copyOf(this.instruments, capacity);
+      this.pitches = Arrays.copyOf(this.pitches, capacity);
+      this.volumes = Arrays.copyOf(this.volumes, capacity);
+    }
+    this.starts[this.pending] = start;
+    this.ends[this.pending] = end;
+    this.instruments[this.pending] = instrument;
+    this.pitches[this.pending] = pitch;
+    this.volumes[this.pending] = volume;
+    this.pending++;
     return this;
   }
 }
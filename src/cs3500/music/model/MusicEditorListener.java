@@ -0,0 +1,86 @@
+package cs3500.music.model;
+
+/**
+ * Represents a listener for the changes made to a model, registered with
+ * {@link MusicEditorOperations#addListener(MusicEditorListener)}. Each change is described by a
+ * single event carrying the data of the note it changed as primitives, so that a view can patch
+ * what it has drawn or queued without reading the whole piece again.
+ *
+ * <p>Every event carries the version the model moved on to with the change, as described in
+ * {@link MusicEditorOperations#getVersion()}. Events are given in the order the changes were
+ * made, but may be given after later changes have been made, so a listener that has read a
+ * {@link PieceSnapshot} should skip every event with a version no newer than the snapshot's.</p>
+ */
+public interface MusicEditorListener {
+  /**
+   * Called after a note has been added to the currently opened piece.
+   *
+   * @param version      the version of the model after the change
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   */
+  void noteAdded(long version, int start, int end, int instrument, int pitch, int volume);
+
+  /**
+   * Called after a note has been removed from the currently opened piece.
+   *
+   * @param version      the version of the model after the change
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   */
+  void noteRemoved(long version, int start, int end, int instrument, int pitch, int volume);
+
+  /**
+   * Called after a note of the currently opened piece has been moved to a new pitch or a new
+   * starting position. The note keeps its duration, so it now ends at
+   * {@code newStart + (end - start)}.
+   *
+   * @param version      the version of the model after the change
+   * @param start        the old starting position of the note (measured in beats)
+   * @param end          the old ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the old MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   * @param newStart     the new starting position of the note (measured in beats)
+   * @param newPitch     the new MIDI pitch of the note
+   */
+  void noteMoved(long version, int start, int end, int instrument, int pitch, int volume,
+                 int newStart, int newPitch);
+
+  /**
+   * Called after the duration of a note of the currently opened piece has been changed.
+   *
+   * @param version      the version of the model after the change
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the old ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   * @param newEnd       the new ending position of the note (measured in beats)
+   */
+  void noteResized(long version, int start, int end, int instrument, int pitch, int volume,
+                   int newEnd);
+
+  /**
+   * Called after the tempo of the currently opened piece has been changed.
+   *
+   * @param version    the version of the model after the change
+   * @param tempo      the old tempo of the piece
+   * @param newTempo   the new tempo of the piece
+   */
+  void tempoChanged(long version, int tempo, int newTempo);
+
+  /**
+   * Called after a change that is not described by a single note, such as opening another piece,
+   * closing the opened one, or adding many notes at once. The piece should be read again in full.
+   *
+   * @param version   the version of the model after the change
+   */
+  void pieceChanged(long version);
+}
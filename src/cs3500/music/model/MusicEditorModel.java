@@ -2,46 +2,342 @@ package cs3500.music.model;
 
 import cs3500.music.util.MidiConversion;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * Represents the model for the editor of a Music Editor. Allows for creating pieces,
  * adding/removing/editing notes, setting tempo, getting length of a piece, or getting note data.
+ *
+ * <p>Every piece is kept by its id, so opening or switching to a piece in memory takes constant
+ * time. Pieces that are not opened count towards a budget of notes held in memory, and once the
+ * budget is passed the least recently opened pieces are written to temporary files and dropped
+ * from memory. They are only read back when they are opened again.</p>
+ *
+ * <p>Every edit to the opened piece is recorded in an {@link EditJournal}, so that it can be
+ * undone and redone until another piece is opened.</p>
+ *
+ * <p>Every change to the opened piece, or to which piece is opened, moves the model on to a new
+ * version. Views can compare versions to skip work when nothing has changed, and read a
+ * {@link PieceSnapshot} of the piece, which is published through an atomic reference and shared
+ * by every reader until the next change.</p>
+ *
+ * <p>Every change is also given as an event to the {@link MusicEditorListener}s registered with
+ * the model, right after it is made, so that views can patch what they show rather than reading
+ * the whole piece again.</p>
+ *
+ * <p>A batch of edits is applied to the opened piece itself, after taking a copy-on-write copy
+ * of the piece and a copy of the journal to roll back to if any edit in it fails. Its edits are
+ * recorded as one group, and listeners are told nothing until the batch has been applied, then
+ * told once that the piece changed.</p>
  */
 public final class MusicEditorModel implements MusicEditorOperations {
-  private List<Piece> pieces;
+  private static final int DEFAULT_NOTE_BUDGET = 1 << 20;
+  private static final int NO_PIECE = -1;
+  private static final MusicEditorListener SILENT = new ListenerList();
+
+  private final Set<Integer> ids;
+  private final LinkedHashMap<Integer, Piece> loaded;
+  private final Map<Integer, Path> evicted;
+  private final AtomicLong version;
+  private final AtomicReference<PieceSnapshot> snapshot;
+  private final ListenerList listeners;
+  private EditJournal journal;
+  private MusicEditorListener events;
+  private Batch batch;
+  private Path directory;
+  private int loadedNotes;
+  private int noteBudget;
+  private int nextId;
   private Piece opened;
+  private int openedId;
 
   /**
    * Creates a new {@code MusicEditorModel} with no pieces in memory.
    */
   protected MusicEditorModel() {
-    this.pieces = new ArrayList<>();
+    this.ids = new LinkedHashSet<>();
+    this.loaded = new LinkedHashMap<>(16, 0.75f, true);
+    this.evicted = new HashMap<>();
+    this.journal = new EditJournal();
+    this.version = new AtomicLong(0);
+    this.snapshot = new AtomicReference<>(null);
+    this.listeners = new ListenerList();
+    this.events = this.listeners;
+    this.batch = null;
+    this.directory = null;
+    this.loadedNotes = 0;
+    this.noteBudget = DEFAULT_NOTE_BUDGET;
+    this.nextId = 0;
     this.opened = null;
+    this.openedId = NO_PIECE;
   }
 
   @Override
   public void create() {
-    Piece next = new Piece();
-    this.pieces.add(0, next);
-    this.opened = next;
+    this.batchException();
+    int id = this.nextId++;
+    this.ids.add(id);
+    this.putAway();
+    this.opened = new Piece();
+    this.openedId = id;
+    this.journal.clear();
+    this.listeners.pieceChanged(this.changed());
+  }
+
+  @Override
+  public void open(int id) throws IllegalArgumentException, IllegalStateException {
+    this.batchException();
+    this.pieceException(id);
+    if (id != this.openedId) {
+      Piece next = this.load(id);
+      this.putAway();
+      this.opened = next;
+      this.openedId = id;
+      this.journal.clear();
+      this.listeners.pieceChanged(this.changed());
+    }
+  }
+
+  @Override
+  public void close(int id) throws IllegalArgumentException {
+    this.batchException();
+    this.pieceException(id);
+    this.ids.remove(id);
+    if (id == this.openedId) {
+      this.opened = null;
+      this.openedId = NO_PIECE;
+      this.journal.clear();
+      this.listeners.pieceChanged(this.changed());
+    } else if (this.loaded.containsKey(id)) {
+      this.loadedNotes -= this.loaded.remove(id).size();
+    } else {
+      deleteFile(this.evicted.remove(id));
+    }
+  }
+
+  @Override
+  public boolean undo() throws IllegalStateException {
+    this.openedPieceException();
+    this.batchException();
+    return this.journal.canUndo()
+        && this.journal.undo(this.opened, this.changed(), this.listeners);
+  }
+
+  @Override
+  public boolean redo() throws IllegalStateException {
+    this.openedPieceException();
+    this.batchException();
+    return this.journal.canRedo()
+        && this.journal.redo(this.opened, this.changed(), this.listeners);
+  }
+
+  @Override
+  public List<Integer> getPieceIds() {
+    return new ArrayList<>(this.ids);
+  }
+
+  @Override
+  public int getOpenedId() throws IllegalStateException {
+    this.openedPieceException();
+    return this.openedId;
+  }
+
+  /**
+   * Sets the number of notes that the pieces which are not opened can hold in memory before the
+   * least recently opened of them are written to disk.
+   *
+   * @param budget   the number of notes held in memory
+   * @throws IllegalArgumentException if the given budget is negative
+   */
+  protected void setNoteBudget(int budget) throws IllegalArgumentException {
+    if (budget < 0) {
+      throw new IllegalArgumentException("Cannot set negative note budget.");
+    }
+    this.noteBudget = budget;
+    this.evict();
+  }
+
+  /**
+   * Sets the directory that pieces are written to once they are over the note budget. Pieces
+   * already written stay where they are. By default, a new temporary directory is used.
+   *
+   * @param directory   the directory pieces are written to
+   * @throws IllegalArgumentException if the given directory is uninitialized
+   */
+  protected void setDirectory(Path directory) throws IllegalArgumentException {
+    if (directory == null) {
+      throw new IllegalArgumentException("Given directory is uninitialized.");
+    }
+    this.directory = directory;
+  }
+
+  /**
+   * Helper to the create and open methods. Keeps the currently opened piece in memory, if there
+   * is one, so that it can be opened again, and leaves no piece opened.
+   */
+  private void putAway() {
+    if (this.opened != null) {
+      this.loaded.put(this.openedId, this.opened);
+      this.loadedNotes += this.opened.size();
+      this.opened = null;
+      this.openedId = NO_PIECE;
+      this.evict();
+    }
+  }
+
+  /**
+   * Helper to the open method. Takes the piece with the given id out of memory, or reads it back
+   * from disk if it was written there.
+   *
+   * @param id   the id of the piece, which is not opened
+   * @return the piece with the given id
+   * @throws IllegalStateException if the piece cannot be read back from disk
+   */
+  private Piece load(int id) throws IllegalStateException {
+    Piece piece = this.loaded.remove(id);
+    if (piece != null) {
+      this.loadedNotes -= piece.size();
+      return piece;
+    }
+    Path file = this.evicted.get(id);
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file)))) {
+      piece = Piece.read(in);
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read piece " + id + " from disk.", e);
+    }
+    this.evicted.remove(id);
+    deleteFile(file);
+    return piece;
+  }
+
+  /**
+   * Writes the least recently opened pieces in memory to disk until the notes left in memory are
+   * within the budget. Pieces without notes are kept in memory. If a piece cannot be written, it
+   * is kept in memory and no more pieces are written.
+   */
+  private void evict() {
+    Iterator<Map.Entry<Integer, Piece>> eldest = this.loaded.entrySet().iterator();
+    while (this.loadedNotes > this.noteBudget && eldest.hasNext()) {
+      Map.Entry<Integer, Piece> entry = eldest.next();
+      Piece piece = entry.getValue();
+      if (piece.size() > 0) {
+        Path file;
+        try {
+          file = this.write(entry.getKey(), piece);
+        } catch (IOException e) {
+          return;
+        }
+        this.evicted.put(entry.getKey(), file);
+        this.loadedNotes -= piece.size();
+        eldest.remove();
+      }
+    }
+  }
+
+  /**
+   * Helper to the evict method. Writes the given piece to its file in the temporary directory of
+   * this model, which is deleted when the program exits.
+   *
+   * @param id      the id of the piece
+   * @param piece   the piece to be written
+   * @return the file the piece was written to
+   * @throws IOException if the piece cannot be written
+   */
+  private Path write(int id, Piece piece) throws IOException {
+    if (this.directory == null) {
+      this.directory = Files.createTempDirectory("music-editor");
+      this.directory.toFile().deleteOnExit();
+    }
+    Path file = this.directory.resolve(id + ".piece");
+    file.toFile().deleteOnExit();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(file)))) {
+      piece.write(out);
+    }
+    return file;
+  }
+
+  /**
+   * Deletes the given file of a piece that is no longer needed, if it exists.
+   *
+   * @param file   the file to be deleted
+   */
+  private static void deleteFile(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      file.toFile().deleteOnExit();
+    }
   }
 
   @Override
   public void addNote(int start, int end, int instrument, int pitch, int volume)
       throws IllegalStateException, IllegalArgumentException {
     this.openedPieceException();
-    this.opened.addNote(MidiConversion.getOctave(pitch), MidiConversion.getPitch(pitch), start, 
-        MidiConversion.getDuration(start, end), instrument, volume);
+    int index = this.opened.addNote(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, MidiConversion.getDuration(start, end), instrument,
+        volume);
+    this.journal.recordAdd(start, end, instrument, pitch, volume, index);
+    this.events.noteAdded(this.changed(), start, end, instrument, pitch, volume);
+  }
+
+  /**
+   * Adds many new notes to the currently opened piece at once, as described in
+   * {@link Piece#addNotes(int[], int[], int[], int[], int[], int)}. If any of the notes is
+   * invalid, none of them are added. Adding notes this way is not recorded as an edit, and the
+   * edits recorded before it can no longer be undone.
+   *
+   * @param starts        the starting position of each note (measured in beats)
+   * @param ends          the ending position of each note (measured in beats)
+   * @param instruments   the instrument each note is played in [0, 127]
+   * @param pitches       the pitch at which each note is played [0, 127]
+   * @param volumes       the volume at which each note is played [0, 127]
+   * @param count         the number of notes to add, from the start of each array
+   * @throws IllegalStateException if there is no currently opened piece
+   * @throws IllegalArgumentException if any of the notes is invalid
+   */
+  protected void addNotes(int[] starts, int[] ends, int[] instruments, int[] pitches,
+                          int[] volumes, int count)
+      throws IllegalStateException, IllegalArgumentException {
+    this.openedPieceException();
+    this.batchException();
+    this.opened.addNotes(starts, ends, instruments, pitches, volumes, count);
+    this.journal.clear();
+    this.listeners.pieceChanged(this.changed());
   }
 
   @Override
   public void removeNote(int start, int instrument, int pitch)
       throws IllegalStateException, IllegalArgumentException {
     this.openedPieceException();
+    int index = this.opened.indexOf(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, instrument);
+    Integer[] note = this.opened.getNote(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, instrument);
     this.opened.removeNote(MidiConversion.getOctave(pitch), MidiConversion.getPitch(pitch),
         start, instrument);
+    this.journal.recordRemove(start, note[MidiConversion.NOTE_END], instrument, pitch,
+        note[MidiConversion.NOTE_VOLUME], index);
+    this.events.noteRemoved(this.changed(), start, note[MidiConversion.NOTE_END], instrument,
+        pitch, note[MidiConversion.NOTE_VOLUME]);
   }
 
   @Override
@@ -52,30 +348,63 @@ public final class MusicEditorModel implements MusicEditorOperations {
     if (octave != MidiConversion.getOctave(editedPitch)) {
       throw new IllegalArgumentException("Cannot edit octave, only pitch.");
     }
-    this.opened.editPitch(octave, MidiConversion.getPitch(pitch), start, instrument,
-        MidiConversion.getPitch(editedPitch));
+    int index = pitch == editedPitch ? -1
+        : this.opened.indexOf(octave, MidiConversion.getPitch(pitch), start, instrument);
+    Integer[] note = index < 0 ? null
+        : this.opened.getNoteAt(octave, MidiConversion.getPitch(pitch), index);
+    int editedIndex = this.opened.editPitch(octave, MidiConversion.getPitch(pitch), start,
+        instrument, MidiConversion.getPitch(editedPitch));
+    if (editedIndex >= 0) {
+      this.journal.recordPitch(start, instrument, pitch, editedPitch, index, editedIndex);
+      this.events.noteMoved(this.changed(), start, note[MidiConversion.NOTE_END], instrument,
+          pitch, note[MidiConversion.NOTE_VOLUME], start, editedPitch);
+    }
   }
 
   @Override
   public void editNotePosition(int start, int instrument, int pitch, int editedStart)
       throws IllegalStateException, IllegalArgumentException {
     this.openedPieceException();
-    this.opened.editPosition(MidiConversion.getOctave(pitch), MidiConversion.getPitch(pitch),
-        start, instrument, editedStart);
+    int index = start == editedStart ? -1 : this.opened.indexOf(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, instrument);
+    Integer[] note = index < 0 ? null : this.opened.getNoteAt(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), index);
+    int editedIndex = this.opened.editPosition(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, instrument, editedStart);
+    if (editedIndex >= 0) {
+      this.journal.recordPosition(start, instrument, pitch, editedStart, index, editedIndex);
+      this.events.noteMoved(this.changed(), start, note[MidiConversion.NOTE_END], instrument,
+          pitch, note[MidiConversion.NOTE_VOLUME], editedStart, pitch);
+    }
   }
 
   @Override
   public void editNoteDuration(int start, int instrument, int pitch, int editedEnd)
       throws IllegalStateException, IllegalArgumentException {
     this.openedPieceException();
+    int index = this.opened.indexOf(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, instrument);
+    Integer[] note = this.opened.getNote(MidiConversion.getOctave(pitch),
+        MidiConversion.getPitch(pitch), start, instrument);
     this.opened.editDuration(MidiConversion.getOctave(pitch), MidiConversion.getPitch(pitch),
         start, instrument, editedEnd);
+    int duration = MidiConversion.getDuration(start, note[MidiConversion.NOTE_END]);
+    if (duration != editedEnd) {
+      this.journal.recordDuration(start, instrument, pitch, duration, editedEnd, index);
+      this.events.noteResized(this.changed(), start, note[MidiConversion.NOTE_END],
+          instrument, pitch, note[MidiConversion.NOTE_VOLUME], start + editedEnd - 1);
+    }
   }
 
   @Override
   public void setTempo(int tempo) throws IllegalStateException, IllegalArgumentException {
     this.openedPieceException();
+    int old = this.opened.getTempo();
     this.opened.setTempo(tempo);
+    if (old != tempo) {
+      this.journal.recordTempo(old, tempo);
+      this.events.tempoChanged(this.changed(), old, tempo);
+    }
   }
 
   @Override
@@ -90,22 +419,130 @@ public final class MusicEditorModel implements MusicEditorOperations {
     return this.opened.getNotes();
   }
 
+  @Override
+  public void forEachNote(NoteConsumer consumer)
+      throws IllegalStateException, IllegalArgumentException {
+    this.openedPieceException();
+    if (consumer == null) {
+      throw new IllegalArgumentException("Given consumer is uninitialized.");
+    }
+    this.opened.forEachNote(consumer);
+  }
+
   @Override
   public List<Integer[]> getNotesAtBeat(int beat) throws IllegalStateException {
     this.openedPieceException();
     return this.opened.getNotesAtBeat(beat);
   }
 
+  @Override
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat)
+      throws IllegalStateException, IllegalArgumentException {
+    return this.getNotesInRange(fromBeat, toBeat, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch, int highPitch)
+      throws IllegalStateException, IllegalArgumentException {
+    this.openedPieceException();
+    return this.opened.getNotesInRange(fromBeat, toBeat, lowPitch, highPitch);
+  }
+
   @Override
   public int getLength() throws IllegalStateException {
     this.openedPieceException();
     return this.opened.length();
   }
 
+  @Override
+  public long getVersion() {
+    return this.version.get();
+  }
+
   /**
-   * Helper to the print, close, addNote, removeNote, editNotePitch, editNotePosition,
-   * editNoteDuration, setTempo, getTempo, getNotes, getNotesAtBeat, and getLength methods. Checks
-   * if there is currently a piece opened, and if not throws an exception.
+   * Gets a snapshot of the currently opened piece at the current version. The snapshot is only
+   * taken the first time it is asked for after a change, and published for every later call
+   * until the next change, so a batch of edits with no reads in between takes no snapshots.
+   *
+   * @return a snapshot of the currently opened piece
+   * @throws IllegalStateException if there is currently no piece opened
+   */
+  @Override
+  public PieceSnapshot getSnapshot() throws IllegalStateException {
+    long current = this.version.get();
+    PieceSnapshot published = this.snapshot.get();
+    if (published != null && published.getVersion() == current) {
+      return published;
+    }
+    this.openedPieceException();
+    published = new PieceSnapshot(current, this.opened);
+    this.snapshot.set(published);
+    return published;
+  }
+
+  @Override
+  public void applyBatch(Consumer<BatchEditor> batch)
+      throws IllegalStateException, IllegalArgumentException {
+    this.openedPieceException();
+    this.batchException();
+    if (batch == null) {
+      throw new IllegalArgumentException("Given batch is uninitialized.");
+    }
+    long before = this.version.get();
+    Piece piece = new Piece(this.opened);
+    EditJournal journal = new EditJournal(this.journal);
+    boolean applied = false;
+    this.batch = new Batch();
+    this.events = SILENT;
+    this.journal.beginGroup();
+    try {
+      batch.accept(this.batch);
+      this.journal.endGroup();
+      applied = true;
+    } finally {
+      this.batch = null;
+      this.events = this.listeners;
+      if (!applied) {
+        this.opened = piece;
+        this.journal = journal;
+      }
+      if (this.version.get() != before) {
+        long version = this.changed();
+        if (applied) {
+          this.listeners.pieceChanged(version);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void addListener(MusicEditorListener listener) throws IllegalArgumentException {
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(MusicEditorListener listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Helper to the create, open, close, undo, redo, addNote, addNotes, removeNote, editNotePitch,
+   * editNotePosition, editNoteDuration, setTempo, and applyBatch methods. Moves the model on to
+   * the next version for a change to the currently opened piece, before its listeners are told of
+   * it. A batch that is rolled back still moves the model on, as a snapshot may have been taken
+   * of the piece half way through it.
+   *
+   * @return the new version of the model
+   */
+  private long changed() {
+    return this.version.incrementAndGet();
+  }
+
+  /**
+   * Helper to the undo, redo, getOpenedId, addNote, addNotes, removeNote, editNotePitch,
+   * editNotePosition, editNoteDuration, setTempo, getTempo, getNotes, forEachNote,
+   * getNotesAtBeat, getNotesInRange, getLength, getSnapshot, and applyBatch methods. Checks if
+   * there is currently a piece opened, and if not throws an exception.
    *
    * @throws IllegalStateException if there is currently no piece opened
    */
@@ -114,4 +551,89 @@ public final class MusicEditorModel implements MusicEditorOperations {
       throw new IllegalStateException("There is no piece currently open.");
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Helper to the create, open, close, undo, redo, addNotes, and applyBatch methods. Checks if a
+   * batch is being applied, and if so throws an exception, as the batch could not be rolled back
+   * after any of them.
+   *
+   * @throws IllegalStateException if a batch is being applied
+   */
+  private void batchException() throws IllegalStateException {
+    if (this.batch != null) {
+      throw new IllegalStateException("Cannot do this while a batch is being applied.");
+    }
+  }
+
+  /**
+   * Helper to the open and close methods. Checks if there is a piece with the given id, and if
+   * not throws an exception.
+   *
+   * @param id   the id to be checked
+   * @throws IllegalArgumentException if there is no piece with the given id
+   */
+  private void pieceException(int id) throws IllegalArgumentException {
+    if (!this.ids.contains(id)) {
+      throw new IllegalArgumentException("There is no piece with the given id.");
+    }
+  }
+
+  /**
+   * Represents the editor given to a batch of edits, which makes each edit on this model for as
+   * long as the batch is being applied, and refuses every edit afterwards.
+   */
+  private final class Batch implements BatchEditor {
+    @Override
+    public void addNote(int start, int end, int instrument, int pitch, int volume)
+        throws IllegalStateException, IllegalArgumentException {
+      this.appliedException();
+      MusicEditorModel.this.addNote(start, end, instrument, pitch, volume);
+    }
+
+    @Override
+    public void removeNote(int start, int instrument, int pitch)
+        throws IllegalStateException, IllegalArgumentException {
+      this.appliedException();
+      MusicEditorModel.this.removeNote(start, instrument, pitch);
+    }
+
+    @Override
+    public void editNotePitch(int start, int instrument, int pitch, int editedPitch)
+        throws IllegalStateException, IllegalArgumentException {
+      this.appliedException();
+      MusicEditorModel.this.editNotePitch(start, instrument, pitch, editedPitch);
+    }
+
+    @Override
+    public void editNotePosition(int start, int instrument, int pitch, int editedStart)
+        throws IllegalStateException, IllegalArgumentException {
+      this.appliedException();
+      MusicEditorModel.this.editNotePosition(start, instrument, pitch, editedStart);
+    }
+
+    @Override
+    public void editNoteDuration(int start, int instrument, int pitch, int editedEnd)
+        throws IllegalStateException, IllegalArgumentException {
+      this.appliedException();
+      MusicEditorModel.this.editNoteDuration(start, instrument, pitch, editedEnd);
+    }
+
+    @Override
+    public void setTempo(int tempo) throws IllegalStateException, IllegalArgumentException {
+      this.appliedException();
+      MusicEditorModel.this.setTempo(tempo);
+    }
+
+    /**
+     * Helper to every edit of this editor. Checks if its batch is still being applied, and if
+     * not throws an exception.
+     *
+     * @throws IllegalStateException if the batch of this editor is no longer being applied
+     */
+    private void appliedException() throws IllegalStateException {
+      if (MusicEditorModel.this.batch != this) {
+        throw new IllegalStateException("Batch is no longer being applied.");
+      }
+    }
+  }
+}
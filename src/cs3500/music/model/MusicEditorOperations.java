@@ -1,18 +1,75 @@
 package cs3500.music.model;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Represents all of the operations that the model of a Midi Editor should have, including
- * creating new pieces, adding/removing/editing notes, setting tempo, getting the length of a
- * piece, getting note data, and creating a String representation of the currently opened piece.
+ * creating, opening, and closing pieces, adding/removing/editing notes, setting tempo, getting
+ * the length of a piece, getting note data, and creating a String representation of the
+ * currently opened piece.
  */
 public interface MusicEditorOperations {
   /**
-   * Creates a new piece of music and opens it.
+   * Creates a new piece of music and opens it. The new piece is given the next id, which can be
+   * found with {@link #getOpenedId()}.
    */
   void create();
 
+  /**
+   * Opens the piece with the given id, so that every other operation acts on it. The piece that
+   * was opened before stays in the model, and can be opened again later.
+   *
+   * @param id   the id of the piece to open
+   * @throws IllegalArgumentException if there is no piece with the given id
+   * @throws IllegalStateException if the piece cannot be read back from where it was kept, in
+   *                               which case the piece opened before stays opened
+   */
+  void open(int id) throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * Closes the piece with the given id, removing it from the model. If it is the currently
+   * opened piece, no piece is opened afterwards.
+   *
+   * @param id   the id of the piece to close
+   * @throws IllegalArgumentException if there is no piece with the given id
+   */
+  void close(int id) throws IllegalArgumentException;
+
+  /**
+   * Gets the ids of every piece in the model, in the order they were created.
+   *
+   * @return the ids of every piece in the model
+   */
+  List<Integer> getPieceIds();
+
+  /**
+   * Gets the id of the currently opened piece.
+   *
+   * @return the id of the currently opened piece
+   * @throws IllegalStateException if there is no currently opened piece
+   */
+  int getOpenedId() throws IllegalStateException;
+
+  /**
+   * Undoes the most recent edit to the currently opened piece that has not been undone. Edits
+   * are adding, removing, and editing notes, and setting the tempo. Only edits made since the
+   * piece was last opened can be undone.
+   *
+   * @return true if an edit was undone, false if there was none to undo
+   * @throws IllegalStateException if there is no currently opened piece
+   */
+  boolean undo() throws IllegalStateException;
+
+  /**
+   * Redoes the edit to the currently opened piece that was undone most recently. Making a new
+   * edit drops every edit that was undone before it, so they can no longer be redone.
+   *
+   * @return true if an edit was redone, false if there was none to redo
+   * @throws IllegalStateException if there is no currently opened piece
+   */
+  boolean redo() throws IllegalStateException;
+
   /**
    * Adds a new note to the currently opened piece at the given location details.
    *
@@ -150,8 +207,22 @@ public interface MusicEditorOperations {
   List<Integer[]> getNotes() throws IllegalStateException;
 
   /**
-   * Returns a list of note data for every note in the model at the given beat. Data is arranged
-   * the same as described in {@link MusicEditorOperations#getNotes()}.
+   * Performs the given action on the data of every note in the model, in the same order as the
+   * notes returned by {@link MusicEditorOperations#getNotes()}. Unlike that method, no objects
+   * are created for the notes. The given action should not modify the model.
+   *
+   * @param consumer   the action to be performed on every note
+   * @throws IllegalStateException if there is no currently opened piece
+   * @throws IllegalArgumentException if the given action is uninitialized
+   */
+  void forEachNote(NoteConsumer consumer) throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Returns a list of note data for every note in the model at the given beat, ordered by pitch
+   * and then by starting position. Data is arranged the same as described in
+   * {@link MusicEditorOperations#getNotes()}. The order of notes with the same pitch and starting
+   * position, such as notes played on different instruments, is unspecified, and may differ from
+   * their order in {@link MusicEditorOperations#getNotes()}.
    *
    * @param beat   the beat to check for notes
    * @return a list of note data for every note in the currently opened piece at the given beat
@@ -159,6 +230,44 @@ public interface MusicEditorOperations {
    */
   List<Integer[]> getNotesAtBeat(int beat) throws IllegalStateException;
 
+  /**
+   * Returns a list of note data for every note in the model played at any beat from the first
+   * beat to the last, inclusive, ordered by pitch and then by starting position. Data is arranged
+   * the same as described in {@link MusicEditorOperations#getNotes()}. As in
+   * {@link MusicEditorOperations#getNotesAtBeat(int)}, the order of notes with the same pitch and
+   * starting position is unspecified. Finding the notes takes time logarithmic in the size of the
+   * piece for each pitch with notes, plus the number of notes found, so a window of a large piece
+   * can be read without reading the rest of it.
+   *
+   * @param fromBeat   the first beat to check for notes
+   * @param toBeat     the last beat to check for notes
+   * @return a list of note data for every note in the currently opened piece in the given range
+   * @throws IllegalStateException if there is no currently opened piece
+   * @throws IllegalArgumentException if the last beat is before the first beat
+   */
+  List<Integer[]> getNotesInRange(int fromBeat, int toBeat)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Returns a list of note data for every note in the model played at any beat from the first
+   * beat to the last, inclusive, with a pitch from the lowest pitch to the highest, inclusive,
+   * ordered by pitch and then by starting position. Data is arranged the same as described in
+   * {@link MusicEditorOperations#getNotes()}. As in
+   * {@link MusicEditorOperations#getNotesAtBeat(int)}, the order of notes with the same pitch and
+   * starting position is unspecified. Only the pitches in the range are searched.
+   *
+   * @param fromBeat    the first beat to check for notes
+   * @param toBeat      the last beat to check for notes
+   * @param lowPitch    the lowest pitch of the notes [0, 127]
+   * @param highPitch   the highest pitch of the notes [0, 127]
+   * @return a list of note data for every note in the currently opened piece in the given ranges
+   * @throws IllegalStateException if there is no currently opened piece
+   * @throws IllegalArgumentException if the last beat is before the first beat, or the highest
+   *                                  pitch is lower than the lowest pitch
+   */
+  List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch, int highPitch)
+      throws IllegalStateException, IllegalArgumentException;
+
   /**
    * Gets the length of the currently opened piece.
    *
@@ -166,4 +275,58 @@ public interface MusicEditorOperations {
    * @throws IllegalStateException if there is no currently opened piece
    */
   int getLength() throws IllegalStateException;
-}
\ No newline at end of file
+
+  /**
+   * Gets the version of the model. The version starts at 0, and goes up every time the
+   * currently opened piece is changed, or a different piece is opened, so if it has not moved
+   * since it was last read, nothing has changed.
+   *
+   * @return the version of the model
+   */
+  long getVersion();
+
+  /**
+   * Gets a snapshot of the currently opened piece at the current version of the model, which
+   * never changes and can be read without locking. Every call made at the same version returns
+   * the same snapshot.
+   *
+   * @return a snapshot of the currently opened piece
+   * @throws IllegalStateException if there is no currently opened piece
+   */
+  PieceSnapshot getSnapshot() throws IllegalStateException;
+
+  /**
+   * Applies a batch of edits to the currently opened piece as one change. The given batch makes
+   * its edits through the given {@link BatchEditor}, each of which is checked as it is made. If
+   * the batch throws, every edit in it is rolled back and the exception is thrown on, so either
+   * the whole batch is applied or none of it is. Listeners are told of the batch by a single
+   * {@link MusicEditorListener#pieceChanged(long)} once it has been applied, and the whole batch
+   * is undone and redone in one step. Pieces cannot be created, opened, or closed, and edits
+   * cannot be undone or redone, while a batch is being applied.
+   *
+   * @param batch   the batch of edits to apply
+   * @throws IllegalStateException if there is no currently opened piece, or a batch is already
+   *                               being applied
+   * @throws IllegalArgumentException if the given batch is uninitialized, or any edit in it is
+   *                                  invalid
+   */
+  void applyBatch(Consumer<BatchEditor> batch)
+      throws IllegalStateException, IllegalArgumentException;
+
+  /**
+   * Registers the given listener, so that it is told of every later change to the currently
+   * opened piece, or to which piece is opened, as described in {@link MusicEditorListener}.
+   * Listeners are told of changes in the order they were registered.
+   *
+   * @param listener   the listener to be registered
+   * @throws IllegalArgumentException if the given listener is uninitialized
+   */
+  void addListener(MusicEditorListener listener) throws IllegalArgumentException;
+
+  /**
+   * Removes the given listener, if it is registered, so that it is told of no later changes.
+   *
+   * @param listener   the listener to be removed
+   */
+  void removeListener(MusicEditorListener listener);
+}
@@ -0,0 +1,20 @@
+package cs3500.music.model;
+
+/**
+ * Represents an action to be performed on the data of a single note, given as primitives so that
+ * every note in a model can be visited without creating any objects. Used by
+ * {@link MusicEditorOperations#forEachNote(NoteConsumer)}.
+ */
+@FunctionalInterface
+public interface NoteConsumer {
+  /**
+   * Performs this action on the data of a note.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the pitch at which the note is played [0, 127]
+   * @param volume       the volume at which the note is played [0, 127]
+   */
+  void accept(int start, int end, int instrument, int pitch, int volume);
+}
@@ -0,0 +1,263 @@
+package cs3500.music.model;
+
+/**
+ * Represents the storage for every note in a piece. Notes are kept in a table of primitives,
+ * one column per field, and each note is identified by its slot (its row in the table). Slots
+ * of removed notes are reused by later notes.
+ *
+ * <p>The table is an {@link IntTable}, so a copy of a store shares its note data with the
+ * original until either of them changes it.</p>
+ */
+public final class NoteStore {
+  private static final int NO_SLOT = -1;
+
+  private static final int START = 0;
+  private static final int END = 1;
+  private static final int INSTRUMENT = 2;
+  private static final int PITCH = 3;
+  private static final int VOLUME = 4;
+  private static final int FIELDS = 5;
+
+  private final IntTable notes;
+  private int used;
+  private int size;
+  private int freeHead;
+
+  /**
+   * Default constructor.
+   * Constructs a new, empty {@code NoteStore}.
+   */
+  protected NoteStore() {
+    this.notes = new IntTable(FIELDS);
+    this.used = 0;
+    this.size = 0;
+    this.freeHead = NO_SLOT;
+  }
+
+  /**
+   * Copy constructor.
+   * Constructs a copy of the given {@code NoteStore}, where every note keeps the same slot. The
+   * copy shares the note data of the given store, as described in {@link IntTable}.
+   *
+   * @param other   the store to be copied
+   * @throws IllegalArgumentException if the given store is uninitialized
+   */
+  protected NoteStore(NoteStore other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Cannot duplicate uninitialized store.");
+    }
+    this.notes = new IntTable(other.notes);
+    this.used = other.used;
+    this.size = other.size;
+    this.freeHead = other.freeHead;
+  }
+
+  /**
+   * Gets the number of slots that have ever been handed out by this store. Every slot in use is
+   * less than this number.
+   *
+   * @return the number of slots handed out
+   */
+  protected int capacity() {
+    return this.used;
+  }
+
+  /**
+   * Gets the number of notes currently kept in this store.
+   *
+   * @return the number of notes in this store
+   */
+  protected int size() {
+    return this.size;
+  }
+
+  /**
+   * Stores a new note with the given parameters.
+   *
+   * @param start        the starting position of the note
+   * @param duration     the duration of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   * @return the slot of the new note
+   * @throws IllegalArgumentException if the duration or position are negative, if the duration
+   *                                  is zero, the instrument is out of range [0, 127], or the
+   *                                  volume is out of range [0, 127]
+   */
+  protected int add(int start, int duration, int instrument, int pitch, int volume)
+      throws IllegalArgumentException {
+    checkNote(start, duration, instrument, volume);
+    int slot;
+    if (this.freeHead != NO_SLOT) {
+      slot = this.freeHead;
+      this.freeHead = this.notes.get(slot, START);
+    } else {
+      this.notes.ensureCapacity(this.used + 1);
+      slot = this.used++;
+    }
+    this.notes.set(slot, START, start);
+    this.notes.set(slot, END, (start + duration) - 1);
+    this.notes.set(slot, INSTRUMENT, instrument);
+    this.notes.set(slot, PITCH, pitch);
+    this.notes.set(slot, VOLUME, volume);
+    this.size++;
+    return slot;
+  }
+
+  /**
+   * Removes the note at the given slot, so that the slot can be reused by a later note.
+   *
+   * @param slot   the slot of the note to be removed
+   */
+  protected void remove(int slot) {
+    this.notes.set(slot, START, this.freeHead);
+    this.freeHead = slot;
+    this.size--;
+  }
+
+  /**
+   * Sets the starting position of the note at the given slot, keeping its duration.
+   *
+   * @param slot    the slot of the note
+   * @param start   the new starting position of the note
+   * @throws IllegalArgumentException if the given position is negative
+   */
+  protected void setStart(int slot, int start) throws IllegalArgumentException {
+    checkStart(start);
+    int end = this.notes.get(slot, END) + (start - this.notes.get(slot, START));
+    this.notes.set(slot, END, end);
+    this.notes.set(slot, START, start);
+  }
+
+  /**
+   * Sets the duration of the note at the given slot, keeping its starting position.
+   *
+   * @param slot       the slot of the note
+   * @param duration   the new duration of the note
+   * @throws IllegalArgumentException if the given duration is negative or zero
+   */
+  protected void setDuration(int slot, int duration) throws IllegalArgumentException {
+    checkDuration(duration);
+    this.notes.set(slot, END, (this.notes.get(slot, START) + duration) - 1);
+  }
+
+  /**
+   * Sets the MIDI pitch of the note at the given slot.
+   *
+   * @param slot    the slot of the note
+   * @param pitch   the new MIDI pitch of the note
+   */
+  protected void setPitch(int slot, int pitch) {
+    this.notes.set(slot, PITCH, pitch);
+  }
+
+  /**
+   * Checks that a note with the given parameters can be stored.
+   *
+   * @param start        the starting position of the note
+   * @param duration     the duration of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param volume       the volume at which the note is played [0, 127]
+   * @throws IllegalArgumentException if the duration or position are negative, if the duration
+   *                                  is zero, the instrument is out of range [0, 127], or the
+   *                                  volume is out of range [0, 127]
+   */
+  protected static void checkNote(int start, int duration, int instrument, int volume)
+      throws IllegalArgumentException {
+    checkStart(start);
+    checkDuration(duration);
+    if (instrument < 0 || instrument > 127) {
+      throw new IllegalArgumentException("Given instrument does not exist.");
+    }
+    if (volume < 0 || volume > 127) {
+      throw new IllegalArgumentException("Volume must be between 0 and 127 (inclusive).");
+    }
+  }
+
+  /**
+   * Helper to the checkNote and setStart methods. Checks that the given position is not negative.
+   *
+   * @param start   the position to be checked
+   * @throws IllegalArgumentException if the given position is negative
+   */
+  private static void checkStart(int start) throws IllegalArgumentException {
+    if (start < 0) {
+      throw new IllegalArgumentException("Cannot set as negative position.");
+    }
+  }
+
+  /**
+   * Helper to the checkNote and setDuration methods. Checks that the given duration is positive.
+   *
+   * @param duration   the duration to be checked
+   * @throws IllegalArgumentException if the given duration is negative or zero
+   */
+  private static void checkDuration(int duration) throws IllegalArgumentException {
+    if (duration <= 0) {
+      throw new IllegalArgumentException("Cannot set negative or zero duration.");
+    }
+  }
+
+  /**
+   * Gets the starting position of the note at the given slot.
+   *
+   * @param slot   the slot of the note
+   * @return the starting position of the note
+   */
+  protected int getStart(int slot) {
+    return this.notes.get(slot, START);
+  }
+
+  /**
+   * Gets the ending position of the note at the given slot.
+   *
+   * @param slot   the slot of the note
+   * @return the ending position of the note
+   */
+  protected int getEnd(int slot) {
+    return this.notes.get(slot, END);
+  }
+
+  /**
+   * Gets the instrument of the note at the given slot.
+   *
+   * @param slot   the slot of the note
+   * @return the instrument of the note
+   */
+  protected int getInstrument(int slot) {
+    return this.notes.get(slot, INSTRUMENT);
+  }
+
+  /**
+   * Gets the MIDI pitch of the note at the given slot.
+   *
+   * @param slot   the slot of the note
+   * @return the MIDI pitch of the note
+   */
+  protected int getPitch(int slot) {
+    return this.notes.get(slot, PITCH);
+  }
+
+  /**
+   * Gets the volume of the note at the given slot.
+   *
+   * @param slot   the slot of the note
+   * @return the volume of the note
+   */
+  protected int getVolume(int slot) {
+    return this.notes.get(slot, VOLUME);
+  }
+
+  /**
+   * Returns the note data for the note at the given slot. Note data is arranged the same as
+   * described in {@link MusicEditorOperations#getNotes()}.
+   *
+   * @param slot   the slot of the note
+   * @return the note data of the note
+   */
+  protected Integer[] getNote(int slot) {
+    return new Integer[] {this.notes.get(slot, START), this.notes.get(slot, END),
+        this.notes.get(slot, INSTRUMENT), this.notes.get(slot, PITCH),
+        this.notes.get(slot, VOLUME)};
+  }
+}
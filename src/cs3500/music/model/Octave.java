@@ -3,47 +3,67 @@ package cs3500.music.model;
 import cs3500.music.util.MidiConversion;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 /**
- * Represents an octave in a piece.
+ * Represents an octave in a piece. The notes themselves are kept in the {@link NoteStore} of the
+ * piece; an octave keeps, for each of its pitches, the slots of the notes played at that pitch
+ * in order of starting position.
+ *
+ * <p>Only the pitches that have notes are visited when going through the notes of an octave, and
+ * a pitch is given room for its slots only once a note is added to it. A copy of an octave shares
+ * the slots of every pitch with the original, and a pitch is only copied the first time either
+ * octave changes it.</p>
  */
 public final class Octave {
-  private Map<Pitch, List<Note>> pitches;
+  private static final int[] NO_SLOTS = new int[0];
+
+  private final int number;
+  private final NoteStore store;
+  private int[][] slots;
+  private boolean[] shared;
+  private int[] counts;
+  private int occupied;
 
   /**
    * Default constructor.
    * Creates a new {@code Octave} object.
+   *
+   * @param number   this octave's number, used for setting the MIDI pitch of its notes
+   * @param store    the store holding the notes of the piece this octave belongs to
    */
-  protected Octave() {
-    this.pitches = new TreeMap<>();
-    for (Pitch p : Pitch.values()) {
-      this.pitches.put(p, new ArrayList<>());
-    }
+  protected Octave(int number, NoteStore store) {
+    this.number = number;
+    this.store = store;
+    this.slots = new int[Pitch.values().length][];
+    Arrays.fill(this.slots, NO_SLOTS);
+    this.shared = new boolean[Pitch.values().length];
+    this.counts = new int[Pitch.values().length];
+    this.occupied = 0;
   }
 
   /**
    * Copy constructor.
-   * Creates a copy of the given {@code Octave} object.
+   * Creates a copy of the given {@code Octave} object over the given store. The given store
+   * should hold the same notes in the same slots as the store of the given octave. The slots of
+   * every pitch are shared with the given octave until either octave changes them.
    *
    * @param other    the octave to be copied
+   * @param store    the store holding the notes of the piece the copy belongs to
    * @throws IllegalArgumentException if the given octave is uninitialized
    */
-  protected Octave(Octave other) throws IllegalArgumentException {
+  protected Octave(Octave other, NoteStore store) throws IllegalArgumentException {
     if (other == null) {
       throw new IllegalArgumentException("Given octave is uninitialized.");
     }
-    this.pitches = new TreeMap<>();
-    for (Pitch p : Pitch.values()) {
-      List<Note> newNotes = new ArrayList<>();
-      List<Note> pitchList = other.pitches.get(p);
-      for (Note n : pitchList) {
-        newNotes.add(new Note(n));
-      }
-      this.pitches.put(p, newNotes);
-    }
+    this.number = other.number;
+    this.store = store;
+    Arrays.fill(other.shared, true);
+    this.slots = other.slots.clone();
+    this.shared = other.shared.clone();
+    this.counts = other.counts.clone();
+    this.occupied = other.occupied;
   }
 
   @Override
@@ -54,11 +74,11 @@ public final class Octave {
       return false;
     }
     Octave other = (Octave) o;
-    for (Pitch p : this.pitches.keySet()) {
-      List<Note> thisPitch = this.pitches.get(p);
-      List<Note> otherPitch = other.pitches.get(p);
-      for (Note n : thisPitch) {
-        if (!otherPitch.contains(n)) {
+    for (int bits = this.occupied; bits != 0; bits &= bits - 1) {
+      int p = Integer.numberOfTrailingZeros(bits);
+      for (int i = 0; i < this.counts[p]; i++) {
+        if (!other.containsNote(p, this.store.getStart(this.slots[p][i]),
+            this.store.getEnd(this.slots[p][i]), this.store.getInstrument(this.slots[p][i]))) {
           return false;
         }
       }
@@ -66,9 +86,39 @@ public final class Octave {
     return true;
   }
 
+  /**
+   * Helper to the equals method. Checks if this octave has a note at the given pitch with the
+   * given position and instrument.
+   *
+   * @param p            the index of the pitch
+   * @param start        the starting position of the note
+   * @param end          the ending position of the note
+   * @param instrument   the instrument of the note
+   * @return true if such a note exists, false otherwise
+   */
+  private boolean containsNote(int p, int start, int end, int instrument) {
+    for (int i = this.lowerBound(p, start); i < this.counts[p]
+        && this.store.getStart(this.slots[p][i]) == start; i++) {
+      int slot = this.slots[p][i];
+      if (this.store.getEnd(slot) == end
+          && this.store.getInstrument(slot) == instrument) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public int hashCode() {
-    return this.pitches.hashCode();
+    int result = 0;
+    for (int bits = this.occupied; bits != 0; bits &= bits - 1) {
+      int p = Integer.numberOfTrailingZeros(bits);
+      for (int i = 0; i < this.counts[p]; i++) {
+        int slot = this.slots[p][i];
+        result = 31 * result + (this.store.getStart(slot) * 100000) + this.store.getEnd(slot);
+      }
+    }
+    return result;
   }
 
   /**
@@ -77,31 +127,21 @@ public final class Octave {
    * @return true if this octave is empty, false otherwise
    */
   protected boolean isEmpty() {
-    for (List<Note> list : this.pitches.values()) {
-      if (list.size() != 0) {
-        return false;
-      }
-    }
-    return true;
+    return this.occupied == 0;
   }
 
   /**
-   * Gets the length of this octave.
+   * Gets the length of this octave, which is the latest end position of any note in it.
    *
    * @return the length of this octave
    */
   protected int length() {
-    if (this.isEmpty()) {
-      return 0;
-    }
     int longest = 0;
-    for (Pitch p : this.pitches.keySet()) {
-      List<Note> pitchList = this.pitches.get(p);
-      int length = 0;
-      for (Note note : pitchList) {
-        length = Math.max(length, note.getEndPos());
+    for (int bits = this.occupied; bits != 0; bits &= bits - 1) {
+      int p = Integer.numberOfTrailingZeros(bits);
+      for (int i = 0; i < this.counts[p]; i++) {
+        longest = Math.max(longest, this.store.getEnd(this.slots[p][i]));
       }
-      longest = Math.max(longest, length);
     }
     return longest;
   }
@@ -115,42 +155,139 @@ public final class Octave {
    * @param duration   the duration of the note (measured in beats)
    * @param instrument    the instrument the note is played in [0, 127]
    * @param volume       the volume at which the note is played [0, 127]
+   * @return the slot of the new note in the store
    * @throws IllegalArgumentException if the given pitch is uninitialized, if the duration or
    *                                  position are negative, if the duration is zero, the
-   *                                  instrument is out of range [0, 127], the volume is out of
-   *                                  range [0, 127], or if a note already exists at the given
-   *                                  position
+   *                                  instrument is out of range [0, 127], or the volume is out of
+   *                                  range [0, 127]
    */
-  protected void addNote(Pitch pitch, int position, int duration, int instrument, int volume)
+  protected int addNote(Pitch pitch, int position, int duration, int instrument, int volume)
       throws IllegalArgumentException {
-    this.checkPitchException(pitch);
-    this.addNoteInOrder(pitch, new Note(position, duration, instrument, volume));
+    checkPitchException(pitch);
+    int slot = this.store.add(position, duration, instrument,
+        MidiConversion.getMidiPitch(this.number, pitch), volume);
+    this.addNoteInOrder(pitch.ordinal(), slot);
+    return slot;
   }
 
   /**
-   * Removes the note from this piece at the given pitch with the same starting position.
+   * Adds a new note to the end of the given pitch in this octave, without keeping the notes of
+   * the pitch in order of starting position. {@link #sortPitches()} must be called once all of
+   * the notes have been appended.
    *
-   * @param pitch      the pitch of the note to be removed
-   * @param position   the starting position of the note to be removed
-   * @param instrument    the instrument the note is played in [0, 127]
-   * @throws IllegalArgumentException if the given pitch is uninitialized, the position is
-   *                                  negative, the instrument is out of range [0, 127], or if
-   *                                  there is no note at the given position
+   * @param pitch        the pitch of the note
+   * @param position     the starting position of the note
+   * @param duration     the duration of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param volume       the volume at which the note is played [0, 127]
+   * @return the slot of the new note in the store
+   * @throws IllegalArgumentException if the duration or position are negative, if the duration
+   *                                  is zero, the instrument is out of range [0, 127], or the
+   *                                  volume is out of range [0, 127]
    */
-  protected void removeNote(Pitch pitch, int position, int instrument)
+  protected int appendNote(Pitch pitch, int position, int duration, int instrument, int volume)
       throws IllegalArgumentException {
-    this.checkPitchException(pitch);
-    List<Note> pitchList = this.pitches.get(pitch);
-    for (Note n : pitchList) {
-      if (n.getStartPos() == position && n.getInstrument() == instrument) {
-        pitchList.remove(n);
-        return;
+    int slot = this.store.add(position, duration, instrument,
+        MidiConversion.getMidiPitch(this.number, pitch), volume);
+    int p = pitch.ordinal();
+    this.own(p);
+    if (this.counts[p] == this.slots[p].length) {
+      this.slots[p] = Arrays.copyOf(this.slots[p], Math.max(4, this.counts[p] * 2));
+    }
+    this.slots[p][this.counts[p]] = slot;
+    this.counts[p]++;
+    this.occupied |= 1 << p;
+    return slot;
+  }
+
+  /**
+   * Restores the order of every pitch in this octave after notes have been appended, sorting by
+   * starting position. The sort is stable, so notes with the same starting position stay in the
+   * order they were added, the same as if they had been added one at a time.
+   */
+  protected void sortPitches() {
+    for (int bits = this.occupied; bits != 0; bits &= bits - 1) {
+      int p = Integer.numberOfTrailingZeros(bits);
+      if (!this.isSorted(p)) {
+        long[] keys = new long[this.counts[p]];
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = ((long) this.store.getStart(this.slots[p][i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] sorted = new int[this.slots[p].length];
+        for (int i = 0; i < keys.length; i++) {
+          sorted[i] = this.slots[p][(int) keys[i]];
+        }
+        this.slots[p] = sorted;
+        this.shared[p] = false;
       }
     }
-    throw new IllegalArgumentException("There is no note at position " + position + " played "
+  }
+
+  /**
+   * Helper to the sortPitches method. Checks if the notes of the given pitch are in order of
+   * starting position.
+   *
+   * @param p   the index of the pitch
+   * @return true if the pitch is in order, false otherwise
+   */
+  private boolean isSorted(int p) {
+    for (int i = 1; i < this.counts[p]; i++) {
+      if (this.store.getStart(this.slots[p][i - 1]) > this.store.getStart(this.slots[p][i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Finds the note in this octave at the given pitch with the same starting position and
+   * instrument.
+   *
+   * @param pitch        the pitch of the note
+   * @param position     the starting position of the note
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @return the slot of the note in the store
+   * @throws IllegalArgumentException if the given pitch is uninitialized, or if there is no note
+   *                                  at the given position played on the given instrument
+   */
+  protected int findNote(Pitch pitch, int position, int instrument)
+      throws IllegalArgumentException {
+    checkPitchException(pitch);
+    int p = pitch.ordinal();
+    for (int i = this.lowerBound(p, position); i < this.counts[p]
+        && this.store.getStart(this.slots[p][i]) == position; i++) {
+      if (this.store.getInstrument(this.slots[p][i]) == instrument) {
+        return this.slots[p][i];
+      }
+    }
+    throw noNoteException(position, instrument);
+  }
+
+  /**
+   * Creates the exception thrown when no note exists at the given position played on the given
+   * instrument.
+   *
+   * @param position     the starting position of the note that was looked up
+   * @param instrument   the instrument of the note that was looked up
+   * @return the exception to be thrown
+   */
+  protected static IllegalArgumentException noNoteException(int position, int instrument) {
+    return new IllegalArgumentException("There is no note at position " + position + " played "
         + "on instrument " + instrument + ".");
   }
 
+  /**
+   * Removes the note at the given slot from this octave and from the store.
+   *
+   * @param pitch   the pitch of the note to be removed
+   * @param slot    the slot of the note to be removed, as found by {@link #findNote}
+   */
+  protected void removeNote(Pitch pitch, int slot) {
+    this.removeAt(pitch.ordinal(), this.indexOf(pitch.ordinal(), slot));
+    this.store.remove(slot);
+  }
+
   /**
    * Edits the pitch of a note at the given pitch and starting position.
    *
@@ -158,86 +295,118 @@ public final class Octave {
    * @param position   the starting position of the note to be edited
    * @param instrument    the instrument the note is played in [0, 127]
    * @param newPitch   the new pitch of the edited note
-   * @throws IllegalArgumentException if either of the given pitches are uninitialized, the
-   *                                  position is negative, the instrument is out of range
-   *                                  [0, 127], there is no note at the given position, or a note
-   *                                  already exists at the given position in the new pitch with
-   *                                  the same instrument
+   * @return the slot of the edited note in the store, or -1 if the pitches are the same
+   * @throws IllegalArgumentException if either of the given pitches are uninitialized, or if
+   *                                  there is no note at the given position
    */
-  protected void editPitch(Pitch pitch, int position, int instrument, Pitch newPitch)
+  protected int editPitch(Pitch pitch, int position, int instrument, Pitch newPitch)
       throws IllegalArgumentException {
-    this.checkPitchException(pitch);
-    this.checkPitchException(newPitch);
-    if (!pitch.equals(newPitch)) {
-      List<Note> pitchList = this.pitches.get(pitch);
-      for (Note n : pitchList) {
-        if (n.getStartPos() == position && n.getInstrument() == instrument) {
-          Note test = new Note(n);
-          this.addNoteInOrder(newPitch, test);
-          pitchList.remove(n);
-          return;
-        }
-      }
-      throw new IllegalArgumentException("There is no note at position " + position + " played "
-          + "on instrument " + instrument + ".");
+    checkPitchException(pitch);
+    checkPitchException(newPitch);
+    if (pitch.equals(newPitch)) {
+      return -1;
     }
+    int slot = this.findNote(pitch, position, instrument);
+    this.removeAt(pitch.ordinal(), this.indexOf(pitch.ordinal(), slot));
+    this.addNoteInOrder(newPitch.ordinal(), slot);
+    this.store.setPitch(slot, MidiConversion.getMidiPitch(this.number, newPitch));
+    return slot;
   }
 
   /**
-   * Edits the pitch of a note at the given pitch and starting position.
+   * Edits the position of the note at the given slot, keeping its duration.
    *
    * @param pitch         the pitch of the note to be edited
-   * @param position      the starting position of the note to be edited
-   * @param instrument    the instrument the note is played in [0, 127]
+   * @param slot          the slot of the note to be edited, as found by {@link #findNote}
    * @param newPosition   the new position of the edited note
-   * @throws IllegalArgumentException if the given pitch is uninitialized, the position is
-   *                                  negative, the instrument is out of range [0, 127], there is
-   *                                  no note at the given position, or a note already exists at
-   *                                  the new position in the given pitch with the same instrument
+   * @throws IllegalArgumentException if the new position is negative
    */
-  protected void editPosition(Pitch pitch, int position, int instrument, int newPosition)
+  protected void editPosition(Pitch pitch, int slot, int newPosition)
       throws IllegalArgumentException {
-    this.checkPitchException(pitch);
-    if (position != newPosition) {
-      List<Note> pitchList = this.pitches.get(pitch);
-      for (Note n : pitchList) {
-        if (n.getStartPos() == position && n.getInstrument() == instrument) {
-          Note test = new Note(n);
-          test.setStartPos(newPosition);
-          this.addNoteInOrder(pitch, test);
-          pitchList.remove(n);
-          return;
-        }
-      }
-      throw new IllegalArgumentException("There is no note at position " + position + " played "
-          + "on instrument " + instrument + ".");
-    }
+    int p = pitch.ordinal();
+    int index = this.indexOf(p, slot);
+    this.store.setStart(slot, newPosition);
+    this.removeAt(p, index);
+    this.addNoteInOrder(p, slot);
   }
 
   /**
-   * Edits the pitch of a note at the given pitch and starting position.
+   * Edits the duration of the note at the given slot, keeping its position.
    *
-   * @param pitch         the pitch of the note to be edited
-   * @param position      the starting position of the note to be edited
-   * @param instrument    the instrument the note is played in [0, 127]
+   * @param slot          the slot of the note to be edited, as found by {@link #findNote}
    * @param newDuration   the new duration of the edited note
-   * @throws IllegalArgumentException if the given pitch is uninitialized, the position is
-   *                                  negative, the instrument is out of range [0, 127], the new
-   *                                  duration is negative or zero, or if there is no note at the
-   *                                  given position
+   * @throws IllegalArgumentException if the new duration is negative or zero
+   */
+  protected void editDuration(int slot, int newDuration) throws IllegalArgumentException {
+    this.store.setDuration(slot, newDuration);
+  }
+
+  /**
+   * Gets the index of the note at the given slot among the notes of the given pitch, which are
+   * kept in order of starting position and then in the order they were added.
+   *
+   * @param pitch   the pitch of the note
+   * @param slot    the slot of the note, which is at the given pitch
+   * @return the index of the note in the pitch
+   */
+  protected int indexOf(Pitch pitch, int slot) {
+    return this.indexOf(pitch.ordinal(), slot);
+  }
+
+  /**
+   * Gets the slot of the note at the given index among the notes of the given pitch.
+   *
+   * @param pitch   the pitch of the note
+   * @param index   the index of the note in the pitch
+   * @return the slot of the note in the store
    */
-  protected void editDuration(Pitch pitch, int position, int instrument, int newDuration)
+  protected int getSlot(Pitch pitch, int index) {
+    return this.slots[pitch.ordinal()][index];
+  }
+
+  /**
+   * Adds a new note at the given index among the notes of the given pitch, rather than after the
+   * notes with the same starting position. The index must keep the notes of the pitch in order
+   * of starting position.
+   *
+   * @param pitch        the pitch of the note
+   * @param index        the index of the note in the pitch
+   * @param position     the starting position of the note
+   * @param duration     the duration of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param volume       the volume at which the note is played [0, 127]
+   * @return the slot of the new note in the store
+   * @throws IllegalArgumentException if the duration or position are negative, if the duration
+   *                                  is zero, the instrument is out of range [0, 127], or the
+   *                                  volume is out of range [0, 127]
+   */
+  protected int insertNote(Pitch pitch, int index, int position, int duration, int instrument,
+                           int volume) throws IllegalArgumentException {
+    int slot = this.store.add(position, duration, instrument,
+        MidiConversion.getMidiPitch(this.number, pitch), volume);
+    this.insertAt(pitch.ordinal(), index, slot);
+    return slot;
+  }
+
+  /**
+   * Moves the note at the given slot to the given index among the notes of the given new pitch,
+   * with the given starting position. The index is counted without the note, and must keep the
+   * notes of the new pitch in order of starting position.
+   *
+   * @param pitch         the pitch of the note
+   * @param slot          the slot of the note, which is at the given pitch
+   * @param newPitch      the new pitch of the note
+   * @param newIndex      the new index of the note in the new pitch
+   * @param newPosition   the new starting position of the note
+   * @throws IllegalArgumentException if the new position is negative
+   */
+  protected void moveNote(Pitch pitch, int slot, Pitch newPitch, int newIndex, int newPosition)
       throws IllegalArgumentException {
-    this.checkPitchException(pitch);
-    List<Note> pitchList = this.pitches.get(pitch);
-    for (Note n : pitchList) {
-      if (n.getStartPos() == position && n.getInstrument() == instrument) {
-        n.setDuration(newDuration);
-        return;
-      }
-    }
-    throw new IllegalArgumentException("There is no note at position " + position + " played "
-        + "on instrument " + instrument + ".");
+    int index = this.indexOf(pitch.ordinal(), slot);
+    this.store.setStart(slot, newPosition);
+    this.removeAt(pitch.ordinal(), index);
+    this.store.setPitch(slot, MidiConversion.getMidiPitch(this.number, newPitch));
+    this.insertAt(newPitch.ordinal(), newIndex, slot);
   }
 
   /**
@@ -246,73 +415,142 @@ public final class Octave {
    *
    * @param pitch   the pitch to be checked
    */
-  private void checkPitchException(Pitch pitch) {
+  protected static void checkPitchException(Pitch pitch) {
     if (pitch == null) {
       throw new IllegalArgumentException("Pitch is uninitialized.");
     }
   }
 
   /**
-   * Helper to the add and editNotePitch methods. Adds the given note at a given pitch in order
-   * of starting times.
+   * Helper to the add, editNotePitch and editNotePosition methods. Adds the given slot at a given
+   * pitch in order of starting times, after any notes with the same starting time. The index is
+   * found by binary search, so adding notes in order of starting time only appends.
    *
-   * @param pitch   the pitch the note is at
-   * @param note    the note to be added
-   * @throws IllegalArgumentException if the given note is uninitialized
+   * @param p      the index of the pitch the note is at
+   * @param slot   the slot of the note to be added
    */
-  private void addNoteInOrder(Pitch pitch, Note note) throws IllegalArgumentException {
-    if (note == null) {
-      throw new IllegalArgumentException("Cannot add uninitialized note.");
+  private void addNoteInOrder(int p, int slot) {
+    this.insertAt(p, this.lowerBound(p, this.store.getStart(slot) + 1), slot);
+  }
+
+  /**
+   * Helper to the addNoteInOrder, insertNote, and moveNote methods. Adds the given slot at the
+   * given index of the given pitch.
+   *
+   * @param p       the index of the pitch the note is at
+   * @param index   the index of the note in the pitch
+   * @param slot    the slot of the note to be added
+   */
+  private void insertAt(int p, int index, int slot) {
+    this.own(p);
+    if (this.counts[p] == this.slots[p].length) {
+      this.slots[p] = Arrays.copyOf(this.slots[p], Math.max(4, this.counts[p] * 2));
+    }
+    System.arraycopy(this.slots[p], index, this.slots[p], index + 1, this.counts[p] - index);
+    this.slots[p][index] = slot;
+    this.counts[p]++;
+    this.occupied |= 1 << p;
+  }
+
+  /**
+   * Helper to the removeNote, editNotePitch, editNotePosition, and moveNote methods. Removes the
+   * slot at the given index from the given pitch.
+   *
+   * @param p       the index of the pitch the note is at
+   * @param index   the index of the note in the pitch
+   */
+  private void removeAt(int p, int index) {
+    this.own(p);
+    System.arraycopy(this.slots[p], index + 1, this.slots[p], index, this.counts[p] - index - 1);
+    this.counts[p]--;
+    if (this.counts[p] == 0) {
+      this.occupied &= ~(1 << p);
+    }
+  }
+
+  /**
+   * Copies the slots of the given pitch if they are shared with another octave, so that they can
+   * be changed.
+   *
+   * @param p   the index of the pitch
+   */
+  private void own(int p) {
+    if (this.shared[p]) {
+      this.slots[p] = this.slots[p].clone();
+      this.shared[p] = false;
+    }
+  }
+
+  /**
+   * Helper to the removeNote, editNotePitch, editNotePosition, indexOf, and moveNote methods.
+   * Finds the index of the given slot in the given pitch, searching only the notes with the same
+   * starting time.
+   *
+   * @param p      the index of the pitch the note is at
+   * @param slot   the slot of the note
+   * @return the index of the note in the pitch
+   */
+  private int indexOf(int p, int slot) {
+    int i = this.lowerBound(p, this.store.getStart(slot));
+    while (this.slots[p][i] != slot) {
+      i++;
     }
-    List<Note> pitchList = this.pitches.get(pitch);
-    int addIndex = 0;
-    for (int i = 0; i < pitchList.size(); i++) {
-      if (Integer.compare(pitchList.get(i).getStartPos(), note.getStartPos()) > 0) {
-        break;
+    return i;
+  }
+
+  /**
+   * Binary searches the given pitch for the first note starting at or after the given position.
+   *
+   * @param p          the index of the pitch
+   * @param position   the starting position to search for
+   * @return the index of the first note at or after the position, or the number of notes in the
+   *         pitch if there is none
+   */
+  private int lowerBound(int p, int position) {
+    int low = 0;
+    int high = this.counts[p];
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.store.getStart(this.slots[p][mid]) < position) {
+        low = mid + 1;
+      } else {
+        high = mid;
       }
-      addIndex++;
     }
-    pitchList.add(addIndex, note);
+    return low;
   }
 
   /**
    * Returns a list of note data for every note in this octave. Note data is arranged the same as
    * described in {@link MusicEditorOperations#getNotes()}.
    *
-   * @param octave   this octave's number, to be used for setting the MIDI pitch
    * @return a list of note data for every note in this piece
    */
-  protected List<Integer[]> getNotes(int octave) {
+  protected List<Integer[]> getNotes() {
     List<Integer[]> notes = new ArrayList<>();
-    for (Pitch p : this.pitches.keySet()) {
-      for (Note n : this.pitches.get(p)) {
-        Integer[] arr = {n.getStartPos(), n.getEndPos(), n.getInstrument(),
-            MidiConversion.getMidiPitch(octave, p), n.getVolume()};
-        notes.add(arr);
+    for (int bits = this.occupied; bits != 0; bits &= bits - 1) {
+      int p = Integer.numberOfTrailingZeros(bits);
+      for (int i = 0; i < this.counts[p]; i++) {
+        notes.add(this.store.getNote(this.slots[p][i]));
       }
     }
     return notes;
   }
 
   /**
-   * Returns a list of note data for every note in this octave at the given beat. Data is arranged
-   * the same as described in {@link MusicEditorOperations#getNotes()}.
+   * Performs the given action on the data of every note in this octave, in the same order as
+   * {@link #getNotes()}.
    *
-   * @param octave   this octave's number, to be used for setting the MIDI pitch
-   * @param beat     the beat to check for notes
-   * @return a list of note data for every note in this octave at the given beat
+   * @param consumer   the action to be performed on every note
    */
-  protected List<Integer[]> getNotesAtBeat(int octave, int beat) {
-    List<Integer[]> notes = new ArrayList<>();
-    for (Pitch p : this.pitches.keySet()) {
-      for (Note n : this.pitches.get(p)) {
-        if (n.getStartPos() <= beat && n.getEndPos() > beat) {
-          Integer[] arr = {n.getStartPos(), n.getEndPos(), n.getInstrument(),
-              MidiConversion.getMidiPitch(octave, p), n.getVolume()};
-          notes.add(arr);
-        }
+  protected void forEachNote(NoteConsumer consumer) {
+    for (int bits = this.occupied; bits != 0; bits &= bits - 1) {
+      int p = Integer.numberOfTrailingZeros(bits);
+      for (int i = 0; i < this.counts[p]; i++) {
+        int slot = this.slots[p][i];
+        consumer.accept(this.store.getStart(slot), this.store.getEnd(slot),
+            this.store.getInstrument(slot), this.store.getPitch(slot), this.store.getVolume(slot));
       }
     }
-    return notes;
   }
 }
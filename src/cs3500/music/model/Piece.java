@@ -1,15 +1,24 @@
 package cs3500.music.model;
 
-import java.util.Map;
-import java.util.TreeMap;
+import cs3500.music.util.MidiConversion;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
 
 /**
- * Represents a musical piece that can be edited in the editor.
+ * Represents a musical piece that can be edited in the editor. Every note of the piece is kept
+ * in a single {@link NoteStore}, which the octaves and the index by beat refer into. An octave is
+ * only created once a note is added to it, so a piece takes memory for the octaves it uses.
  */
 public final class Piece {
-  private Map<Integer, Octave> octaves;
+  private static final int OCTAVES = 10;
+
+  private NoteStore store;
+  private Octave[] octaves;
+  private IntervalTree index;
   private int tempo;
 
   /**
@@ -18,15 +27,16 @@ public final class Piece {
    */
   protected Piece() {
     this.setTempo(0);
-    this.octaves = new TreeMap<>();
-    for (int i = 1; i <= 10; i++) {
-      this.octaves.put(i, new Octave());
-    }
+    this.store = new NoteStore();
+    this.octaves = new Octave[OCTAVES];
+    this.index = new IntervalTree(this.store);
   }
 
   /**
    * Copy constructor.
-   * Constructs a copy of the given {@code Piece} object.
+   * Constructs a copy of the given {@code Piece} object. The copy shares the notes of the given
+   * piece, and each edit to either piece afterwards only copies the part it changes, so copying
+   * takes time proportional to the number of octaves and chunks of notes, not notes.
    *
    * @param other      the piece to be copied
    * @throws IllegalArgumentException if the given piece is uninitialized
@@ -36,10 +46,14 @@ public final class Piece {
       throw new IllegalArgumentException("Cannot duplicate uninitialized piece.");
     }
     this.tempo = other.tempo;
-    this.octaves = new TreeMap<>();
-    for (int i = 1; i <= 10; i++) {
-      this.octaves.put(i, new Octave(other.octaves.get(i)));
+    this.store = new NoteStore(other.store);
+    this.octaves = new Octave[OCTAVES];
+    for (int i = 0; i < OCTAVES; i++) {
+      if (!isEmpty(other.octaves[i])) {
+        this.octaves[i] = new Octave(other.octaves[i], this.store);
+      }
     }
+    this.index = new IntervalTree(other.index, this.store);
   }
 
   @Override
@@ -50,8 +64,9 @@ public final class Piece {
       return false;
     }
     Piece other = (Piece) o;
-    for (Integer i : this.octaves.keySet()) {
-      if (!this.octaves.get(i).equals(other.octaves.get(i))) {
+    for (int i = 0; i < OCTAVES; i++) {
+      if (!isEmpty(this.octaves[i])
+          && (other.octaves[i] == null || !this.octaves[i].equals(other.octaves[i]))) {
         return false;
       }
     }
@@ -60,22 +75,155 @@ public final class Piece {
 
   @Override
   public int hashCode() {
-    int result = this.octaves.hashCode();
+    int result = 0;
+    for (int i = 0; i < OCTAVES; i++) {
+      result += (i + 1) ^ (this.octaves[i] == null ? 0 : this.octaves[i].hashCode());
+    }
     result = 31 * result + this.tempo;
     return result;
   }
 
+  /**
+   * Checks if the given octave has no notes, or has not been created.
+   *
+   * @param octave   the octave to be checked, or null if it has not been created
+   * @return true if the octave is empty, false otherwise
+   */
+  private static boolean isEmpty(Octave octave) {
+    return octave == null || octave.isEmpty();
+  }
+
+  /**
+   * Gets the octave with the given number, creating it if it has not been created yet.
+   *
+   * @param octave   the number of the octave, in range [1, 10]
+   * @return the octave with the given number
+   */
+  private Octave getOctave(int octave) {
+    Octave o = this.octaves[octave - 1];
+    if (o == null) {
+      o = new Octave(octave, this.store);
+      this.octaves[octave - 1] = o;
+    }
+    return o;
+  }
+
+  /**
+   * Gets the octave with the given number that holds the given note, without creating it. An
+   * octave that has not been created has no notes, so the lookup fails as it would in an empty
+   * octave.
+   *
+   * @param octave       the number of the octave, in range [1, 10]
+   * @param pitch        the pitch of the note
+   * @param position     the starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @return the octave with the given number
+   * @throws IllegalArgumentException if the octave has not been created, as no note exists at
+   *                                  the given position, or the pitch is uninitialized
+   */
+  private Octave findOctave(int octave, Pitch pitch, int position, int instrument)
+      throws IllegalArgumentException {
+    Octave o = this.octaves[octave - 1];
+    if (o == null) {
+      Octave.checkPitchException(pitch);
+      throw Octave.noNoteException(position, instrument);
+    }
+    return o;
+  }
+
+  /**
+   * Gets the octave with the given number that holds the note at the given index among the notes
+   * of its pitch, without creating it.
+   *
+   * @param octave   the number of the octave, in range [1, 10]
+   * @param index    the index of the note among the notes of its pitch
+   * @return the octave with the given number
+   * @throws IllegalArgumentException if the octave has not been created, as it has no notes
+   */
+  private Octave findOctave(int octave, int index) throws IllegalArgumentException {
+    Octave o = this.octaves[octave - 1];
+    if (o == null) {
+      throw new IllegalArgumentException("There is no note at index " + index + ".");
+    }
+    return o;
+  }
+
   /**
    * Gets the length of this piece (the length of the longest octave).
    *
    * @return the length of this piece (measured in beats)
    */
   protected int length() {
-    int length = 0;
-    for (Integer i : this.octaves.keySet()) {
-      length = Math.max(length, this.octaves.get(i).length());
+    return this.index.maxEnd();
+  }
+
+  /**
+   * Gets the number of notes in this piece.
+   *
+   * @return the number of notes in this piece
+   */
+  protected int size() {
+    return this.store.size();
+  }
+
+  /**
+   * Writes the tempo and every note of this piece to the given output, so that the piece can be
+   * read back with {@link #read(DataInput)}. Notes are written in the same order as
+   * {@link #getNotes()}.
+   *
+   * @param out   the output the piece is written to
+   * @throws IOException if writing to the output fails
+   */
+  protected void write(DataOutput out) throws IOException {
+    int count = this.size();
+    int[] data = new int[count * 5];
+    int[] next = {0};
+    this.forEachNote((start, end, instrument, pitch, volume) -> {
+      int i = next[0];
+      data[i] = start;
+      data[i + 1] = end;
+      data[i + 2] = instrument;
+      data[i + 3] = pitch;
+      data[i + 4] = volume;
+      next[0] = i + 5;
+    });
+    out.writeInt(this.tempo);
+    out.writeInt(count);
+    for (int value : data) {
+      out.writeInt(value);
+    }
+  }
+
+  /**
+   * Reads a piece written by {@link #write(DataOutput)} from the given input. The piece read is
+   * equal to the piece that was written, with its notes in the same order.
+   *
+   * @param in   the input the piece is read from
+   * @return the piece read from the input
+   * @throws IOException if reading from the input fails
+   * @throws IllegalArgumentException if the input does not hold a valid piece
+   */
+  protected static Piece read(DataInput in) throws IOException, IllegalArgumentException {
+    Piece piece = new Piece();
+    piece.setTempo(in.readInt());
+    int count = in.readInt();
+    if (count < 0) {
+      throw new IllegalArgumentException("Cannot read negative number of notes.");
     }
-    return length;
+    int[] starts = new int[count];
+    int[] ends = new int[count];
+    int[] instruments = new int[count];
+    int[] pitches = new int[count];
+    int[] volumes = new int[count];
+    for (int i = 0; i < count; i++) {
+      starts[i] = in.readInt();
+      ends[i] = in.readInt();
+      instruments[i] = in.readInt();
+      pitches[i] = in.readInt();
+      volumes[i] = in.readInt();
+    }
+    piece.addNotes(starts, ends, instruments, pitches, volumes, count);
+    return piece;
   }
 
   /**
@@ -93,11 +241,226 @@ public final class Piece {
    *                                  [0, 127], the volume is not in range [0, 127], or if a note
    *                                  already exists at the given position in the same pitch
    *                                  played on the same instrument
+   * @return the index of the new note among the notes of its pitch
+   */
+  protected int addNote(int octave, Pitch pitch, int position, int duration, int instrument,
+                        int volume) throws IllegalArgumentException {
+    checkOctaveException(octave);
+    Octave o = this.getOctave(octave);
+    int slot = o.addNote(pitch, position, duration, instrument, volume);
+    this.index.add(slot);
+    return o.indexOf(pitch, slot);
+  }
+
+  /**
+   * Adds many new notes to the piece at once. Every note is checked before any are added, so if
+   * one is invalid, none of the notes are added. Each pitch is sorted once after all of the notes
+   * are appended to it, rather than each note being inserted in order, and the resulting order is
+   * the same as adding the notes one at a time.
+   *
+   * @param starts        the starting position of each note (measured in beats)
+   * @param ends          the ending position of each note (measured in beats)
+   * @param instruments   the instrument each note is played in [0, 127]
+   * @param pitches       the MIDI pitch of each note
+   * @param volumes       the volume at which each note is played [0, 127]
+   * @param count         the number of notes to add, from the start of each array
+   * @throws IllegalArgumentException if any of the notes is invalid, as described in
+   *                                  {@link #checkNote(int, int, int, int, int)}
+   */
+  protected void addNotes(int[] starts, int[] ends, int[] instruments, int[] pitches,
+                          int[] volumes, int count) throws IllegalArgumentException {
+    for (int i = 0; i < count; i++) {
+      checkNote(starts[i], ends[i], instruments[i], pitches[i], volumes[i]);
+    }
+    int[] slots = new int[count];
+    for (int i = 0; i < count; i++) {
+      slots[i] = this.getOctave(MidiConversion.getOctave(pitches[i])).appendNote(
+          MidiConversion.getPitch(pitches[i]), starts[i],
+          MidiConversion.getDuration(starts[i], ends[i]), instruments[i], volumes[i]);
+    }
+    for (Octave o : this.octaves) {
+      if (o != null) {
+        o.sortPitches();
+      }
+    }
+    for (int slot : slots) {
+      this.index.add(slot);
+    }
+  }
+
+  /**
+   * Checks that a note with the given parameters can be added to a piece, throwing the same
+   * exception that adding it would.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the MIDI pitch of the note
+   * @param volume       the volume at which the note is played [0, 127]
+   * @throws IllegalArgumentException if the pitch is not in range [0, 127] or is not in an
+   *                                  octave in range [1, 10], the end is before the start, the
+   *                                  start or end is negative, the instrument is not in range
+   *                                  [0, 127], or the volume is not in range [0, 127]
+   */
+  protected static void checkNote(int start, int end, int instrument, int pitch, int volume)
+      throws IllegalArgumentException {
+    int octave = MidiConversion.getOctave(pitch);
+    MidiConversion.getPitch(pitch);
+    int duration = MidiConversion.getDuration(start, end);
+    if (octave < 1 || octave > 10) {
+      throw new IllegalArgumentException("Given octave does not exist.");
+    }
+    NoteStore.checkNote(start, duration, instrument, volume);
+  }
+
+  /**
+   * Returns the note data of the given note in the piece. Data is arranged the same as described
+   * in {@link MusicEditorOperations#getNotes()}.
+   *
+   * @param octave       the octave of the note
+   * @param pitch        the pitch of the note
+   * @param position     the starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @return the note data of the note
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10], the pitch
+   *                                  is uninitialized, or if no note exists at the given position
+   *                                  in the same pitch played on the same instrument
    */
-  protected void addNote(int octave, Pitch pitch, int position, int duration, int instrument,
-                         int volume) throws IllegalArgumentException {
+  protected Integer[] getNote(int octave, Pitch pitch, int position, int instrument)
+      throws IllegalArgumentException {
+    checkOctaveException(octave);
+    Octave o = this.findOctave(octave, pitch, position, instrument);
+    return this.store.getNote(o.findNote(pitch, position, instrument));
+  }
+
+  /**
+   * Gets the index of the given note among the notes of its pitch, which are kept in order of
+   * starting position and then in the order they were added. Unlike the position and instrument,
+   * the index tells apart notes that are otherwise the same.
+   *
+   * @param octave       the octave of the note
+   * @param pitch        the pitch of the note
+   * @param position     the starting position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @return the index of the note among the notes of its pitch
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10], the pitch
+   *                                  is uninitialized, or if no note exists at the given position
+   *                                  in the same pitch played on the same instrument
+   */
+  protected int indexOf(int octave, Pitch pitch, int position, int instrument)
+      throws IllegalArgumentException {
+    checkOctaveException(octave);
+    Octave o = this.findOctave(octave, pitch, position, instrument);
+    return o.indexOf(pitch, o.findNote(pitch, position, instrument));
+  }
+
+  /**
+   * Gets the note data of the note at the given index among the notes of its pitch. Data is
+   * arranged the same as described in {@link MusicEditorOperations#getNotes()}.
+   *
+   * @param octave   the octave of the note
+   * @param pitch    the pitch of the note
+   * @param index    the index of the note among the notes of its pitch
+   * @return the note data of the note
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10]
+   */
+  protected Integer[] getNoteAt(int octave, Pitch pitch, int index)
+      throws IllegalArgumentException {
+    checkOctaveException(octave);
+    return this.store.getNote(this.findOctave(octave, index).getSlot(pitch, index));
+  }
+
+  /**
+   * Adds a new note at the given index among the notes of its pitch. Used to restore a note
+   * exactly where it was, so the index must keep the notes of the pitch in order of starting
+   * position.
+   *
+   * @param octave       the octave of the note
+   * @param pitch        the pitch of the note
+   * @param index        the index of the note among the notes of its pitch
+   * @param position     the starting position of the note (measured in beats)
+   * @param duration     the duration of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param volume       the volume at which the note is played [0, 127]
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10], the starting
+   *                                  position is negative, the duration is 0 or negative, the
+   *                                  instrument is not in range [0, 127], or the volume is not in
+   *                                  range [0, 127]
+   */
+  protected void addNoteAt(int octave, Pitch pitch, int index, int position, int duration,
+                           int instrument, int volume) throws IllegalArgumentException {
+    checkOctaveException(octave);
+    int slot = this.getOctave(octave).insertNote(pitch, index, position, duration, instrument,
+        volume);
+    this.index.add(slot);
+  }
+
+  /**
+   * Removes the note at the given index among the notes of its pitch.
+   *
+   * @param octave   the octave of the note
+   * @param pitch    the pitch of the note
+   * @param index    the index of the note among the notes of its pitch
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10]
+   */
+  protected void removeNoteAt(int octave, Pitch pitch, int index)
+      throws IllegalArgumentException {
+    checkOctaveException(octave);
+    Octave o = this.findOctave(octave, index);
+    int slot = o.getSlot(pitch, index);
+    this.index.remove(slot, this.store.getStart(slot));
+    o.removeNote(pitch, slot);
+  }
+
+  /**
+   * Moves the note at the given index among the notes of its pitch to the given index among the
+   * notes of the new pitch, in the same octave, with the given starting position. The new index
+   * is counted without the note, and must keep the notes of the new pitch in order of starting
+   * position.
+   *
+   * @param octave        the octave of the note
+   * @param pitch         the pitch of the note
+   * @param index         the index of the note among the notes of its pitch
+   * @param newPitch      the new pitch of the note
+   * @param newIndex      the new index of the note among the notes of the new pitch
+   * @param newPosition   the new starting position of the note (measured in beats)
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10], or the new
+   *                                  position is negative
+   */
+  protected void moveNoteAt(int octave, Pitch pitch, int index, Pitch newPitch, int newIndex,
+                            int newPosition) throws IllegalArgumentException {
+    checkOctaveException(octave);
+    Octave o = this.findOctave(octave, index);
+    int slot = o.getSlot(pitch, index);
+    this.index.remove(slot, this.store.getStart(slot));
+    try {
+      o.moveNote(pitch, slot, newPitch, newIndex, newPosition);
+    } finally {
+      this.index.add(slot);
+    }
+  }
+
+  /**
+   * Sets the duration of the note at the given index among the notes of its pitch.
+   *
+   * @param octave        the octave of the note
+   * @param pitch         the pitch of the note
+   * @param index         the index of the note among the notes of its pitch
+   * @param newDuration   the new duration of the note (measured in beats)
+   * @throws IllegalArgumentException if the given octave is not in range [1, 10], or the new
+   *                                  duration is zero or negative
+   */
+  protected void setDurationAt(int octave, Pitch pitch, int index, int newDuration)
+      throws IllegalArgumentException {
     checkOctaveException(octave);
-    this.octaves.get(octave).addNote(pitch, position, duration, instrument, volume);
+    Octave o = this.findOctave(octave, index);
+    int slot = o.getSlot(pitch, index);
+    this.index.remove(slot, this.store.getStart(slot));
+    try {
+      o.editDuration(slot, newDuration);
+    } finally {
+      this.index.add(slot);
+    }
   }
 
   /**
@@ -117,7 +480,10 @@ public final class Piece {
   protected void removeNote(int octave, Pitch pitch, int position, int instrument)
       throws IllegalArgumentException {
     checkOctaveException(octave);
-    this.octaves.get(octave).removeNote(pitch, position, instrument);
+    Octave o = this.findOctave(octave, pitch, position, instrument);
+    int slot = o.findNote(pitch, position, instrument);
+    this.index.remove(slot, position);
+    o.removeNote(pitch, slot);
   }
 
   /**
@@ -133,11 +499,24 @@ public final class Piece {
    *                                  instrument is not in range [0, 127], the new pitch is
    *                                  uninitialized, if no note exists at the given position, or
    *                                  a note already exists at the given position in the new pitch
+   * @return the index of the note among the notes of the new pitch, or -1 if the pitches are the
+   *         same
    */
-  protected void editPitch(int octave, Pitch pitch, int position, int instrument, Pitch newPitch)
+  protected int editPitch(int octave, Pitch pitch, int position, int instrument, Pitch newPitch)
       throws IllegalArgumentException {
     checkOctaveException(octave);
-    this.octaves.get(octave).editPitch(pitch, position, instrument, newPitch);
+    if (pitch != null && pitch.equals(newPitch)) {
+      return -1;
+    }
+    Octave o = this.findOctave(octave, pitch, position, instrument);
+    int slot = o.findNote(pitch, position, instrument);
+    this.index.remove(slot, position);
+    try {
+      o.editPitch(pitch, position, instrument, newPitch);
+    } finally {
+      this.index.add(slot);
+    }
+    return o.indexOf(newPitch, slot);
   }
 
   /**
@@ -153,12 +532,25 @@ public final class Piece {
    *                                  instrument is not in range [0, 127], the new position is
    *                                  negative, if no note exists at the given position, or a
    *                                  note already exists at the new position in the given pitch
+   * @return the index of the note among the notes of its pitch once it is moved, or -1 if the
+   *         positions are the same
    */
-  protected void editPosition(int octave, Pitch pitch, int position, int instrument,
-                              int newPosition)
+  protected int editPosition(int octave, Pitch pitch, int position, int instrument,
+                             int newPosition)
       throws IllegalArgumentException {
     checkOctaveException(octave);
-    this.octaves.get(octave).editPosition(pitch, position, instrument, newPosition);
+    if (position == newPosition) {
+      return -1;
+    }
+    Octave o = this.findOctave(octave, pitch, position, instrument);
+    int slot = o.findNote(pitch, position, instrument);
+    this.index.remove(slot, position);
+    try {
+      o.editPosition(pitch, slot, newPosition);
+    } finally {
+      this.index.add(slot);
+    }
+    return o.indexOf(pitch, slot);
   }
 
   /**
@@ -178,17 +570,25 @@ public final class Piece {
                               int newDuration)
       throws IllegalArgumentException {
     checkOctaveException(octave);
-    this.octaves.get(octave).editDuration(pitch, position, instrument, newDuration);
+    Octave o = this.findOctave(octave, pitch, position, instrument);
+    int slot = o.findNote(pitch, position, instrument);
+    this.index.remove(slot, position);
+    try {
+      o.editDuration(slot, newDuration);
+    } finally {
+      this.index.add(slot);
+    }
   }
 
   /**
-   * Helper to the addNote, removeNote, editNotePitch, editNotePosition, and editNoteDuration
-   * methods. Checks if the given octave exists in a piece.
+   * Helper to the addNote, getNote, indexOf, getNoteAt, addNoteAt, removeNoteAt, moveNoteAt,
+   * setDurationAt, removeNote, editNotePitch, editNotePosition, and editNoteDuration methods.
+   * Checks if the given octave exists in a piece.
    *
    * @param octave   the octave to be checked
    */
   private void checkOctaveException(int octave) {
-    if (!this.octaves.keySet().contains(octave)) {
+    if (octave < 1 || octave > OCTAVES) {
       throw new IllegalArgumentException("Given octave does not exist.");
     }
   }
@@ -222,19 +622,29 @@ public final class Piece {
    * @return a list of note data for every note in this piece
    */
   protected List<Integer[]> getNotes() {
-    List<List<Integer[]>> allOctaves = new ArrayList<>();
-    for (Integer i : this.octaves.keySet()) {
-      allOctaves.add(this.octaves.get(i).getNotes(i));
-    }
-    List<Integer[]> allNotes = new ArrayList<>();
-    for (List<Integer[]> list : allOctaves) {
-      for (Integer[] arr : list) {
-        allNotes.add(arr);
+    List<Integer[]> allNotes = new ArrayList<>(this.size());
+    for (Octave o : this.octaves) {
+      if (!isEmpty(o)) {
+        allNotes.addAll(o.getNotes());
       }
     }
     return allNotes;
   }
 
+  /**
+   * Performs the given action on the data of every note in this piece, in the same order as
+   * {@link #getNotes()}.
+   *
+   * @param consumer   the action to be performed on every note
+   */
+  protected void forEachNote(NoteConsumer consumer) {
+    for (Octave o : this.octaves) {
+      if (!isEmpty(o)) {
+        o.forEachNote(consumer);
+      }
+    }
+  }
+
   /**
    * Returns a list of note data for every note in this piece at the given beat. Data is arranged
    * the same as described in {@link MusicEditorOperations#getNotes()}.
@@ -243,16 +653,30 @@ public final class Piece {
    * @return a list of note data for every note in this piece at the given beat
    */
   protected List<Integer[]> getNotesAtBeat(int beat) {
-    List<List<Integer[]>> allOctaves = new ArrayList<>();
-    for (Integer i : this.octaves.keySet()) {
-      allOctaves.add(this.octaves.get(i).getNotesAtBeat(i, beat));
+    return this.index.getNotesInRange(beat, beat, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a list of note data for every note in this piece played at any beat in the given
+   * range, with a pitch in the given range. Data is arranged the same as described in
+   * {@link MusicEditorOperations#getNotes()}.
+   *
+   * @param fromBeat    the first beat to check for notes
+   * @param toBeat      the last beat to check for notes
+   * @param lowPitch    the lowest MIDI pitch of the notes
+   * @param highPitch   the highest MIDI pitch of the notes
+   * @return a list of note data for every note in this piece in the given ranges
+   * @throws IllegalArgumentException if the last beat is before the first beat, or the highest
+   *                                  pitch is lower than the lowest pitch
+   */
+  protected List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch,
+                                            int highPitch) throws IllegalArgumentException {
+    if (toBeat < fromBeat) {
+      throw new IllegalArgumentException("Last beat cannot be before first beat.");
     }
-    List<Integer[]> allNotes = new ArrayList<>();
-    for (List<Integer[]> list : allOctaves) {
-      for (Integer[] arr : list) {
-        allNotes.add(arr);
-      }
+    if (highPitch < lowPitch) {
+      throw new IllegalArgumentException("Highest pitch cannot be lower than lowest pitch.");
     }
-    return allNotes;
+    return this.index.getNotesInRange(fromBeat, toBeat, lowPitch, highPitch);
   }
 }
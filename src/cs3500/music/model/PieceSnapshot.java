@@ -0,0 +1,124 @@
+package cs3500.music.model;
+
+import java.util.List;
+
+/**
+ * Represents the currently opened piece of a model as it was at one version of the model. A
+ * snapshot never changes once it is taken, so it can be read from any number of threads without
+ * locking, and a reader can tell if the model has changed since by comparing versions.
+ *
+ * <p>A snapshot is a copy of the piece that shares its notes, as described in
+ * {@link Piece#Piece(Piece)}, so taking one does not copy every note. Edits made to the model
+ * afterwards copy only the parts of the piece they change, leaving the snapshot as it was.</p>
+ */
+public final class PieceSnapshot {
+  private final long version;
+  private final Piece piece;
+
+  /**
+   * Constructs a new {@code PieceSnapshot} of the given piece.
+   *
+   * @param version   the version of the model the piece is at
+   * @param piece     the piece to be copied
+   * @throws IllegalArgumentException if the given piece is uninitialized
+   */
+  protected PieceSnapshot(long version, Piece piece) throws IllegalArgumentException {
+    this.version = version;
+    this.piece = new Piece(piece);
+  }
+
+  /**
+   * Gets the version of the model this snapshot was taken at, as described in
+   * {@link MusicEditorOperations#getVersion()}.
+   *
+   * @return the version of this snapshot
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Gets the tempo of the piece.
+   *
+   * @return the tempo of the piece
+   */
+  public int getTempo() {
+    return this.piece.getTempo();
+  }
+
+  /**
+   * Returns a list of note data for every note in the piece. Data is arranged the same as
+   * described in {@link MusicEditorOperations#getNotes()}.
+   *
+   * @return a list of note data for every note in the piece
+   */
+  public List<Integer[]> getNotes() {
+    return this.piece.getNotes();
+  }
+
+  /**
+   * Performs the given action on the data of every note in the piece, as described in
+   * {@link MusicEditorOperations#forEachNote(NoteConsumer)}.
+   *
+   * @param consumer   the action to be performed on every note
+   * @throws IllegalArgumentException if the given action is uninitialized
+   */
+  public void forEachNote(NoteConsumer consumer) throws IllegalArgumentException {
+    if (consumer == null) {
+      throw new IllegalArgumentException("Given consumer is uninitialized.");
+    }
+    this.piece.forEachNote(consumer);
+  }
+
+  /**
+   * Returns a list of note data for every note in the piece at the given beat. Data is arranged
+   * the same as described in {@link MusicEditorOperations#getNotes()}.
+   *
+   * @param beat   the beat to check for notes
+   * @return a list of note data for every note in the piece at the given beat
+   */
+  public List<Integer[]> getNotesAtBeat(int beat) {
+    return this.piece.getNotesAtBeat(beat);
+  }
+
+  /**
+   * Returns a list of note data for every note in the piece played at any beat in the given
+   * range, as described in {@link MusicEditorOperations#getNotesInRange(int, int)}.
+   *
+   * @param fromBeat   the first beat to check for notes
+   * @param toBeat     the last beat to check for notes
+   * @return a list of note data for every note in the piece in the given range
+   * @throws IllegalArgumentException if the last beat is before the first beat
+   */
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat)
+      throws IllegalArgumentException {
+    return this.getNotesInRange(fromBeat, toBeat, Integer.MIN_VALUE, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a list of note data for every note in the piece played at any beat in the given
+   * range, with a pitch in the given range, as described in
+   * {@link MusicEditorOperations#getNotesInRange(int, int, int, int)}.
+   *
+   * @param fromBeat    the first beat to check for notes
+   * @param toBeat      the last beat to check for notes
+   * @param lowPitch    the lowest pitch of the notes [0, 127]
+   * @param highPitch   the highest pitch of the notes [0, 127]
+   * @return a list of note data for every note in the piece in the given ranges
+   * @throws IllegalArgumentException if the last beat is before the first beat, or the highest
+   *                                  pitch is lower than the lowest pitch
+   */
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch, int highPitch)
+      throws IllegalArgumentException {
+    return this.piece.getNotesInRange(fromBeat, toBeat, lowPitch, highPitch);
+  }
+
+  /**
+   * Gets the length of the piece.
+   *
+   * @return the length of the piece
+   */
+  public int getLength() {
+    return this.piece.length();
+  }
+}
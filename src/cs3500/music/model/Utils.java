@@ -1,6 +1,7 @@
 package cs3500.music.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -46,20 +47,19 @@ public final class Utils {
   }
 
   /**
-   * Returns the last element in a {@code List}.
+   * Returns a copy of a {@code List} with its elements in reverse order, or the list itself if
+   * it has fewer than two elements.
    *
    * @param list       a generic list of items
-   * @return the last element
+   * @return the list in reverse order
    * @throws IllegalArgumentException if the given {@code List} is or contains null
    */
   public static <T> List<T> reverse(List<T> list) throws IllegalArgumentException {
     if (list == null || list.contains(null)) {
       throw new IllegalArgumentException("Cannot give a list that is or contains null.");
     } else if (list.size() > 1) {
-      List<T> copy = new ArrayList<>();
-      for (T item : list) {
-        copy.add(0, item);
-      }
+      List<T> copy = new ArrayList<>(list);
+      Collections.reverse(copy);
       return copy;
     }
     return list;
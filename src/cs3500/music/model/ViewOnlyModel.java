@@ -1,6 +1,7 @@
 package cs3500.music.model;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * View-only version of the MusicEditorOperations interface. Used by the views so they cannot
@@ -29,6 +30,60 @@ public class ViewOnlyModel implements MusicEditorOperations {
     return;
   }
 
+  /**
+   * Should never be called on this implementation. This is a view only model.
+   *
+   * @param id   the id of the piece to open
+   * @throws IllegalArgumentException   will not throw in view only model
+   */
+  @Override
+  public void open(int id) throws IllegalArgumentException {
+    return;
+  }
+
+  /**
+   * Should never be called on this implementation. This is a view only model.
+   *
+   * @param id   the id of the piece to close
+   * @throws IllegalArgumentException   will not throw in view only model
+   */
+  @Override
+  public void close(int id) throws IllegalArgumentException {
+    return;
+  }
+
+  /**
+   * Should never be called on this implementation. This is a view only model.
+   *
+   * @return false, as nothing is undone
+   * @throws IllegalStateException      will not throw in view only model
+   */
+  @Override
+  public boolean undo() throws IllegalStateException {
+    return false;
+  }
+
+  /**
+   * Should never be called on this implementation. This is a view only model.
+   *
+   * @return false, as nothing is redone
+   * @throws IllegalStateException      will not throw in view only model
+   */
+  @Override
+  public boolean redo() throws IllegalStateException {
+    return false;
+  }
+
+  @Override
+  public List<Integer> getPieceIds() {
+    return this.model.getPieceIds();
+  }
+
+  @Override
+  public int getOpenedId() throws IllegalStateException {
+    return this.model.getOpenedId();
+  }
+
   /**
    * Should never be called on this implementation. This is a view only model.
    *
@@ -131,13 +186,64 @@ public class ViewOnlyModel implements MusicEditorOperations {
     return this.model.getNotes();
   }
 
+  @Override
+  public void forEachNote(NoteConsumer consumer)
+      throws IllegalStateException, IllegalArgumentException {
+    this.model.forEachNote(consumer);
+  }
+
   @Override
   public List<Integer[]> getNotesAtBeat(int beat) throws IllegalStateException {
     return this.model.getNotesAtBeat(beat);
   }
 
+  @Override
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat)
+      throws IllegalStateException, IllegalArgumentException {
+    return this.model.getNotesInRange(fromBeat, toBeat);
+  }
+
+  @Override
+  public List<Integer[]> getNotesInRange(int fromBeat, int toBeat, int lowPitch, int highPitch)
+      throws IllegalStateException, IllegalArgumentException {
+    return this.model.getNotesInRange(fromBeat, toBeat, lowPitch, highPitch);
+  }
+
   @Override
   public int getLength() throws IllegalStateException {
     return this.model.getLength();
   }
+
+  @Override
+  public long getVersion() {
+    return this.model.getVersion();
+  }
+
+  @Override
+  public PieceSnapshot getSnapshot() throws IllegalStateException {
+    return this.model.getSnapshot();
+  }
+
+  /**
+   * Should never be called on this implementation. This is a view only model.
+   *
+   * @param batch   the batch of edits to apply
+   * @throws IllegalStateException      will not throw in view only model
+   * @throws IllegalArgumentException   will not throw in view only model
+   */
+  @Override
+  public void applyBatch(Consumer<BatchEditor> batch)
+      throws IllegalStateException, IllegalArgumentException {
+    return;
+  }
+
+  @Override
+  public void addListener(MusicEditorListener listener) throws IllegalArgumentException {
+    this.model.addListener(listener);
+  }
+
+  @Override
+  public void removeListener(MusicEditorListener listener) {
+    this.model.removeListener(listener);
+  }
 }
@@ -0,0 +1,448 @@
+package cs3500.music.tests;
+
+import cs3500.music.model.ConcurrentModel;
+import cs3500.music.model.MusicEditorBuilder;
+import cs3500.music.model.MusicEditorListener;
+import cs3500.music.model.MusicEditorOperations;
+import cs3500.music.model.PieceSnapshot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link ConcurrentModel} class.
+ */
+public class ConcurrentModelTest {
+  private static final int EDITORS = 4;
+  private static final int PLAYERS = 4;
+  private static final int NOTES_PER_EDITOR = 64;
+  private static final int EDITS = 3000;
+  private static final int SLOW_TEMPO = 200000;
+  private static final int FAST_TEMPO = 100000;
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructNullModel() {
+    new ConcurrentModel(null);
+  }
+
+  @Test
+  public void passesCallsToModel() {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    model.setTempo(150000);
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(2, 5, 1, 62, 100);
+    model.editNotePitch(2, 1, 62, 64);
+    model.editNotePosition(0, 1, 60, 1);
+    model.editNoteDuration(1, 1, 60, 2);
+    assertEquals(150000, model.getTempo());
+    assertEquals(5, model.getLength());
+    assertEquals(2, model.getNotes().size());
+    assertEquals(1, model.getNotesAtBeat(2).size());
+    assertEquals(true, model.undo());
+    assertEquals(true, model.redo());
+    model.removeNote(2, 1, 64);
+    assertEquals("[1, 2, 1, 60, 100]", Arrays.toString(model.getNotes().get(0)));
+    model.create();
+    assertEquals(1, model.getOpenedId());
+    model.close(0);
+    assertEquals(1, model.getPieceIds().size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void readNoPiece() {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    model.close(0);
+    model.getNotes();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void editMissingNote() {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    model.removeNote(0, 1, 60);
+  }
+
+  @Test
+  public void listenersToldAfterEachEdit() {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    model.addNote(0, 3, 1, 60, 100);
+    assertEquals("added " + (v + 1) + " 0 3 1 60 100\n", listener.getLog());
+    model.undo();
+    model.create();
+    model.removeListener(listener);
+    model.setTempo(1000);
+    assertEquals("added " + (v + 1) + " 0 3 1 60 100\n"
+        + "removed " + (v + 2) + " 0 3 1 60 100\n"
+        + "piece " + (v + 3) + "\n", listener.getLog());
+  }
+
+  // Readers on other threads must see a batch either not applied at all or applied in full.
+  @Test(timeout = 10000)
+  public void batchSeenWhole() throws InterruptedException {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicBoolean torn = new AtomicBoolean(false);
+    Thread reader = new Thread(() -> {
+      while (!done.get()) {
+        int size = model.getNotes().size();
+        if (size % NOTES_PER_EDITOR != 0) {
+          torn.set(true);
+        }
+      }
+    });
+    reader.start();
+    for (int i = 0; i < EDITORS; i++) {
+      int beat = i * NOTES_PER_EDITOR;
+      model.applyBatch(edit -> {
+        for (int j = 0; j < NOTES_PER_EDITOR; j++) {
+          edit.addNote(beat + j, beat + j, 1, 60, 100);
+        }
+      });
+    }
+    done.set(true);
+    reader.join();
+    assertEquals(false, torn.get());
+    assertEquals(EDITORS * NOTES_PER_EDITOR, model.getNotes().size());
+    assertEquals(EDITORS, listener.getLog().split("\n").length);
+  }
+
+  // A listener that reads and edits the model while being told of an edit must not wait on the
+  // lock held for that edit.
+  @Test(timeout = 10000)
+  public void listenerCanUseModel() {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    RecordingListener listener = new RecordingListener() {
+      @Override
+      public void noteAdded(long version, int start, int end, int instrument, int pitch,
+                            int volume) {
+        super.noteAdded(version, start, end, instrument, pitch, volume);
+        assertEquals(version, model.getSnapshot().getVersion());
+        if (pitch == 60) {
+          model.addNote(start, end, instrument, 62, volume);
+        }
+      }
+    };
+    model.addListener(listener);
+    long v = model.getVersion();
+    model.addNote(0, 3, 1, 60, 100);
+    assertEquals("added " + (v + 1) + " 0 3 1 60 100\n"
+        + "added " + (v + 2) + " 0 3 1 62 100\n", listener.getLog());
+    assertEquals(2, model.getNotes().size());
+  }
+
+  // An action given to forEachNote that reads and edits the model must not wait on a lock held
+  // for the iteration, and goes through the notes as they were when it started.
+  @Test(timeout = 10000)
+  public void forEachNoteActionCanUseModel() {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(2, 5, 1, 62, 100);
+    AtomicInteger count = new AtomicInteger();
+    model.forEachNote((start, end, instrument, pitch, volume) -> {
+      count.incrementAndGet();
+      model.getSnapshot();
+      model.addNote(start, end, instrument, pitch + 1, volume);
+    });
+    assertEquals(2, count.get());
+    assertEquals(4, model.getNotes().size());
+  }
+
+  // Stress test: editors move and resize their own notes and change the tempo, while players
+  // read the whole piece, both from the model and from snapshots. Every edit keeps the same
+  // number of notes, each lasting two or four beats, so any read that sees an edit half done
+  // shows up as a broken note or a wrong count, and a snapshot must never change once taken.
+  // A listener keeps its own copy of the notes from the events alone, which must be told of
+  // every edit in order and end up the same as the model.
+  @Test(timeout = 60000)
+  public void parallelEditorsAndPlayersNeverSeeTornState() throws InterruptedException {
+    MusicEditorOperations model = new ConcurrentModel(new MusicEditorBuilder().build());
+    model.setTempo(SLOW_TEMPO);
+    for (int e = 0; e < EDITORS; e++) {
+      for (int k = 0; k < NOTES_PER_EDITOR; k++) {
+        model.addNote(k * 2, (k * 2) + 1, e, pitch(k), 64);
+      }
+    }
+    List<String> before = notesToStrings(model.getNotes());
+    int total = EDITORS * NOTES_PER_EDITOR;
+    MirrorListener mirror = new MirrorListener(model.getVersion(), model.getNotes());
+    model.addListener(mirror);
+
+    Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+    AtomicBoolean editing = new AtomicBoolean(true);
+    AtomicInteger reads = new AtomicInteger(0);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> editors = new ArrayList<>();
+    List<Thread> players = new ArrayList<>();
+    for (int e = 0; e < EDITORS; e++) {
+      int instrument = e;
+      editors.add(new Thread(() -> {
+        Random random = new Random(instrument);
+        try {
+          start.await();
+          for (int i = 0; i < EDITS; i++) {
+            int k = random.nextInt(NOTES_PER_EDITOR);
+            int s = k * 2;
+            int p = pitch(k);
+            int edited = ((p / 12) * 12) + (11 - (p % 12));
+            model.editNotePosition(s, instrument, p, s + 1);
+            model.editNoteDuration(s + 1, instrument, p, 4);
+            model.editNotePitch(s + 1, instrument, p, edited);
+            model.setTempo(i % 2 == 0 ? FAST_TEMPO : SLOW_TEMPO);
+            model.editNotePitch(s + 1, instrument, edited, p);
+            model.editNoteDuration(s + 1, instrument, p, 2);
+            model.editNotePosition(s + 1, instrument, p, s);
+          }
+        } catch (Throwable t) {
+          errors.add(t);
+        }
+      }));
+    }
+    for (int i = 0; i < PLAYERS; i++) {
+      int seed = i;
+      players.add(new Thread(() -> {
+        Random random = new Random(seed);
+        try {
+          start.await();
+          while (editing.get()) {
+            List<Integer[]> notes = model.getNotes();
+            assertEquals(total, notes.size());
+            for (Integer[] note : notes) {
+              checkNote(note);
+            }
+            int beat = random.nextInt(NOTES_PER_EDITOR * 2);
+            for (Integer[] note : model.getNotesAtBeat(beat)) {
+              checkNote(note);
+              assertTrue(note[0] <= beat && beat <= note[1]);
+            }
+            AtomicInteger count = new AtomicInteger(0);
+            model.forEachNote((s, e, instrument, pitch, volume) -> count.incrementAndGet());
+            assertEquals(total, count.get());
+            int length = model.getLength();
+            assertTrue(length >= (NOTES_PER_EDITOR * 2) - 1
+                && length <= (NOTES_PER_EDITOR * 2) + 2);
+            int tempo = model.getTempo();
+            assertTrue(tempo == SLOW_TEMPO || tempo == FAST_TEMPO);
+            PieceSnapshot snapshot = model.getSnapshot();
+            assertTrue(snapshot.getVersion() <= model.getVersion());
+            List<Integer[]> snapshotNotes = snapshot.getNotes();
+            assertEquals(total, snapshotNotes.size());
+            for (Integer[] note : snapshotNotes) {
+              checkNote(note);
+            }
+            assertEquals(notesToStrings(snapshotNotes), notesToStrings(snapshot.getNotes()));
+            reads.incrementAndGet();
+          }
+        } catch (Throwable t) {
+          errors.add(t);
+        }
+      }));
+    }
+    for (Thread t : editors) {
+      t.start();
+    }
+    for (Thread t : players) {
+      t.start();
+    }
+    start.countDown();
+    for (Thread t : editors) {
+      t.join();
+    }
+    editing.set(false);
+    for (Thread t : players) {
+      t.join();
+    }
+
+    assertEquals("[]", errors.toString());
+    assertTrue(reads.get() > 0);
+    assertEquals(before, notesToStrings(model.getNotes()));
+    assertEquals(before, mirror.getNotes());
+    assertEquals(model.getVersion(), mirror.version);
+    assertEquals(true, mirror.inOrder);
+  }
+
+  /**
+   * Represents a listener that keeps a copy of the notes of a piece from the events alone, and
+   * checks that it is told of every change in order.
+   */
+  private static final class MirrorListener implements MusicEditorListener {
+    private final Map<String, Integer> notes;
+    private long version;
+    private boolean inOrder;
+
+    /**
+     * Constructs a new {@code MirrorListener} with a copy of the given notes.
+     *
+     * @param version   the version of the model the notes are at
+     * @param notes     the note data of every note
+     */
+    private MirrorListener(long version, List<Integer[]> notes) {
+      this.notes = new HashMap<>();
+      this.version = version;
+      this.inOrder = true;
+      for (Integer[] note : notes) {
+        this.add(note[0], note[1], note[2], note[3], note[4]);
+      }
+    }
+
+    /**
+     * Gets the notes kept by this listener as sorted strings.
+     *
+     * @return the notes as sorted strings
+     */
+    private List<String> getNotes() {
+      List<String> result = new ArrayList<>();
+      for (Map.Entry<String, Integer> entry : this.notes.entrySet()) {
+        for (int i = 0; i < entry.getValue(); i++) {
+          result.add(entry.getKey());
+        }
+      }
+      Collections.sort(result);
+      return result;
+    }
+
+    @Override
+    public void noteAdded(long version, int start, int end, int instrument, int pitch,
+                          int volume) {
+      this.next(version);
+      this.add(start, end, instrument, pitch, volume);
+    }
+
+    @Override
+    public void noteRemoved(long version, int start, int end, int instrument, int pitch,
+                            int volume) {
+      this.next(version);
+      this.remove(start, end, instrument, pitch, volume);
+    }
+
+    @Override
+    public void noteMoved(long version, int start, int end, int instrument, int pitch,
+                          int volume, int newStart, int newPitch) {
+      this.next(version);
+      this.remove(start, end, instrument, pitch, volume);
+      this.add(newStart, newStart + (end - start), instrument, newPitch, volume);
+    }
+
+    @Override
+    public void noteResized(long version, int start, int end, int instrument, int pitch,
+                            int volume, int newEnd) {
+      this.next(version);
+      this.remove(start, end, instrument, pitch, volume);
+      this.add(start, newEnd, instrument, pitch, volume);
+    }
+
+    @Override
+    public void tempoChanged(long version, int tempo, int newTempo) {
+      this.next(version);
+    }
+
+    @Override
+    public void pieceChanged(long version) {
+      this.next(version);
+      this.inOrder = false;
+    }
+
+    /**
+     * Checks that an event follows the last one told.
+     *
+     * @param version   the version of the event
+     */
+    private void next(long version) {
+      this.inOrder = this.inOrder && version == this.version + 1;
+      this.version = version;
+    }
+
+    /**
+     * Adds a note to the copy.
+     *
+     * @param start        the starting position of the note
+     * @param end          the ending position of the note
+     * @param instrument   the instrument of the note
+     * @param pitch        the pitch of the note
+     * @param volume       the volume of the note
+     */
+    private void add(int start, int end, int instrument, int pitch, int volume) {
+      this.notes.merge(Arrays.toString(new Integer[] {start, end, instrument, pitch, volume}), 1,
+          Integer::sum);
+    }
+
+    /**
+     * Removes a note from the copy, marking the events out of order if it is not there.
+     *
+     * @param start        the starting position of the note
+     * @param end          the ending position of the note
+     * @param instrument   the instrument of the note
+     * @param pitch        the pitch of the note
+     * @param volume       the volume of the note
+     */
+    private void remove(int start, int end, int instrument, int pitch, int volume) {
+      String key = Arrays.toString(new Integer[] {start, end, instrument, pitch, volume});
+      Integer count = this.notes.get(key);
+      if (count == null) {
+        this.inOrder = false;
+      } else if (count == 1) {
+        this.notes.remove(key);
+      } else {
+        this.notes.put(key, count - 1);
+      }
+    }
+  }
+
+  /**
+   * Returns the given note data as sorted strings, since notes with the same starting position
+   * and pitch can change order when one of them is moved away and back.
+   *
+   * @param notes   the note data
+   * @return the note data as sorted strings
+   */
+  private static List<String> notesToStrings(List<Integer[]> notes) {
+    List<String> result = new ArrayList<>();
+    for (Integer[] note : notes) {
+      result.add(Arrays.toString(note));
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Gets the pitch of the note with the given number, for every editor.
+   *
+   * @param k   the number of the note
+   * @return the MIDI pitch of the note
+   */
+  private static int pitch(int k) {
+    return 48 + (k % 24);
+  }
+
+  /**
+   * Checks that the given note data is one of the notes of the stress test, as any editor may
+   * have left it: lasting two or four beats, at one of the pitches used, and played on the
+   * instrument of one of the editors.
+   *
+   * @param note   the note data
+   */
+  private static void checkNote(Integer[] note) {
+    int duration = note[1] - note[0] + 1;
+    assertTrue(duration == 2 || duration == 4);
+    assertTrue(note[2] >= 0 && note[2] < EDITORS);
+    assertTrue(note[3] >= 48 && note[3] < 72);
+    assertEquals(64, (int) note[4]);
+  }
+}
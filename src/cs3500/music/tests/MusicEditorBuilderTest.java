@@ -1,6 +1,7 @@
 package cs3500.music.tests;
 
 import cs3500.music.model.MusicEditorBuilder;
+import cs3500.music.model.MusicEditorOperations;
 import cs3500.music.util.MidiConversion;
 
 import org.junit.Test;
@@ -140,4 +141,44 @@ public class MusicEditorBuilderTest {
     assertEquals(92, (int) builder.build().getNotes().get(0)[MidiConversion.NOTE_PITCH]);
     assertEquals(45, (int) builder.build().getNotes().get(0)[MidiConversion.NOTE_VOLUME]);
   }
+
+  @Test
+  public void addNoteUnsortedSameOrderAsModel() {
+    MusicEditorOperations model = new MusicEditorBuilder().build();
+    int[][] notes = {{8, 9, 1, 60, 10}, {2, 5, 1, 60, 20}, {8, 8, 2, 60, 30}, {2, 3, 2, 60, 40},
+        {0, 7, 1, 61, 50}, {5, 6, 3, 60, 60}, {2, 2, 3, 60, 70}};
+    for (int[] n : notes) {
+      builder.addNote(n[0], n[1], n[2], n[3], n[4]);
+      model.addNote(n[0], n[1], n[2], n[3], n[4]);
+    }
+    assertEquals(model.getNotes().size(), builder.build().getNotes().size());
+    for (int i = 0; i < model.getNotes().size(); i++) {
+      assertEquals(model.getNotes().get(i)[MidiConversion.NOTE_VOLUME],
+          builder.build().getNotes().get(i)[MidiConversion.NOTE_VOLUME]);
+    }
+    assertEquals(model.getLength(), builder.build().getLength());
+    assertEquals(3, builder.build().getNotesAtBeat(2).size());
+  }
+
+  // Tests for the addNotes method
+  @Test
+  public void addNotesAppearsInGetNotes() {
+    builder.addNotes(new int[] {4, 0}, new int[] {6, 2}, new int[] {1, 1}, new int[] {60, 60},
+        new int[] {10, 20});
+    assertEquals(2, builder.build().getNotes().size());
+    assertEquals(0, (int) builder.build().getNotes().get(0)[MidiConversion.NOTE_START]);
+    assertEquals(6, builder.build().getLength());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void addNotesDifferentLengths() {
+    builder.addNotes(new int[] {4, 0}, new int[] {6, 2}, new int[] {1}, new int[] {60, 60},
+        new int[] {10, 20});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void addNotesInvalidNote() {
+    builder.addNotes(new int[] {4, 0}, new int[] {6, 2}, new int[] {1, 1}, new int[] {60, 60},
+        new int[] {10, 200});
+  }
 }
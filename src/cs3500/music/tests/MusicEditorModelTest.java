@@ -1,16 +1,27 @@
 package cs3500.music.tests;
 
+import cs3500.music.model.BatchEditor;
 import cs3500.music.model.MusicEditorBuilder;
 import cs3500.music.model.MusicEditorModel;
 import cs3500.music.model.MusicEditorOperations;
+import cs3500.music.model.PieceSnapshot;
 import cs3500.music.util.CompositionBuilder;
 import cs3500.music.util.MidiConversion;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.ArrayList;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 /**
  * Tests for the {@link MusicEditorModel} class.
@@ -262,6 +273,104 @@ public class MusicEditorModelTest {
     assertEquals(model.getNotes().get(1)[MidiConversion.NOTE_VOLUME] == 100, true);
   }
 
+  @Test
+  public void getNotesAcrossOctavesAddedOutOfOrder() {
+    model.create();
+    model.addNote(0, 1, 1, 100, 100);
+    model.addNote(2, 3, 1, 30, 100);
+    model.addNote(1, 2, 1, 61, 100);
+    model.removeNote(1, 1, 61);
+    model.addNote(4, 5, 1, 65, 100);
+    assertEquals("[2, 3, 1, 30, 100]\n[4, 5, 1, 65, 100]\n[0, 1, 1, 100, 100]",
+        notesToString(model.getNotes()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void editNoteInOctaveWithoutNotes() {
+    model.create();
+    model.addNote(0, 1, 1, 60, 100);
+    model.editNoteDuration(0, 1, 100, 4);
+  }
+
+  @Test
+  public void lookupInOctaveWithoutNotesFailsAsInOctaveWithNotes() {
+    model.create();
+    model.addNote(0, 1, 1, 60, 100);
+    String withNotes = "";
+    String withoutNotes = "";
+    try {
+      model.removeNote(5, 1, 61);
+    } catch (IllegalArgumentException e) {
+      withNotes = e.getMessage();
+    }
+    try {
+      model.removeNote(5, 1, 100);
+    } catch (IllegalArgumentException e) {
+      withoutNotes = e.getMessage();
+    }
+    assertEquals("There is no note at position 5 played on instrument 1.", withNotes);
+    assertEquals(withNotes, withoutNotes);
+    assertEquals("[0, 1, 1, 60, 100]", notesToString(model.getNotes()));
+  }
+
+  // Tests for the forEachNote method
+  @Test
+  public void forEachNoteOnEmptyPiece() {
+    model.create();
+    List<Integer[]> visited = new ArrayList<>();
+    model.forEachNote((start, end, instrument, pitch, volume) ->
+        visited.add(new Integer[] {start, end, instrument, pitch, volume}));
+    assertEquals(0, visited.size());
+  }
+
+  @Test
+  public void forEachNoteSameOrderAsGetNotes() {
+    model.create();
+    model.addNote(4, 6, 1, 70, 100);
+    model.addNote(0, 2, 2, 60, 90);
+    model.addNote(2, 3, 1, 60, 80);
+    model.addNote(0, 1, 3, 85, 70);
+    model.editNotePosition(0, 2, 60, 5);
+    List<Integer[]> visited = new ArrayList<>();
+    model.forEachNote((start, end, instrument, pitch, volume) ->
+        visited.add(new Integer[] {start, end, instrument, pitch, volume}));
+    List<Integer[]> notes = model.getNotes();
+    assertEquals(notes.size(), visited.size());
+    for (int i = 0; i < notes.size(); i++) {
+      for (int j = 0; j < 5; j++) {
+        assertEquals(notes.get(i)[j], visited.get(i)[j]);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void forEachNoteNullConsumer() {
+    model.create();
+    model.forEachNote(null);
+  }
+
+  @Test
+  public void getNotesDensePitchStaysOrdered() {
+    model.create();
+    for (int i = 0; i < 200; i++) {
+      model.addNote((i * 37) % 200, (i * 37) % 200, ((i * 37) % 200) % 3, 60, 100);
+    }
+    for (int i = 0; i < 200; i += 2) {
+      model.removeNote(i, i % 3, 60);
+    }
+    model.editNotePosition(1, 1, 60, 3);
+    List<Integer[]> notes = model.getNotes();
+    assertEquals(100, notes.size());
+    for (int i = 1; i < notes.size(); i++) {
+      assertEquals(true, notes.get(i - 1)[MidiConversion.NOTE_START]
+          <= notes.get(i)[MidiConversion.NOTE_START]);
+    }
+    assertEquals(3, (int) notes.get(0)[MidiConversion.NOTE_START]);
+    assertEquals(0, (int) notes.get(0)[MidiConversion.NOTE_INSTRUMENT]);
+    assertEquals(3, (int) notes.get(1)[MidiConversion.NOTE_START]);
+    assertEquals(1, (int) notes.get(1)[MidiConversion.NOTE_INSTRUMENT]);
+  }
+
   // Tests for the getNotesAtBeat method
   @Test
   public void getNotesAtBeatIndexGreaterThanLength() {
@@ -314,6 +423,204 @@ public class MusicEditorModelTest {
     assertEquals(temp, model.getNotesAtBeat(0));
   }
 
+  @Test
+  public void getNotesAtBeatAfterRemove() {
+    model.create();
+    model.addNote(0, 4, 1, 60, 100);
+    model.addNote(2, 6, 1, 62, 100);
+    model.removeNote(0, 1, 60);
+    assertEquals(1, model.getNotesAtBeat(3).size());
+    assertEquals(62, (int) model.getNotesAtBeat(3).get(0)[MidiConversion.NOTE_PITCH]);
+  }
+
+  @Test
+  public void getNotesAtBeatAfterEditPosition() {
+    model.create();
+    model.addNote(0, 4, 1, 60, 100);
+    model.editNotePosition(0, 1, 60, 10);
+    assertEquals(0, model.getNotesAtBeat(2).size());
+    assertEquals(10, (int) model.getNotesAtBeat(12).get(0)[MidiConversion.NOTE_START]);
+    assertEquals(14, (int) model.getNotesAtBeat(12).get(0)[MidiConversion.NOTE_END]);
+  }
+
+  @Test
+  public void getNotesAtBeatAfterEditDuration() {
+    model.create();
+    model.addNote(0, 1, 1, 60, 100);
+    assertEquals(0, model.getNotesAtBeat(3).size());
+    model.editNoteDuration(0, 1, 60, 5);
+    assertEquals(1, model.getNotesAtBeat(3).size());
+  }
+
+  @Test
+  public void getNotesAtBeatAfterEditPitch() {
+    model.create();
+    model.addNote(0, 4, 1, 60, 100);
+    model.editNotePitch(0, 1, 60, 62);
+    assertEquals(62, (int) model.getNotesAtBeat(1).get(0)[MidiConversion.NOTE_PITCH]);
+  }
+
+  @Test
+  public void getNotesAtBeatOrderedByPitch() {
+    model.create();
+    model.addNote(2, 6, 1, 72, 100);
+    model.addNote(1, 6, 1, 60, 100);
+    model.addNote(0, 6, 1, 65, 100);
+    List<Integer[]> notes = model.getNotesAtBeat(3);
+    assertEquals(60, (int) notes.get(0)[MidiConversion.NOTE_PITCH]);
+    assertEquals(65, (int) notes.get(1)[MidiConversion.NOTE_PITCH]);
+    assertEquals(72, (int) notes.get(2)[MidiConversion.NOTE_PITCH]);
+  }
+
+  // Tests for the getNotesInRange method
+  @Test
+  public void getNotesInRangeOverlapping() {
+    model.addNote(0, 2, 1, 60, 100);
+    model.addNote(2, 4, 1, 62, 100);
+    model.addNote(5, 9, 1, 64, 100);
+    model.addNote(10, 12, 1, 60, 100);
+    assertEquals("[2, 4, 1, 62, 100]\n[5, 9, 1, 64, 100]",
+        notesToString(model.getNotesInRange(2, 6)));
+    assertEquals("[0, 2, 1, 60, 100]\n[10, 12, 1, 60, 100]\n[2, 4, 1, 62, 100]\n"
+        + "[5, 9, 1, 64, 100]", notesToString(model.getNotesInRange(0, 100)));
+    assertEquals("", notesToString(model.getNotesInRange(12, 20)));
+  }
+
+  // Removing a note frees its slot for the next note added, so notes with the same pitch and
+  // start may come back in a different order than from getNotes, but the same notes come back,
+  // still ordered by pitch and then by start.
+  @Test
+  public void getNotesInRangeAfterSlotReused() {
+    model.addNote(0, 2, 1, 60, 100);
+    model.addNote(0, 4, 2, 60, 100);
+    model.addNote(1, 3, 1, 62, 100);
+    model.removeNote(0, 1, 60);
+    model.addNote(0, 3, 3, 60, 100);
+    model.addNote(0, 2, 4, 58, 100);
+    List<String> expected = new ArrayList<>();
+    for (Integer[] note : model.getNotes()) {
+      expected.add(Arrays.toString(note));
+    }
+    List<Integer[]> found = model.getNotesInRange(0, 3);
+    List<String> actual = new ArrayList<>();
+    for (int i = 0; i < found.size(); i++) {
+      actual.add(Arrays.toString(found.get(i)));
+      if (i > 0) {
+        Integer[] before = found.get(i - 1);
+        Integer[] note = found.get(i);
+        assertEquals(true, before[MidiConversion.NOTE_PITCH] < note[MidiConversion.NOTE_PITCH]
+            || (before[MidiConversion.NOTE_PITCH].equals(note[MidiConversion.NOTE_PITCH])
+            && before[MidiConversion.NOTE_START] <= note[MidiConversion.NOTE_START]));
+      }
+    }
+    Collections.sort(expected);
+    Collections.sort(actual);
+    assertEquals(expected, actual);
+    assertEquals(notesToString(model.getNotesAtBeat(0)),
+        notesToString(model.getNotesInRange(0, 0)));
+  }
+
+  @Test
+  public void getNotesInRangeSameAsAtBeat() {
+    model.addNote(2, 6, 1, 72, 100);
+    model.addNote(1, 6, 1, 60, 100);
+    model.addNote(0, 3, 1, 65, 100);
+    for (int beat = -1; beat < 8; beat++) {
+      assertEquals(notesToString(model.getNotesAtBeat(beat)),
+          notesToString(model.getNotesInRange(beat, beat)));
+    }
+  }
+
+  @Test
+  public void getNotesInRangeOfPitches() {
+    model.addNote(0, 4, 1, 60, 100);
+    model.addNote(0, 4, 1, 61, 100);
+    model.addNote(1, 4, 2, 61, 100);
+    model.addNote(0, 4, 1, 62, 100);
+    model.addNote(6, 8, 1, 61, 100);
+    assertEquals("[0, 4, 1, 61, 100]\n[1, 4, 2, 61, 100]\n[0, 4, 1, 62, 100]",
+        notesToString(model.getNotesInRange(2, 3, 61, 62)));
+    assertEquals("", notesToString(model.getNotesInRange(0, 10, 63, 127)));
+  }
+
+  @Test
+  public void getNotesInRangeAfterEdits() {
+    Random random = new Random(25);
+    List<Integer[]> notes = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      int start = random.nextInt(200);
+      int pitch = 48 + random.nextInt(24);
+      model.addNote(start, start + 1 + random.nextInt(20), 1 + random.nextInt(3), pitch, 100);
+    }
+    for (int i = 0; i < 300; i++) {
+      notes = model.getNotes();
+      Integer[] note = notes.get(random.nextInt(notes.size()));
+      int start = note[MidiConversion.NOTE_START];
+      int instrument = note[MidiConversion.NOTE_INSTRUMENT];
+      int pitch = note[MidiConversion.NOTE_PITCH];
+      switch (random.nextInt(5)) {
+        case 0:
+          model.editNotePitch(start, instrument, pitch,
+              pitch - pitch % 12 + random.nextInt(12));
+          break;
+        case 1:
+          model.editNotePosition(start, instrument, pitch, random.nextInt(200));
+          break;
+        case 2:
+          model.editNoteDuration(start, instrument, pitch, 1 + random.nextInt(20));
+          break;
+        case 3:
+          model.removeNote(start, instrument, pitch);
+          model.addNote(start, start + 1, instrument, pitch, 100);
+          break;
+        default:
+          model.undo();
+          break;
+      }
+      int from = random.nextInt(220);
+      int to = from + random.nextInt(30);
+      int low = 48 + random.nextInt(24);
+      int high = low + random.nextInt(12);
+      notes = model.getNotes();
+      List<Integer[]> expected = new ArrayList<>();
+      for (Integer[] n : notes) {
+        if (n[MidiConversion.NOTE_START] <= to && n[MidiConversion.NOTE_END] > from
+            && n[MidiConversion.NOTE_PITCH] >= low && n[MidiConversion.NOTE_PITCH] <= high) {
+          expected.add(n);
+        }
+      }
+      List<Integer[]> found = model.getNotesInRange(from, to, low, high);
+      expected.sort(MusicEditorModelTest::compareNotes);
+      found.sort(MusicEditorModelTest::compareNotes);
+      assertEquals(notesToString(expected), notesToString(found));
+    }
+  }
+
+  @Test
+  public void getNotesInRangeOfSnapshot() {
+    model.addNote(0, 4, 1, 60, 100);
+    PieceSnapshot snapshot = model.getSnapshot();
+    model.addNote(1, 4, 1, 62, 100);
+    assertEquals("[0, 4, 1, 60, 100]", notesToString(snapshot.getNotesInRange(0, 10)));
+    assertEquals("", notesToString(snapshot.getNotesInRange(0, 10, 61, 127)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getNotesInRangeBackwards() {
+    model.getNotesInRange(5, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void getNotesInRangeOfPitchesBackwards() {
+    model.getNotesInRange(0, 4, 62, 60);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void getNotesInRangeNoPiece() {
+    model.close(0);
+    model.getNotesInRange(0, 4);
+  }
+
   // Tests for the getLength method
   @Test
   public void getLengthEmpty() {
@@ -336,4 +643,606 @@ public class MusicEditorModelTest {
     model.addNote(4, 5, 16, 45, 120);
     assertEquals(24, model.getLength());
   }
+
+  @Test
+  public void getLengthAfterRemovingLongestNote() {
+    model.create();
+    model.addNote(3, 10, 3, 60, 64);
+    model.addNote(20, 24, 67, 92, 63);
+    model.addNote(4, 24, 16, 45, 120);
+    model.removeNote(20, 67, 92);
+    assertEquals(24, model.getLength());
+    model.removeNote(4, 16, 45);
+    assertEquals(10, model.getLength());
+    model.removeNote(3, 3, 60);
+    assertEquals(0, model.getLength());
+  }
+
+  @Test
+  public void getLengthAfterEdits() {
+    model.create();
+    model.addNote(3, 10, 3, 60, 64);
+    model.editNoteDuration(3, 3, 60, 2);
+    assertEquals(4, model.getLength());
+    model.editNotePosition(3, 3, 60, 30);
+    assertEquals(31, model.getLength());
+  }
+
+  // Tests for the open, close, getPieceIds, and getOpenedId methods
+  @Test
+  public void createGivesNextId() {
+    assertEquals(0, model.getOpenedId());
+    model.create();
+    assertEquals(1, model.getOpenedId());
+    model.create();
+    assertEquals(2, model.getOpenedId());
+    assertEquals(Arrays.asList(0, 1, 2), model.getPieceIds());
+  }
+
+  @Test
+  public void openSwitchesBetweenPieces() {
+    model.addNote(0, 3, 1, 60, 100);
+    model.setTempo(200);
+    model.create();
+    model.addNote(4, 5, 2, 72, 90);
+    model.open(0);
+    assertEquals(0, model.getOpenedId());
+    assertEquals(200, model.getTempo());
+    assertEquals("[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+    model.open(1);
+    assertEquals(0, model.getTempo());
+    assertEquals("[4, 5, 2, 72, 90]", notesToString(model.getNotes()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void openNoPieceWithId() {
+    model.open(1);
+  }
+
+  @Test
+  public void closeOtherPiece() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.close(0);
+    assertEquals(Arrays.asList(1), model.getPieceIds());
+    assertEquals(1, model.getOpenedId());
+    assertEquals(1, model.getNotes().size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closeOpenedPiece() {
+    model.close(0);
+    model.getNotes();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void closePieceTwice() {
+    model.create();
+    model.close(0);
+    model.close(0);
+  }
+
+  @Test
+  public void openPieceWrittenToDisk() {
+    MusicEditorOperations workspace = new MusicEditorBuilder().setNoteBudget(0).build();
+    workspace.setTempo(150000);
+    workspace.addNote(0, 3, 1, 60, 100);
+    workspace.addNote(2, 2, 5, 60, 30);
+    workspace.addNote(0, 3, 1, 60, 80);
+    workspace.addNote(7, 9, 0, 30, 127);
+    String notes = notesToString(workspace.getNotes());
+    workspace.create();
+    workspace.addNote(1, 1, 1, 50, 50);
+    workspace.open(0);
+    assertEquals(150000, workspace.getTempo());
+    assertEquals(notes, notesToString(workspace.getNotes()));
+    assertEquals(9, workspace.getLength());
+    assertEquals(2, workspace.getNotesAtBeat(2).size());
+    workspace.open(1);
+    assertEquals("[1, 1, 1, 50, 50]", notesToString(workspace.getNotes()));
+  }
+
+  @Test
+  public void openPieceMissingFromDiskKeepsOpenedPiece() throws IOException {
+    Path directory = Files.createTempDirectory("music-editor-test");
+    directory.toFile().deleteOnExit();
+    MusicEditorOperations workspace = new MusicEditorBuilder().setNoteBudget(0)
+        .setDirectory(directory).build();
+    workspace.addNote(0, 3, 1, 60, 100);
+    workspace.create();
+    workspace.addNote(1, 1, 1, 50, 50);
+    File[] files = directory.toFile().listFiles();
+    assertEquals(1, files.length);
+    Files.delete(files[0].toPath());
+    boolean failed = false;
+    try {
+      workspace.open(0);
+    } catch (IllegalStateException e) {
+      failed = true;
+    }
+    assertEquals(true, failed);
+    assertEquals(1, workspace.getOpenedId());
+    assertEquals("[1, 1, 1, 50, 50]", notesToString(workspace.getNotes()));
+  }
+
+  @Test
+  public void closePieceWrittenToDisk() {
+    MusicEditorOperations workspace = new MusicEditorBuilder().setNoteBudget(1).build();
+    workspace.addNote(0, 3, 1, 60, 100);
+    workspace.create();
+    workspace.addNote(0, 3, 1, 61, 100);
+    workspace.create();
+    workspace.close(0);
+    workspace.close(1);
+    assertEquals(Arrays.asList(2), workspace.getPieceIds());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setNoteBudgetNegative() {
+    new MusicEditorBuilder().setNoteBudget(-1);
+  }
+
+  @Test
+  public void undoWithNoEdits() {
+    model.create();
+    assertEquals(false, model.undo());
+    assertEquals(false, model.redo());
+  }
+
+  @Test
+  public void undoAndRedoEveryKindOfEdit() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(2, 2, 5, 61, 30);
+    model.removeNote(2, 5, 61);
+    model.editNotePitch(0, 1, 60, 64);
+    model.editNotePosition(0, 1, 64, 4);
+    model.editNoteDuration(4, 1, 64, 2);
+    model.setTempo(150000);
+    List<String> states = new ArrayList<>();
+    states.add(notesToString(model.getNotes()) + "|" + model.getTempo());
+    while (model.undo()) {
+      states.add(notesToString(model.getNotes()) + "|" + model.getTempo());
+    }
+    assertEquals("|0", states.get(states.size() - 1));
+    assertEquals("[0, 3, 1, 60, 100]|0", states.get(states.size() - 2));
+    for (int i = states.size() - 2; i >= 0; i--) {
+      assertEquals(true, model.redo());
+      assertEquals(states.get(i), notesToString(model.getNotes()) + "|" + model.getTempo());
+    }
+    assertEquals(false, model.redo());
+    assertEquals("[4, 5, 1, 64, 100]", notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void undoRemoveOfDuplicateNote() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(0, 5, 1, 60, 50);
+    String notes = notesToString(model.getNotes());
+    model.removeNote(0, 1, 60);
+    assertEquals("[0, 5, 1, 60, 50]", notesToString(model.getNotes()));
+    model.undo();
+    assertEquals(notes, notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void undoEditOfDuplicateNote() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(0, 5, 1, 60, 50);
+    String notes = notesToString(model.getNotes());
+    model.editNotePosition(0, 1, 60, 2);
+    model.editNotePosition(2, 1, 60, 0);
+    assertEquals("[0, 5, 1, 60, 50]\n[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+    model.editNoteDuration(0, 1, 60, 2);
+    model.undo();
+    model.undo();
+    assertEquals(notes, notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void editAfterUndoDropsRedo() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.undo();
+    model.addNote(1, 3, 1, 62, 100);
+    assertEquals(false, model.redo());
+    assertEquals("[1, 3, 1, 62, 100]", notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void quickEditsToSameNoteUndoneTogether() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.editNotePosition(0, 1, 60, 1);
+    model.editNotePosition(1, 1, 60, 2);
+    model.editNotePosition(2, 1, 60, 3);
+    model.undo();
+    assertEquals("[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void failedEditIsNotRecorded() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    try {
+      model.removeNote(5, 1, 60);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    model.undo();
+    assertEquals("", notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void openPieceClearsUndo() {
+    model.create();
+    model.addNote(0, 3, 1, 60, 100);
+    model.create();
+    model.open(1);
+    assertEquals(false, model.undo());
+    assertEquals("[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void undoNoPiece() {
+    model.close(0);
+    model.undo();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void redoNoPiece() {
+    model.close(0);
+    model.redo();
+  }
+
+  @Test
+  public void versionMovesOnChange() {
+    long version = model.getVersion();
+    model.addNote(0, 3, 1, 60, 100);
+    assertEquals(version + 1, model.getVersion());
+    model.editNotePosition(0, 1, 60, 0);
+    model.setTempo(model.getTempo());
+    model.getNotes();
+    assertEquals(version + 1, model.getVersion());
+    model.undo();
+    assertEquals(version + 2, model.getVersion());
+    model.create();
+    assertEquals(version + 3, model.getVersion());
+  }
+
+  @Test
+  public void failedEditKeepsVersion() {
+    long version = model.getVersion();
+    try {
+      model.removeNote(0, 1, 60);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals(version, model.getVersion());
+  }
+
+  @Test
+  public void snapshotSharedUntilChange() {
+    model.addNote(0, 3, 1, 60, 100);
+    PieceSnapshot snapshot = model.getSnapshot();
+    assertSame(snapshot, model.getSnapshot());
+    assertEquals(model.getVersion(), snapshot.getVersion());
+    model.setTempo(1000);
+    assertNotSame(snapshot, model.getSnapshot());
+  }
+
+  @Test
+  public void snapshotUnchangedByLaterEdits() {
+    model.setTempo(1000);
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(2, 5, 1, 62, 100);
+    PieceSnapshot snapshot = model.getSnapshot();
+    String notes = notesToString(model.getNotes());
+    model.removeNote(0, 1, 60);
+    model.editNotePitch(2, 1, 62, 64);
+    model.editNoteDuration(2, 1, 64, 10);
+    model.setTempo(2000);
+    model.create();
+    assertEquals(notes, notesToString(snapshot.getNotes()));
+    assertEquals(1000, snapshot.getTempo());
+    assertEquals(5, snapshot.getLength());
+    assertEquals("[2, 5, 1, 62, 100]", notesToString(snapshot.getNotesAtBeat(3)));
+    int[] count = {0};
+    snapshot.forEachNote((start, end, instrument, pitch, volume) -> count[0]++);
+    assertEquals(2, count[0]);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void snapshotNoPiece() {
+    model.close(0);
+    model.getSnapshot();
+  }
+
+  @Test
+  public void listenerToldOfEveryKindOfEdit() {
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    model.addNote(0, 3, 1, 60, 100);
+    model.editNotePitch(0, 1, 60, 62);
+    model.editNotePosition(0, 1, 62, 4);
+    model.editNoteDuration(4, 1, 62, 2);
+    model.setTempo(1000);
+    model.removeNote(4, 1, 62);
+    assertEquals("added " + (v + 1) + " 0 3 1 60 100\n"
+        + "moved " + (v + 2) + " 0 3 1 60 100 0 62\n"
+        + "moved " + (v + 3) + " 0 3 1 62 100 4 62\n"
+        + "resized " + (v + 4) + " 4 7 1 62 100 5\n"
+        + "tempo " + (v + 5) + " 0 1000\n"
+        + "removed " + (v + 6) + " 4 5 1 62 100\n", listener.getLog());
+  }
+
+  @Test
+  public void listenerToldOfUndoAndRedo() {
+    model.addNote(0, 3, 1, 60, 100);
+    model.editNotePitch(0, 1, 60, 62);
+    model.editNoteDuration(0, 1, 62, 2);
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    model.undo();
+    model.undo();
+    model.undo();
+    model.redo();
+    assertEquals("resized " + (v + 1) + " 0 1 1 62 100 3\n"
+        + "moved " + (v + 2) + " 0 3 1 62 100 0 60\n"
+        + "removed " + (v + 3) + " 0 3 1 60 100\n"
+        + "added " + (v + 4) + " 0 3 1 60 100\n", listener.getLog());
+    assertEquals(v + 4, model.getVersion());
+  }
+
+  @Test
+  public void listenerToldOfPieceChanges() {
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    model.create();
+    model.open(0);
+    model.open(0);
+    model.close(1);
+    model.close(0);
+    assertEquals("piece " + (v + 1) + "\n"
+        + "piece " + (v + 2) + "\n"
+        + "piece " + (v + 3) + "\n", listener.getLog());
+  }
+
+  @Test
+  public void listenerNotToldOfFailedOrEmptyEdits() {
+    model.addNote(0, 3, 1, 60, 100);
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    try {
+      model.removeNote(1, 1, 60);
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    model.editNotePitch(0, 1, 60, 60);
+    model.editNotePosition(0, 1, 60, 0);
+    model.editNoteDuration(0, 1, 60, 4);
+    model.setTempo(0);
+    model.undo();
+    model.undo();
+    model.redo();
+    model.redo();
+    assertEquals("removed " + (v + 1) + " 0 3 1 60 100\n"
+        + "added " + (v + 2) + " 0 3 1 60 100\n", listener.getLog());
+  }
+
+  @Test
+  public void removedListenerNotTold() {
+    RecordingListener listener = new RecordingListener();
+    RecordingListener other = new RecordingListener();
+    model.addListener(listener);
+    model.addListener(other);
+    model.removeListener(listener);
+    model.setTempo(1000);
+    assertEquals("", listener.getLog());
+    assertEquals("tempo " + model.getVersion() + " 0 1000\n", other.getLog());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void addNullListener() {
+    model.addListener(null);
+  }
+
+  // Tests for the applyBatch method
+  @Test
+  public void batchAppliesEveryEditWithOneEvent() {
+    model.addNote(0, 3, 1, 60, 100);
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    model.applyBatch(edit -> {
+      edit.addNote(2, 2, 5, 61, 30);
+      edit.editNotePitch(0, 1, 60, 64);
+      edit.editNotePosition(0, 1, 64, 4);
+      edit.editNoteDuration(4, 1, 64, 2);
+      edit.removeNote(2, 5, 61);
+      edit.setTempo(150000);
+    });
+    assertEquals("[4, 5, 1, 64, 100]", notesToString(model.getNotes()));
+    assertEquals(150000, model.getTempo());
+    assertEquals("piece " + model.getVersion() + "\n", listener.getLog());
+  }
+
+  @Test
+  public void failedBatchRolledBack() {
+    model.addNote(0, 3, 1, 60, 100);
+    model.addNote(4, 6, 1, 62, 100);
+    model.undo();
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    try {
+      model.applyBatch(edit -> {
+        edit.removeNote(0, 1, 60);
+        edit.addNote(1, 2, 1, 61, 50);
+        edit.setTempo(1000);
+        edit.editNotePosition(5, 1, 61, 1);
+      });
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertEquals("[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+    assertEquals(0, model.getTempo());
+    assertEquals("", listener.getLog());
+    assertEquals(true, model.redo());
+    assertEquals(true, model.undo());
+    assertEquals(true, model.undo());
+    assertEquals("", notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void failedBatchMovesVersionOn() {
+    model.addNote(0, 3, 1, 60, 100);
+    long v = model.getVersion();
+    PieceSnapshot[] during = new PieceSnapshot[1];
+    try {
+      model.applyBatch(edit -> {
+        edit.removeNote(0, 1, 60);
+        during[0] = model.getSnapshot();
+        throw new IllegalStateException("Stopped.");
+      });
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertEquals(0, during[0].getNotes().size());
+    assertEquals(true, during[0].getVersion() > v);
+    assertEquals(true, model.getVersion() > during[0].getVersion());
+    assertEquals(1, model.getSnapshot().getNotes().size());
+  }
+
+  @Test
+  public void batchUndoneAndRedoneInOneStep() {
+    model.addNote(0, 3, 1, 60, 100);
+    model.applyBatch(edit -> {
+      edit.addNote(1, 2, 1, 61, 50);
+      edit.addNote(2, 3, 1, 62, 50);
+      edit.editNotePosition(0, 1, 60, 1);
+    });
+    String batched = notesToString(model.getNotes());
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    assertEquals(true, model.undo());
+    assertEquals("[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+    assertEquals(true, model.redo());
+    assertEquals(batched, notesToString(model.getNotes()));
+    assertEquals("piece " + (v + 1) + "\n"
+        + "piece " + (v + 2) + "\n", listener.getLog());
+  }
+
+  @Test
+  public void editsNotMergedIntoBatch() {
+    model.addNote(0, 3, 1, 60, 100);
+    model.editNotePosition(0, 1, 60, 1);
+    model.applyBatch(edit -> edit.editNotePosition(1, 1, 60, 2));
+    model.editNotePosition(2, 1, 60, 3);
+    model.undo();
+    assertEquals("[2, 5, 1, 60, 100]", notesToString(model.getNotes()));
+    model.undo();
+    assertEquals("[1, 4, 1, 60, 100]", notesToString(model.getNotes()));
+  }
+
+  @Test
+  public void batchLargerThanJournalCannotBeUndone() {
+    model.addNote(0, 3, 1, 60, 100);
+    model.applyBatch(edit -> {
+      for (int i = 1; i <= 1001; i++) {
+        edit.addNote(i, i, 1, 62, 100);
+      }
+    });
+    assertEquals(false, model.undo());
+    assertEquals(1002, model.getNotes().size());
+  }
+
+  @Test
+  public void emptyBatchNotTold() {
+    RecordingListener listener = new RecordingListener();
+    model.addListener(listener);
+    long v = model.getVersion();
+    model.applyBatch(edit -> edit.setTempo(0));
+    assertEquals(v, model.getVersion());
+    assertEquals("", listener.getLog());
+    assertEquals(false, model.undo());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void editorUsedAfterBatch() {
+    BatchEditor[] editor = new BatchEditor[1];
+    model.applyBatch(edit -> editor[0] = edit);
+    editor[0].addNote(0, 3, 1, 60, 100);
+  }
+
+  @Test
+  public void undoInBatchRollsBack() {
+    model.addNote(0, 3, 1, 60, 100);
+    try {
+      model.applyBatch(edit -> {
+        edit.addNote(1, 2, 1, 61, 50);
+        model.undo();
+      });
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertEquals("[0, 3, 1, 60, 100]", notesToString(model.getNotes()));
+    model.applyBatch(edit -> edit.setTempo(5));
+    assertEquals(5, model.getTempo());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void applyNullBatch() {
+    model.applyBatch(null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void applyBatchNoPiece() {
+    model.close(0);
+    model.applyBatch(edit -> edit.setTempo(5));
+  }
+
+  /**
+   * Orders note data by pitch, then by starting position, then by the rest of its data, so that
+   * lists of the same notes can be compared whatever order notes with the same pitch and start
+   * were found in.
+   *
+   * @param a   the first note data
+   * @param b   the second note data
+   * @return a negative number, zero, or a positive number if the first note is ordered before,
+   *         with, or after the second
+   */
+  private static int compareNotes(Integer[] a, Integer[] b) {
+    int[] order = {MidiConversion.NOTE_PITCH, MidiConversion.NOTE_START,
+        MidiConversion.NOTE_END, MidiConversion.NOTE_INSTRUMENT, MidiConversion.NOTE_VOLUME};
+    for (int field : order) {
+      int result = Integer.compare(a[field], b[field]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the given note data as a string, one note per line.
+   *
+   * @param notes   the note data
+   * @return the note data as a string
+   */
+  private static String notesToString(List<Integer[]> notes) {
+    StringBuilder builder = new StringBuilder();
+    for (Integer[] note : notes) {
+      if (builder.length() > 0) {
+        builder.append("\n");
+      }
+      builder.append(Arrays.toString(note));
+    }
+    return builder.toString();
+  }
 }
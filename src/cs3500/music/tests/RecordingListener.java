@@ -0,0 +1,75 @@
+package cs3500.music.tests;
+
+import cs3500.music.model.MusicEditorListener;
+
+/**
+ * Represents a listener for tests of the models, which records every event it is given as a line
+ * of its log, holding the name of the event, its version, and the rest of its data in order.
+ */
+public class RecordingListener implements MusicEditorListener {
+  private final StringBuilder log;
+
+  /**
+   * Constructs a new {@code RecordingListener} with an empty log.
+   */
+  public RecordingListener() {
+    this.log = new StringBuilder();
+  }
+
+  /**
+   * Gets the log of every event given to this listener.
+   *
+   * @return the log of events, one per line
+   */
+  public String getLog() {
+    return this.log.toString();
+  }
+
+  @Override
+  public void noteAdded(long version, int start, int end, int instrument, int pitch, int volume) {
+    this.record("added", version, start, end, instrument, pitch, volume);
+  }
+
+  @Override
+  public void noteRemoved(long version, int start, int end, int instrument, int pitch,
+                          int volume) {
+    this.record("removed", version, start, end, instrument, pitch, volume);
+  }
+
+  @Override
+  public void noteMoved(long version, int start, int end, int instrument, int pitch, int volume,
+                        int newStart, int newPitch) {
+    this.record("moved", version, start, end, instrument, pitch, volume, newStart, newPitch);
+  }
+
+  @Override
+  public void noteResized(long version, int start, int end, int instrument, int pitch,
+                          int volume, int newEnd) {
+    this.record("resized", version, start, end, instrument, pitch, volume, newEnd);
+  }
+
+  @Override
+  public void tempoChanged(long version, int tempo, int newTempo) {
+    this.record("tempo", version, tempo, newTempo);
+  }
+
+  @Override
+  public void pieceChanged(long version) {
+    this.record("piece", version);
+  }
+
+  /**
+   * Adds a line for an event to the log.
+   *
+   * @param name      the name of the event
+   * @param version   the version of the event
+   * @param data      the rest of the data of the event
+   */
+  private void record(String name, long version, int... data) {
+    this.log.append(name).append(" ").append(version);
+    for (int value : data) {
+      this.log.append(" ").append(value);
+    }
+    this.log.append("\n");
+  }
+}
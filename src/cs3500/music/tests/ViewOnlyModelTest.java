@@ -82,6 +82,13 @@ public class ViewOnlyModelTest {
     assertEquals(1000, vom.getTempo());
   }
 
+  @Test
+  public void applyBatchTest() {
+    init();
+    vom.applyBatch(edit -> edit.setTempo(2));
+    assertEquals(1000, vom.getTempo());
+  }
+
   @Test
   public void getTempoTest() {
     init();
@@ -94,6 +101,14 @@ public class ViewOnlyModelTest {
     assertEquals(vom.getNotes().size(), 2);
   }
 
+  @Test
+  public void forEachNoteTest() {
+    init();
+    int[] count = new int[1];
+    vom.forEachNote((start, end, instrument, pitch, volume) -> count[0]++);
+    assertEquals(count[0], model.getNotes().size());
+  }
+
   @Test
   public void getNotesAtBeatTest() {
     init();
@@ -106,4 +121,15 @@ public class ViewOnlyModelTest {
     assertEquals(vom.getLength(), model.getLength());
   }
 
+  @Test
+  public void addListenerTest() {
+    init();
+    RecordingListener listener = new RecordingListener();
+    vom.addListener(listener);
+    model.setTempo(2000);
+    vom.removeListener(listener);
+    model.setTempo(3000);
+    assertEquals("tempo " + (model.getVersion() - 1) + " 1000 2000\n", listener.getLog());
+  }
+
 }
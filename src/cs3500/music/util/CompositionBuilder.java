@@ -34,4 +34,34 @@ public interface CompositionBuilder<T> {
    * @return This builder
    */
   CompositionBuilder<T> addNote(int start, int end, int instrument, int pitch, int volume);
+
+  /**
+   * Adds many new notes to the piece at once. The i-th note is described by the i-th element of
+   * each array, as in {@link #addNote(int, int, int, int, int)}. By default, adds each note in
+   * turn; builders that can add many notes more cheaply than one at a time should override this.
+   *
+   * @param starts The start time of each note, in beats
+   * @param ends The end time of each note, in beats
+   * @param instruments The instrument number of each note (to be interpreted by MIDI)
+   * @param pitches The pitch of each note (in the range [0, 127])
+   * @param volumes The volume of each note (in the range [0, 127])
+   * @return This builder
+   * @throws IllegalArgumentException if any of the arrays is uninitialized, or if the arrays are
+   *                                  not all the same length
+   */
+  default CompositionBuilder<T> addNotes(int[] starts, int[] ends, int[] instruments,
+                                         int[] pitches, int[] volumes)
+      throws IllegalArgumentException {
+    if (starts == null || ends == null || instruments == null || pitches == null
+        || volumes == null) {
+      throw new IllegalArgumentException("Given note arrays are uninitialized.");
+    } else if (ends.length != starts.length || instruments.length != starts.length
+        || pitches.length != starts.length || volumes.length != starts.length) {
+      throw new IllegalArgumentException("Given note arrays must all be the same length.");
+    }
+    for (int i = 0; i < starts.length; i++) {
+      this.addNote(starts[i], ends[i], instruments[i], pitches[i], volumes[i]);
+    }
+    return this;
+  }
 }
@@ -0,0 +1,223 @@
+package cs3500.music.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents a log of events with a fixed capacity, keeping only the most recent events once
+ * it is full. Events can be added from any thread without locking: each one claims the next
+ * sequence number and is stored in the slot for that number, replacing the event from
+ * {@code capacity} events before it. Events can also be drained to a sink, such as a file, so
+ * that they are kept elsewhere before being replaced. Drains are made one at a time.
+ */
+public final class EventLog {
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private final AtomicReferenceArray<Entry> entries;
+  private final AtomicLong next;
+  private long drained;
+
+  /**
+   * Represents a single event in a log: where it came from, what happened, when it happened, and
+   * its sequence number in the log.
+   */
+  public static final class Entry {
+    private final long sequence;
+    private final long time;
+    private final String source;
+    private final String message;
+
+    /**
+     * Constructs a new {@code Entry}.
+     *
+     * @param sequence   the sequence number of the event in its log
+     * @param time       the time of the event, in milliseconds since the epoch
+     * @param source     the name of what logged the event
+     * @param message    the message of the event
+     */
+    private Entry(long sequence, long time, String source, String message) {
+      this.sequence = sequence;
+      this.time = time;
+      this.source = source;
+      this.message = message;
+    }
+
+    /**
+     * Gets the sequence number of this event in its log, starting from 0.
+     *
+     * @return the sequence number of this event
+     */
+    public long getSequence() {
+      return this.sequence;
+    }
+
+    /**
+     * Gets the time of this event.
+     *
+     * @return the time of this event, in milliseconds since the epoch
+     */
+    public long getTime() {
+      return this.time;
+    }
+
+    /**
+     * Gets the name of what logged this event.
+     *
+     * @return the source of this event
+     */
+    public String getSource() {
+      return this.source;
+    }
+
+    /**
+     * Gets the message of this event.
+     *
+     * @return the message of this event
+     */
+    public String getMessage() {
+      return this.message;
+    }
+
+    @Override
+    public String toString() {
+      return this.message;
+    }
+  }
+
+  /**
+   * Constructs a new {@code EventLog} keeping the {@code DEFAULT_CAPACITY} most recent events.
+   */
+  public EventLog() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs a new {@code EventLog} keeping the given number of most recent events.
+   *
+   * @param capacity   the number of events kept
+   * @throws IllegalArgumentException if the given capacity is negative or zero
+   */
+  public EventLog(int capacity) throws IllegalArgumentException {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive and non-zero.");
+    }
+    this.entries = new AtomicReferenceArray<>(capacity);
+    this.next = new AtomicLong(0);
+    this.drained = 0;
+  }
+
+  /**
+   * Adds an event to this log, replacing the oldest event if the log is full.
+   *
+   * @param source    the name of what logged the event
+   * @param message   the message of the event
+   * @throws IllegalArgumentException if the given source or message is uninitialized
+   */
+  public void add(String source, String message) throws IllegalArgumentException {
+    if (source == null || message == null) {
+      throw new IllegalArgumentException("Cannot pass uninitialized source or message.");
+    }
+    long sequence = this.next.getAndIncrement();
+    this.entries.set(this.slot(sequence),
+        new Entry(sequence, System.currentTimeMillis(), source, message));
+  }
+
+  /**
+   * Gets the events kept in this log, from oldest to newest.
+   *
+   * @return the events kept in this log
+   */
+  public List<Entry> getEntries() {
+    long end = this.next.get();
+    return this.getEntries(Math.max(0, end - this.entries.length()), end);
+  }
+
+  /**
+   * Gets the number of events that have been replaced by newer ones since this log was created.
+   *
+   * @return the number of events no longer kept
+   */
+  public long getDropped() {
+    return Math.max(0, this.next.get() - this.entries.length());
+  }
+
+  /**
+   * Writes every event kept in this log that has not already been drained to the given sink,
+   * one message per line, from oldest to newest. Events are still kept in this log after being
+   * drained. The drain stops at the first event whose number has been claimed but which has not
+   * yet been stored, so that it is written by a later drain rather than skipped.
+   *
+   * @param sink   where the events are written
+   * @return the number of events written
+   * @throws IOException if writing to the sink fails
+   * @throws IllegalArgumentException if the given sink is uninitialized
+   */
+  public synchronized int drainTo(Appendable sink) throws IOException,
+      IllegalArgumentException {
+    if (sink == null) {
+      throw new IllegalArgumentException("Cannot pass uninitialized sink.");
+    }
+    long end = this.next.get();
+    int written = 0;
+    for (long sequence = Math.max(this.drained, end - this.entries.length()); sequence < end;
+         sequence++) {
+      Entry entry = this.entries.get(this.slot(sequence));
+      if (entry == null || entry.getSequence() < sequence) {
+        break;
+      }
+      if (entry.getSequence() == sequence) {
+        sink.append(entry.getMessage()).append('\n');
+        written++;
+      }
+      this.drained = sequence + 1;
+    }
+    return written;
+  }
+
+  /**
+   * Returns the messages of the events kept in this log, one per line, from oldest to newest.
+   *
+   * @return the messages of this log
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (Entry entry : this.getEntries()) {
+      builder.append(entry.getMessage()).append('\n');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Gets the events with sequence numbers in the given range that are still kept in this log.
+   * An event that has been replaced, or whose number has been claimed but not yet stored, is
+   * left out.
+   *
+   * @param start   the first sequence number, inclusive
+   * @param end     the last sequence number, exclusive
+   * @return the events kept in the range, from oldest to newest
+   */
+  private List<Entry> getEntries(long start, long end) {
+    List<Entry> result = new ArrayList<>();
+    for (long sequence = start; sequence < end; sequence++) {
+      Entry entry = this.entries.get(this.slot(sequence));
+      if (entry != null && entry.getSequence() == sequence) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets the slot of the event with the given sequence number.
+   *
+   * @param sequence   the sequence number of the event
+   * @return the index of the slot for the event
+   */
+  private int slot(long sequence) {
+    return (int) (sequence % this.entries.length());
+  }
+}
@@ -1,5 +1,8 @@
 package cs3500.music.util;
 
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
 
@@ -21,40 +24,258 @@ public class MusicReader {
    *      the pitch, and the volume</li>
    *   </ul>
    * </p>
+   * <p>
+   *   The source is read in blocks and split into tokens by hand rather than through a
+   *   {@link Scanner}, so no regular expressions are run and no Strings are created for
+   *   well-formed lines. Tokens are separated by whitespace exactly as a {@code Scanner}
+   *   separates them, and malformed lines produce the same errors.
+   * </p>
    * @param readable The source of data for the music composition
    * @param piece A builder for helping to construct a new composition
    * @param <T> The main model interface type describing music compositions
    * @return a new composition created from the builder using data from the readable
    */
   public static <T> T parseFile(Readable readable, CompositionBuilder<T> piece) {
-    Scanner scanner = new Scanner(readable);
-    while (scanner.hasNext()) {
-      String lineType = scanner.next();
-      switch (lineType) {
-        case "tempo":
-          try {
-            piece.setTempo(scanner.nextInt());
-          } catch (NoSuchElementException e) {
-            throw new IllegalArgumentException("Malformed tempo line: " + scanner.nextLine());
+    Tokenizer tokens = new Tokenizer(readable);
+    while (tokens.hasNext()) {
+      if (tokens.nextIs("tempo")) {
+        try {
+          piece.setTempo(tokens.nextInt());
+        } catch (NoSuchElementException e) {
+          throw new IllegalArgumentException("Malformed tempo line: " + tokens.nextLine());
+        }
+      } else if (tokens.nextIs("note")) {
+        try {
+          int startBeat = tokens.nextInt();
+          int endBeat = tokens.nextInt();
+          int instrument = tokens.nextInt();
+          int pitch = tokens.nextInt();
+          int volume = tokens.nextInt();
+          piece.addNote(startBeat, endBeat, instrument, pitch, volume);
+        } catch (NoSuchElementException e) {
+          throw new IllegalArgumentException("Malformed note line: " + tokens.nextLine());
+        }
+      } else {
+        throw new IllegalArgumentException("Bad line type: " + tokens.next());
+      }
+    }
+
+    return piece.build();
+  }
+
+  /**
+   * Splits a source of characters into whitespace-separated tokens, reading it in blocks into a
+   * single reused buffer. Mirrors the behavior of the {@link Scanner} methods it replaces:
+   * a token that is not an integer is left unread by {@link #nextInt()}, and
+   * {@link #nextLine()} returns the rest of the current line.
+   */
+  private static final class Tokenizer {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FAST_DIGITS = 9;
+
+    private final Readable source;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private boolean exhausted;
+
+    /**
+     * Constructs a new {@code Tokenizer} over the given source.
+     *
+     * @param source   the source of characters to be split
+     */
+    private Tokenizer(Readable source) {
+      this.source = source;
+      this.buffer = new char[BUFFER_SIZE];
+      this.position = 0;
+      this.limit = 0;
+      this.exhausted = false;
+    }
+
+    /**
+     * Skips any whitespace and checks if there is another token.
+     *
+     * @return true if there is another token, false otherwise
+     */
+    private boolean hasNext() {
+      while (true) {
+        while (this.position < this.limit && Character.isWhitespace(this.buffer[this.position])) {
+          this.position++;
+        }
+        if (this.position < this.limit) {
+          return true;
+        } else if (!this.fill()) {
+          return false;
+        }
+      }
+    }
+
+    /**
+     * Skips any whitespace and finds the end of the next token, reading more of the source as
+     * needed so that the whole token is in the buffer starting at the current position.
+     *
+     * @return the index in the buffer just past the end of the next token
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    private int tokenEnd() throws NoSuchElementException {
+      if (!this.hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int end = this.position;
+      while (true) {
+        while (end < this.limit && !Character.isWhitespace(this.buffer[end])) {
+          end++;
+        }
+        if (end < this.limit) {
+          return end;
+        }
+        int offset = end - this.position;
+        if (!this.fill()) {
+          return this.limit;
+        }
+        end = this.position + offset;
+      }
+    }
+
+    /**
+     * Checks if the next token is the given word, and if so reads past it.
+     *
+     * @param word   the word to be checked
+     * @return true if the next token was the given word, false otherwise
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    private boolean nextIs(String word) throws NoSuchElementException {
+      int end = this.tokenEnd();
+      if (end - this.position != word.length()) {
+        return false;
+      }
+      for (int i = 0; i < word.length(); i++) {
+        if (this.buffer[this.position + i] != word.charAt(i)) {
+          return false;
+        }
+      }
+      this.position = end;
+      return true;
+    }
+
+    /**
+     * Reads the next token.
+     *
+     * @return the next token
+     * @throws NoSuchElementException if there are no more tokens
+     */
+    private String next() throws NoSuchElementException {
+      int end = this.tokenEnd();
+      String token = new String(this.buffer, this.position, end - this.position);
+      this.position = end;
+      return token;
+    }
+
+    /**
+     * Reads the next token as an integer. Plain decimal tokens are parsed directly; any other
+     * token is checked by a {@link Scanner}, so that the integers accepted are the same.
+     *
+     * @return the next token as an integer
+     * @throws NoSuchElementException if there are no more tokens, or if the next token is not an
+     *                                integer, in which case it is left unread
+     */
+    private int nextInt() throws NoSuchElementException {
+      int end = this.tokenEnd();
+      int i = this.position;
+      boolean negative = false;
+      if (this.buffer[i] == '-' || this.buffer[i] == '+') {
+        negative = this.buffer[i] == '-';
+        i++;
+      }
+      if (i < end && end - i <= MAX_FAST_DIGITS) {
+        int value = 0;
+        while (i < end && this.buffer[i] >= '0' && this.buffer[i] <= '9') {
+          value = (value * 10) + (this.buffer[i] - '0');
+          i++;
+        }
+        if (i == end) {
+          this.position = end;
+          return negative ? -value : value;
+        }
+      }
+      Scanner token = new Scanner(new String(this.buffer, this.position, end - this.position));
+      if (!token.hasNextInt()) {
+        throw new NoSuchElementException();
+      }
+      this.position = end;
+      return token.nextInt();
+    }
+
+    /**
+     * Reads the rest of the current line, not including the line separator.
+     *
+     * @return the rest of the current line
+     * @throws NoSuchElementException if there is nothing left to read
+     */
+    private String nextLine() throws NoSuchElementException {
+      StringBuilder line = new StringBuilder();
+      while (true) {
+        while (this.position < this.limit) {
+          char c = this.buffer[this.position];
+          if (c == '\n' || c == '\u2028' || c == '\u2029' || c == '\u0085') {
+            this.position++;
+            return line.toString();
+          } else if (c == '\r') {
+            this.position++;
+            if (this.position == this.limit) {
+              this.fill();
+            }
+            if (this.position < this.limit && this.buffer[this.position] == '\n') {
+              this.position++;
+            }
+            return line.toString();
           }
-          break;
-        case "note":
-          try {
-            int startBeat = scanner.nextInt();
-            int endBeat = scanner.nextInt();
-            int instrument = scanner.nextInt();
-            int pitch = scanner.nextInt();
-            int volume = scanner.nextInt();
-            piece.addNote(startBeat, endBeat, instrument, pitch, volume);
-          } catch (NoSuchElementException e) {
-            throw new IllegalArgumentException("Malformed note line: " + scanner.nextLine());
+          line.append(c);
+          this.position++;
+        }
+        if (!this.fill()) {
+          if (line.length() == 0) {
+            throw new NoSuchElementException("No line found");
           }
-          break;
-        default:
-          throw new IllegalArgumentException("Bad line type: " + lineType);
+          return line.toString();
+        }
       }
     }
 
-    return piece.build();
+    /**
+     * Reads more of the source into the buffer, keeping everything from the current position
+     * onward and growing the buffer if it is already full. As with a {@code Scanner}, a failure
+     * to read is treated as the end of the source.
+     *
+     * @return true if more characters were read, false if the source is exhausted
+     */
+    private boolean fill() {
+      if (this.exhausted) {
+        return false;
+      }
+      if (this.position > 0) {
+        System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+        this.limit -= this.position;
+        this.position = 0;
+      }
+      if (this.limit == this.buffer.length) {
+        this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+      }
+      int read;
+      try {
+        do {
+          read = this.source.read(CharBuffer.wrap(this.buffer, this.limit,
+              this.buffer.length - this.limit));
+        } while (read == 0);
+      } catch (IOException e) {
+        read = -1;
+      }
+      if (read < 0) {
+        this.exhausted = true;
+        return false;
+      }
+      this.limit += read;
+      return true;
+    }
   }
 }
@@ -20,8 +20,7 @@ public class CompositeView implements MusicEditorView {
   private final MidiView midi;
   private final GuiView gui;
   private Map<Integer, Runnable> keyEventRunnables;
-  private final Runnable guiMatchMidi;
-  private StringBuilder log;
+  private final PlaybackClock clock;
 
   /**
    * Constructs a new {@code CompositeView} using the given model to display notes in the gui
@@ -35,48 +34,22 @@ public class CompositeView implements MusicEditorView {
       IllegalArgumentException {
     this.midi = new MidiView.Builder(model).build();
     this.gui = new GuiView(model);
+    this.clock = new PlaybackClock(this.midi, this.gui::jumpToBeat);
     this.setKeyEvents();
     this.gui.setFocusable(true);
     this.gui.requestFocus();
-    this.log = new StringBuilder();
-    this.guiMatchMidi = () -> {
-      while (!midi.isPlaying()) {
-        try {
-          // has to update thread
-          Thread.sleep(1);
-        } catch (InterruptedException e) {
-          this.log.append("Encountered InterruptedException: " + e.getMessage() + "\n");
-        }
-      }
-      int currPosition = midi.getTickPosition();
-      while (midi.getTickPosition() <= model.getLength()) {
-        if (!midi.isPlaying()) {
-          break;
-        }
-        if (currPosition != midi.getTickPosition()) {
-          currPosition = midi.getTickPosition();
-          gui.updateCursor(true);
-        }
-      }
-      gui.updateCursor(true);
-    };
   }
 
   @Override
   public void initialize() {
     this.gui.initialize();
-    new Thread(this.guiMatchMidi).start();
-    try {
-      Thread.sleep(3000);
-    } catch (InterruptedException e) {
-      this.log.append("Encountered InterruptedException: " + e.getMessage() + "\n");
-    }
     this.midi.initialize();
+    this.clock.start();
   }
 
   @Override
   public String getLog() {
-    return this.log.append(this.gui.getLog()).append(this.midi.getLog()).toString();
+    return this.gui.getLog() + this.midi.getLog();
   }
 
   @Override
@@ -84,6 +57,11 @@ public class CompositeView implements MusicEditorView {
     return this.keyEventRunnables;
   }
 
+  @Override
+  public boolean isPlaying() {
+    return this.midi.isPlaying();
+  }
+
   @Override
   public void addListeners(MusicEditorController controller, KeyListener keyListener)
       throws IllegalArgumentException {
@@ -97,7 +75,6 @@ public class CompositeView implements MusicEditorView {
       public void mousePressed(MouseEvent e) {
         if (!midi.isPlaying()) {
           guiMouse.mousePressed(e);
-          midi.update();
         }
       }
     };
@@ -130,8 +107,8 @@ public class CompositeView implements MusicEditorView {
     this.keyEventRunnables.put(KeyEvent.VK_SPACE, () -> {
       if (this.midi.isPlaying()) {
         this.midi.pause();
+        this.clock.tick();
       } else {
-        new Thread(guiMatchMidi).start();
         int currPosition = gui.getCursorPosition();
         midi.setTickPosition(currPosition);
         if (midi.isOver()) {
@@ -139,6 +116,7 @@ public class CompositeView implements MusicEditorView {
         } else {
           midi.play();
         }
+        this.clock.start();
       }
     });
   }
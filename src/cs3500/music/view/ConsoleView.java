@@ -2,15 +2,16 @@ package cs3500.music.view;
 
 import cs3500.music.controller.MusicEditorController;
 import cs3500.music.model.MusicEditorOperations;
-import cs3500.music.model.Pitch;
-import cs3500.music.model.Utils;
+import cs3500.music.model.PieceSnapshot;
+import cs3500.music.util.EventLog;
 import cs3500.music.util.MidiConversion;
 
 import java.awt.event.KeyListener;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -19,9 +20,12 @@ import java.util.TreeMap;
  * currently opened piece to the console.
  */
 public class ConsoleView implements MusicEditorView {
+  private static final int CELL_WIDTH = 5;
+
   private final MusicEditorOperations model;
   private final Appendable app;
-  private final StringBuilder log;
+  private final EventLog log;
+  private long version;
 
   /**
    * Represents the builder class for a ConsoleView. Defaults the appendable of the ConsoleView to
@@ -82,203 +86,115 @@ public class ConsoleView implements MusicEditorView {
   private ConsoleView(Builder builder) {
     this.model = builder.model;
     this.app = builder.app;
-    this.log = new StringBuilder();
+    this.log = new EventLog();
+    this.version = -1;
   }
 
   @Override
   public void initialize() {
+    PieceSnapshot snapshot = this.model.getSnapshot();
+    this.version = snapshot.getVersion();
     try {
-      if (this.model.getLength() > 0) {
-        this.app.append(this.stringBuilder());
+      if (snapshot.getLength() > 0) {
+        this.render(snapshot);
       }
     } catch (IOException e) {
-      this.log.append("Encountered fatal IOException: " + e.getMessage() + "\n");
+      this.log.add("ConsoleView", "Encountered fatal IOException: " + e.getMessage());
     }
   }
 
   /**
-   * Helper to the initialize method. Creates a String representation of this piece, but only
-   * with the octaves with notes included. If pitches on either end of the table do not have
-   * notes, those pitches should not be included either.
+   * Helper to the initialize method. Prints a table of the given snapshot of the piece, but only
+   * with the pitches from the lowest to the highest one with notes, with a row for every beat
+   * and notes being represented as {@code X}'s for onsets and {@code |}'s for sustains.
    *
-   * @return a String representation of this piece
-   */
-  private String stringBuilder() {
-    List<List<String>> arr = this.getPieceTable();
-    int octaveLength = arr.get(0).size();
-    int lineNumPadding = octaveLength - 2;
-    if (lineNumPadding < 0) {
-      lineNumPadding = 0;
-    }
-    int lineNumPaddingString = Integer.toString(lineNumPadding).length();
-    StringBuilder builder = new StringBuilder();
-    for (int i = 0; i < octaveLength; i++) {
-      if (i == 0) {
-        builder.append(Utils.padString("", lineNumPaddingString, Utils.Alignment.RIGHT));
-      } else {
-        builder.append(Utils.padString(Integer.toString(i - 1), lineNumPaddingString,
-            Utils.Alignment.RIGHT));
-      }
-      builder.append("  ");
-      for (List<String> pitchCol : arr) {
-        builder.append(pitchCol.get(i));
-      }
-      builder.append("\n");
-    }
-    return builder.toString();
-  }
-
-  /**
-   * Helper to the stringBuilder method. Forms a 2-dimensional list of Strings that represents the
-   * piece, with notes being represented as {@code X}'s for onsets and {@code I}'s for sustains.
-   *
-   * @return a 2-dimensional list of Strings representing this piece
-   */
-  private List<List<String>> getPieceTable() {
-    List<List<List<String>>> builder = new ArrayList<>();
-    int columnWidth = 5;
-    String empty = Utils.padString("", columnWidth, Utils.Alignment.CENTER);
-    int maxLength = this.model.getLength();
-    Map<Integer, Map<Pitch, List<Integer[]>>> noteMap = sortNotesToMap();
-    for (Integer octave : noteMap.keySet()) {
-      Map<Pitch, List<Integer[]>> pitchMap = noteMap.get(octave);
-      builder.add(getOctaveTable(octave, pitchMap, columnWidth));
-    }
-    List<List<String>> piece = new ArrayList<>();
-    for (List<List<String>> octaveList : builder) {
-      for (List<String> pitchCol : octaveList) {
-        while (pitchCol.size() - 1 <= maxLength) {
-          pitchCol.add(empty);
-        }
-        piece.add(pitchCol);
-      }
-    }
-    return this.removeEmptyEndColumns(piece, empty, true);
-  }
-
-  /**
-   * Gets all notes from the model and sorts them into a {@code Map}. The outermost layer of keys
-   * are the octave numbers. The next layer of keys are all pitches belonging to each octave.
-   * Finally, the values relating to each pitch are lists of note data for that respective pitch
-   * and octave.
-   *
-   * @return a map of sorted note data
-   */
-  private Map<Integer, Map<Pitch, List<Integer[]>>> sortNotesToMap() {
-    List<Integer[]> notes = this.model.getNotes();
-    Map<Integer, Map<Pitch, List<Integer[]>>> octaveMap = new TreeMap<>();
-    for (int i = 1; i <= 10; i++) {
-      Map<Pitch, List<Integer[]>> pitchMap = new TreeMap<>();
-      for (Pitch p : Pitch.values()) {
-        pitchMap.put(p, new ArrayList<>());
-      }
-      octaveMap.put(i, pitchMap);
-    }
-    for (Integer[] note : notes) {
-      int octave = MidiConversion.getOctave(note[MidiConversion.NOTE_PITCH]);
-      Pitch pitch = MidiConversion.getPitch(note[MidiConversion.NOTE_PITCH]);
-      if (!octaveMap.containsKey(octave)) {
-        octaveMap.put(octave, new TreeMap<>());
-      }
-      Map<Pitch, List<Integer[]>> pitchMap = octaveMap.get(octave);
-      if (!pitchMap.containsKey(pitch)) {
-        pitchMap.put(pitch, new ArrayList<>());
-      }
-      pitchMap.get(pitch).add(note);
-    }
-    return octaveMap;
-  }
-
-  /**
-   * Creates a 2-dimensional list of Strings, or table of Strings, representing an octave. The
-   * inner lists (the columns) represent the different pitches, and the notes in those pitches.
+   * <p>Each row is written into the same line buffer and appended on its own, so only the notes
+   * of the piece are held while printing, never the whole table. The notes of each pitch are
+   * visited in order of their starts, so a single cursor per pitch is enough to know what is
+   * being played at every beat.</p>
    *
-   * @param octaveNum   the number of this octane
-   * @param padding     the amount of spaced padding for each String in the list
-   * @return a 2-dimensional list of Strings representing this octane
+   * @param snapshot   the snapshot of the piece
+   * @throws IOException if appending to the appendable fails
    */
-  private List<List<String>> getOctaveTable(int octaveNum, Map<Pitch, List<Integer[]>> pitchMap,
-                                            int padding) {
-    String empty = Utils.padString("", padding, Utils.Alignment.CENTER);
-    List<List<String>> builder = new ArrayList<>();
-    int maxLength = this.model.getLength();
-    for (Pitch p : Pitch.values()) {
-      builder.add(getPitchColumn(p, pitchMap.get(p), octaveNum, padding, maxLength));
-    }
-    for (List<String> pitchCol : builder) {
-      while (pitchCol.size() < maxLength) {
-        pitchCol.add(empty);
+  private void render(PieceSnapshot snapshot) throws IOException {
+    int length = snapshot.getLength();
+    int[] range = {Integer.MAX_VALUE, Integer.MIN_VALUE, 0};
+    snapshot.forEachNote((start, end, instrument, pitch, volume) -> {
+      range[0] = Math.min(range[0], pitch);
+      range[1] = Math.max(range[1], pitch);
+      range[2]++;
+    });
+    int lowest = range[0];
+    int columns = range[1] - lowest + 1;
+    int[] starts = new int[range[2]];
+    int[] ends = new int[range[2]];
+    int[] stops = new int[columns];
+    int[] count = {0};
+    snapshot.forEachNote((start, end, instrument, pitch, volume) -> {
+      starts[count[0]] = start;
+      ends[count[0]] = end;
+      count[0]++;
+      stops[pitch - lowest] = count[0];
+    });
+    int[] cursors = new int[columns];
+    for (int c = 1; c < columns; c++) {
+      stops[c] = Math.max(stops[c], stops[c - 1]);
+      cursors[c] = stops[c - 1];
+    }
+
+    int numberWidth = Integer.toString(length).length();
+    int firstCell = numberWidth + 2;
+    char[] line = new char[firstCell + (columns * CELL_WIDTH) + 1];
+    Arrays.fill(line, ' ');
+    line[line.length - 1] = '\n';
+    for (int c = 0; c < columns; c++) {
+      String name = MidiConversion.getPitchName(lowest + c);
+      int padding = CELL_WIDTH - name.length();
+      name.getChars(0, name.length(), line, firstCell + (c * CELL_WIDTH) + ((padding + 1) / 2));
+    }
+    this.appendLine(line);
+    Arrays.fill(line, firstCell, line.length - 1, ' ');
+
+    int[] onsets = new int[columns];
+    int[] sustains = new int[columns];
+    Arrays.fill(onsets, -1);
+    Arrays.fill(sustains, -1);
+    for (int beat = 0; beat <= length; beat++) {
+      int digits = beat;
+      for (int i = numberWidth - 1; i >= 0; i--) {
+        line[i] = (i == numberWidth - 1 || digits > 0) ? (char) ('0' + (digits % 10)) : ' ';
+        digits /= 10;
       }
-    }
-    return builder;
-  }
-
-  /**
-   * Helper to the getOctaveTable method. Creates a list of Strings that represents a single
-   * pitch within this octave. Notes are represented with {@code X}'s for onsets and {@code |}'s
-   * for sustains. Rests are represented with empty spaces.
-   *
-   * @param pitch       the pitch being represented
-   * @param octaveNum   the number of this octane
-   * @param padding     the amount of spaced padding for each String in the list
-   * @param length      the length of the returned list
-   * @return a list of Strings representing the given pitch in this octane
-   */
-  private List<String> getPitchColumn(Pitch pitch, List<Integer[]> notes,
-                                      int octaveNum, int padding, int length) {
-    List<String> pitchCol = new ArrayList<>();
-    String empty = Utils.padString("", padding, Utils.Alignment.CENTER);
-    for (int i = 0; i <= length; i++) {
-      pitchCol.add(empty);
-    }
-    String onset = Utils.padString("X", padding, Utils.Alignment.CENTER);
-    String sustain = Utils.padString("|", padding, Utils.Alignment.CENTER);
-    for (Integer[] n : notes) {
-      int start = n[MidiConversion.NOTE_START];
-      int end = n[MidiConversion.NOTE_END];
-      pitchCol.set(start, onset);
-      for (int i = start + 1; i <= end; i++) {
-        pitchCol.set(i, sustain);
+      for (int c = 0; c < columns; c++) {
+        while (cursors[c] < stops[c] && starts[cursors[c]] == beat) {
+          onsets[c] = beat;
+          sustains[c] = Math.max(sustains[c], ends[cursors[c]]);
+          cursors[c]++;
+        }
+        char mark = ' ';
+        if (onsets[c] == beat) {
+          mark = 'X';
+        } else if (sustains[c] >= beat) {
+          mark = '|';
+        }
+        line[firstCell + (c * CELL_WIDTH) + (CELL_WIDTH / 2)] = mark;
       }
+      this.appendLine(line);
     }
-    pitchCol.add(0, Utils.padString(pitch.toString() + octaveNum, padding, Utils.Alignment.CENTER));
-    return pitchCol;
   }
 
   /**
-   * Helper to the getPieceTable method. Removes empty columns on both ends of the list
-   * generated by the getPieceTable method. An empty column qualifies as a column entirely
-   * composed of rests, with no notes played.
+   * Helper to the render method. Appends a whole line to the appendable, writing the characters
+   * directly when the appendable is a {@link Writer}.
    *
-   * @param piece         the list generated by the getPieceTable method
-   * @param emptyString   the String representing a rest, or empty
-   * @param firstSearch   true if this is the first call to the function;
-   *                      otherwise, this is the recursive call and will return the new list
-   * @return the given list of list of strings without the empty columns on both ends
+   * @param line   the characters of the line
+   * @throws IOException if appending to the appendable fails
    */
-  private List<List<String>> removeEmptyEndColumns(List<List<String>> piece, String emptyString,
-                                                   boolean firstSearch) {
-    int colsToRemove = -1;
-    for (int p = 0; p < piece.size(); p++) {
-      if (colsToRemove > -1) {
-        break;
-      }
-      List<String> pitchCol = piece.get(p);
-      for (int i = 1; i < pitchCol.size(); i++) {
-        if (!pitchCol.get(i).equals(emptyString)) {
-          colsToRemove = p;
-          break;
-        }
-      }
-    }
-    while (colsToRemove > 0) {
-      piece.remove(0);
-      colsToRemove -= 1;
-    }
-    if (firstSearch) {
-      return removeEmptyEndColumns(Utils.reverse(piece), emptyString, false);
+  private void appendLine(char[] line) throws IOException {
+    if (this.app instanceof Writer) {
+      ((Writer) this.app).write(line);
     } else {
-      return Utils.reverse(piece);
+      this.app.append(CharBuffer.wrap(line));
     }
   }
 
@@ -293,15 +209,26 @@ public class ConsoleView implements MusicEditorView {
     return new TreeMap<>();
   }
 
+  @Override
+  public boolean isPlaying() {
+    // never plays the piece
+    return false;
+  }
+
   @Override
   public void addListeners(MusicEditorController controller, KeyListener keyListener) {
     // no listeners to set
     return;
   }
 
+  /**
+   * Prints the table of the piece again, the same as when this view is initialized, but only if
+   * the model has changed since the table was last printed.
+   */
   @Override
   public void update() {
-    // nothing to update
-    return;
+    if (this.model.getVersion() != this.version) {
+      this.initialize();
+    }
   }
 }
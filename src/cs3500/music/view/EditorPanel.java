@@ -1,15 +1,22 @@
 package cs3500.music.view;
 
+import cs3500.music.model.MusicEditorListener;
 import cs3500.music.model.MusicEditorOperations;
+import cs3500.music.model.PieceSnapshot;
+import cs3500.music.util.EventLog;
 import cs3500.music.util.MidiConversion;
 
 import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
 
 import java.awt.Dimension;
 import java.awt.Color;
 import java.awt.Graphics;
-
-import java.util.List;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Represents the panel in {@link GuiContainer} that contains the editor view. The editor view
@@ -28,10 +35,17 @@ public class EditorPanel extends JViewport {
   private static final int START_HEIGHT = 30;
   private static final int START_WIDTH = 40;
   private static final int CELL_WIDTH = 30;
+  private static final int CURSOR_HEAD_DIAMETER = 14;
+  private static final int PROGRESS_HEIGHT = 2;
+  private static final int BUCKET_BEATS = 16;
+  private static final int TILE_WIDTH = BUCKET_BEATS * CELL_WIDTH;
+  private static final int TILE_CACHE_PIXELS = 8 * 1024 * 1024;
   private int cellHeight = 5;
 
-  private final StringBuilder log;
-  private List<Integer[]> notes;
+  private final EventLog log;
+  private final MusicEditorListener listener;
+  private MusicEditorOperations model;
+  private long version;
   private int highPitch;
   private int lowPitch;
   private int numRows;
@@ -39,6 +53,16 @@ public class EditorPanel extends JViewport {
   private int cursorPosition;
   private int scrollOffset;
   private boolean reachedEnd = false;
+  private int[] noteStarts;
+  private int[] noteEnds;
+  private int[] notePitches;
+  private int noteCount;
+  private int[] freeNotes;
+  private int freeCount;
+  private int[][] buckets;
+  private int[] bucketSizes;
+  private int[] pitchCounts;
+  private final Map<Integer, BufferedImage> tiles;
 
   /**
    * Constructs a new {@code EditorPanel} using the given model. Sets the width and height of the
@@ -54,22 +78,52 @@ public class EditorPanel extends JViewport {
       throws IllegalArgumentException {
     this.cursorPosition = 0;
     this.scrollOffset = 0;
+    this.tiles = new LinkedHashMap<Integer, BufferedImage>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+        return this.size() > maxTiles();
+      }
+    };
+    this.listener = new NotePatcher();
     update(model, width, height);
-    this.log = new StringBuilder();
+    this.log = new EventLog();
   }
 
+  /**
+   * Updates this panel to show the currently opened piece in the given model, at the given width
+   * and height. The notes are only read from the model, from a single snapshot of the piece, if
+   * it is not the model shown before. Otherwise this panel is already up to date, as it listens
+   * to the model and patches its index of notes with every change, and only the height of the
+   * cells is updated.
+   *
+   * @param model    the model to be represented in the editor view
+   * @param width    the desired width for the panel
+   * @param height   the desired height for the panel
+   * @throws IllegalArgumentException if the given model is uninitialized, or the width or height
+   *                                  are negative or zero
+   */
   protected void update(MusicEditorOperations model, int width, int height) {
     if (model == null) {
       throw new IllegalArgumentException("Given model is uninitialized.");
     } else if (width <= 0 || height <= 0) {
       throw new IllegalArgumentException("Width and height must be positive and non-zero.");
     }
-    this.notes = model.getNotes();
-    this.highPitch = this.getHighestPitch();
-    this.lowPitch = this.getLowestPitch();
-    this.numRows = highPitch - lowPitch + 1;
-    this.pieceLength = model.getLength();
+    if (model != this.model) {
+      PieceSnapshot snapshot = model.getSnapshot();
+      if (this.model != null) {
+        this.model.removeListener(this.listener);
+      }
+      model.addListener(this.listener);
+      this.model = model;
+      this.version = snapshot.getVersion();
+      this.indexNotes(snapshot);
+      this.tiles.clear();
+    }
+    int oldCellHeight = this.cellHeight;
     this.cellHeight = getCellHeight(height);
+    if (oldCellHeight != this.cellHeight) {
+      this.tiles.clear();
+    }
     this.setPreferredSize(new Dimension(width,
         START_HEIGHT + (this.numRows * this.cellHeight) + 5));
   }
@@ -89,90 +143,463 @@ public class EditorPanel extends JViewport {
   }
 
   /**
-   * Gets the lowest pitch in the currently opened piece in the model.
+   * Indexes the notes of the given snapshot of the currently opened piece by the beats they are
+   * drawn over, so that painting only needs to visit the notes in view, and finds the lowest and
+   * highest pitches among them. The beats are split into buckets of {@code BUCKET_BEATS} beats,
+   * and each bucket holds the notes drawn over any of its beats, in the order the model gives
+   * them. If there is no snapshot, as no piece is opened, no notes are indexed.
    *
-   * @return the lowest pitch from the piece in the model
+   * @param snapshot   the snapshot of the piece, or null if there is no opened piece
    */
-  private int getLowestPitch() {
-    int low = 127;
-    for (Integer[] note : this.notes) {
-      low = Math.min(low, note[MidiConversion.NOTE_PITCH]);
+  private void indexNotes(PieceSnapshot snapshot) {
+    this.pieceLength = snapshot == null ? 0 : snapshot.getLength();
+    this.noteStarts = new int[16];
+    this.noteEnds = new int[16];
+    this.notePitches = new int[16];
+    this.noteCount = 0;
+    this.freeNotes = new int[16];
+    this.freeCount = 0;
+    this.buckets = new int[(this.pieceLength / BUCKET_BEATS) + 1][];
+    this.bucketSizes = new int[this.buckets.length];
+    this.pitchCounts = new int[128];
+    if (snapshot != null) {
+      snapshot.forEachNote((start, end, instrument, pitch, volume) ->
+          this.indexNote(start, end, pitch, true));
     }
-    return low;
+    this.findPitchRange();
   }
 
   /**
-   * Gets the highest pitch in the currently opened piece in the model.
+   * Adds a note to the index of notes, in every bucket of beats it is drawn over. A note added
+   * in order is put at the end of each bucket. Otherwise, it is put before the first note of the
+   * same pitch that starts after it, so that notes which overlap are drawn in the same order as
+   * if every note had been indexed at once.
    *
-   * @return the highest pitch from the piece in the model
+   * @param start     the starting position of the note (measured in beats)
+   * @param end       the ending position of the note (measured in beats)
+   * @param pitch     the pitch of the note
+   * @param inOrder   true if the note comes after every note already indexed, in the order the
+   *                  model gives them
    */
-  private int getHighestPitch() {
-    int high = 0;
-    for (Integer[] note : this.notes) {
-      high = Math.max(high, note[MidiConversion.NOTE_PITCH]);
+  private void indexNote(int start, int end, int pitch, boolean inOrder) {
+    int note;
+    if (this.freeCount > 0) {
+      note = this.freeNotes[--this.freeCount];
+    } else {
+      if (this.noteCount == this.noteStarts.length) {
+        this.noteStarts = Arrays.copyOf(this.noteStarts, this.noteCount * 2);
+        this.noteEnds = Arrays.copyOf(this.noteEnds, this.noteCount * 2);
+        this.notePitches = Arrays.copyOf(this.notePitches, this.noteCount * 2);
+      }
+      note = this.noteCount++;
+    }
+    this.noteStarts[note] = start;
+    this.noteEnds[note] = end;
+    this.notePitches[note] = pitch;
+    if (pitch >= this.pitchCounts.length) {
+      this.pitchCounts = Arrays.copyOf(this.pitchCounts, pitch + 1);
+    }
+    this.pitchCounts[pitch]++;
+    int lastBucket = lastBeat(start, end) / BUCKET_BEATS;
+    if (lastBucket >= this.buckets.length) {
+      int length = Math.max(lastBucket + 1, this.buckets.length * 2);
+      this.buckets = Arrays.copyOf(this.buckets, length);
+      this.bucketSizes = Arrays.copyOf(this.bucketSizes, length);
+    }
+    for (int b = start / BUCKET_BEATS; b <= lastBucket; b++) {
+      int size = this.bucketSizes[b];
+      int[] bucket = this.buckets[b];
+      if (bucket == null) {
+        bucket = new int[4];
+      } else if (size == bucket.length) {
+        bucket = Arrays.copyOf(bucket, size * 2);
+      }
+      int i = size;
+      if (!inOrder) {
+        for (int j = 0; j < size; j++) {
+          if (this.notePitches[bucket[j]] == pitch && this.noteStarts[bucket[j]] > start) {
+            i = j;
+            break;
+          }
+        }
+        System.arraycopy(bucket, i, bucket, i + 1, size - i);
+      }
+      bucket[i] = note;
+      this.buckets[b] = bucket;
+      this.bucketSizes[b] = size + 1;
+    }
+  }
+
+  /**
+   * Removes a note with the given data from the index of notes, if there is one. Notes that are
+   * drawn the same are not told apart, as removing any of them leaves the same drawing.
+   *
+   * @param start   the starting position of the note (measured in beats)
+   * @param end     the ending position of the note (measured in beats)
+   * @param pitch   the pitch of the note
+   */
+  private void unindexNote(int start, int end, int pitch) {
+    int first = start / BUCKET_BEATS;
+    if (first >= this.buckets.length) {
+      return;
+    }
+    int note = -1;
+    for (int i = 0; i < this.bucketSizes[first] && note < 0; i++) {
+      int n = this.buckets[first][i];
+      if (this.noteStarts[n] == start && this.noteEnds[n] == end && this.notePitches[n] == pitch) {
+        note = n;
+      }
+    }
+    if (note < 0) {
+      return;
+    }
+    for (int b = first; b <= lastBeat(start, end) / BUCKET_BEATS; b++) {
+      int[] bucket = this.buckets[b];
+      int size = this.bucketSizes[b];
+      for (int i = 0; i < size; i++) {
+        if (bucket[i] == note) {
+          System.arraycopy(bucket, i + 1, bucket, i, size - i - 1);
+          this.bucketSizes[b] = size - 1;
+          break;
+        }
+      }
+    }
+    this.pitchCounts[pitch]--;
+    if (this.freeCount == this.freeNotes.length) {
+      this.freeNotes = Arrays.copyOf(this.freeNotes, this.freeCount * 2);
+    }
+    this.freeNotes[this.freeCount++] = note;
+  }
+
+  /**
+   * Finds the lowest and highest pitches of the indexed notes, and the number of rows between
+   * them, from the number of notes indexed at each pitch.
+   */
+  private void findPitchRange() {
+    this.lowPitch = 127;
+    this.highPitch = 0;
+    for (int pitch = 0; pitch < this.pitchCounts.length; pitch++) {
+      if (this.pitchCounts[pitch] > 0) {
+        this.lowPitch = Math.min(this.lowPitch, pitch);
+        this.highPitch = pitch;
+      }
+    }
+    this.numRows = this.highPitch - this.lowPitch + 1;
+  }
+
+  /**
+   * Helper to the methods of the {@link NotePatcher}. Drops the tiles of every bucket of beats
+   * that a changed note is drawn over, so that they are drawn again.
+   *
+   * @param start   the starting position of the note (measured in beats)
+   * @param end     the ending position of the note (measured in beats)
+   */
+  private void dropTiles(int start, int end) {
+    for (int b = start / BUCKET_BEATS; b <= lastBeat(start, end) / BUCKET_BEATS; b++) {
+      this.tiles.remove(b);
+    }
+  }
+
+  /**
+   * Helper to the methods of the {@link NotePatcher}. Finishes patching the index after notes
+   * have changed: finds the length of the piece, which is the latest end of any note in the last
+   * bucket holding notes, and the range of pitches. Drops every tile if the rows have changed,
+   * or else only the tiles drawn near the old and new ends of the piece, then repaints.
+   *
+   * @param end   the latest end of the notes changed, so that the search for the last bucket
+   *              holding notes starts no later than it needs to
+   */
+  private void finishPatch(int end) {
+    int oldLength = this.pieceLength;
+    int oldHighPitch = this.highPitch;
+    int oldRows = this.numRows;
+    int last = Math.min(this.buckets.length - 1, Math.max(oldLength, end) / BUCKET_BEATS);
+    while (last > 0 && this.bucketSizes[last] == 0) {
+      last--;
+    }
+    this.pieceLength = 0;
+    for (int i = 0; i < this.bucketSizes[last]; i++) {
+      this.pieceLength = Math.max(this.pieceLength, this.noteEnds[this.buckets[last][i]]);
+    }
+    this.findPitchRange();
+    if (oldHighPitch != this.highPitch || oldRows != this.numRows) {
+      this.tiles.clear();
+      this.setPreferredSize(new Dimension(this.getPreferredSize().width,
+          START_HEIGHT + (this.numRows * this.cellHeight) + 5));
+      this.revalidate();
+    } else if (oldLength != this.pieceLength) {
+      for (int b = (Math.min(oldLength, this.pieceLength) / BUCKET_BEATS) - 1;
+           b <= (Math.max(oldLength, this.pieceLength) / BUCKET_BEATS) + 1; b++) {
+        this.tiles.remove(b);
+      }
+    }
+    this.repaint();
+  }
+
+  /**
+   * Gets the last beat a note is drawn over, which is the beat before its end, or its start if
+   * it ends on the beat it starts.
+   *
+   * @param start   the starting position of the note
+   * @param end     the ending position of the note
+   * @return the last beat the note is drawn over
+   */
+  private static int lastBeat(int start, int end) {
+    return Math.max(start, end - 1);
+  }
+
+  /**
+   * Represents the listener this panel registers with the model it shows, which patches the
+   * index of notes with every change to the piece, rather than reading the whole piece again, so
+   * an edit only costs as much as the buckets of beats it touches. Events no newer than the
+   * version of the piece already indexed are skipped. If another piece is opened, or many notes
+   * are changed at once, the piece is indexed again from a snapshot. The model may be changed
+   * from any thread, so every patch is run on the event dispatch thread, which paints this panel.
+   */
+  private final class NotePatcher implements MusicEditorListener {
+    @Override
+    public void noteAdded(long version, int start, int end, int instrument, int pitch,
+                          int volume) {
+      this.onEventThread(() -> {
+        if (this.isNew(version)) {
+          indexNote(start, end, pitch, false);
+          dropTiles(start, end);
+          finishPatch(end);
+        }
+      });
+    }
+
+    @Override
+    public void noteRemoved(long version, int start, int end, int instrument, int pitch,
+                            int volume) {
+      this.onEventThread(() -> {
+        if (this.isNew(version)) {
+          unindexNote(start, end, pitch);
+          dropTiles(start, end);
+          finishPatch(end);
+        }
+      });
+    }
+
+    @Override
+    public void noteMoved(long version, int start, int end, int instrument, int pitch,
+                          int volume, int newStart, int newPitch) {
+      this.onEventThread(() -> {
+        if (this.isNew(version)) {
+          int newEnd = newStart + (end - start);
+          unindexNote(start, end, pitch);
+          indexNote(newStart, newEnd, newPitch, false);
+          dropTiles(start, end);
+          dropTiles(newStart, newEnd);
+          finishPatch(newEnd);
+        }
+      });
+    }
+
+    @Override
+    public void noteResized(long version, int start, int end, int instrument, int pitch,
+                            int volume, int newEnd) {
+      this.onEventThread(() -> {
+        if (this.isNew(version)) {
+          unindexNote(start, end, pitch);
+          indexNote(start, newEnd, pitch, false);
+          dropTiles(start, Math.max(end, newEnd));
+          finishPatch(newEnd);
+        }
+      });
+    }
+
+    @Override
+    public void tempoChanged(long version, int tempo, int newTempo) {
+      this.onEventThread(() -> this.isNew(version));
+    }
+
+    @Override
+    public void pieceChanged(long version) {
+      this.onEventThread(() -> {
+        if (this.isNew(version)) {
+          PieceSnapshot snapshot;
+          try {
+            snapshot = model.getSnapshot();
+          } catch (IllegalStateException e) {
+            snapshot = null;
+          }
+          if (snapshot != null) {
+            EditorPanel.this.version = Math.max(version, snapshot.getVersion());
+          }
+          indexNotes(snapshot);
+          tiles.clear();
+          finishPatch(pieceLength);
+        }
+      });
+    }
+
+    /**
+     * Runs the given patch on the event dispatch thread: straight away if the change was made on
+     * it, or else once the events already queued on it have been handled. Patches run in the
+     * order the changes were made, as events are given in that order.
+     *
+     * @param patch   the patch to be run
+     */
+    private void onEventThread(Runnable patch) {
+      if (SwingUtilities.isEventDispatchThread()) {
+        patch.run();
+      } else {
+        SwingUtilities.invokeLater(patch);
+      }
+    }
+
+    /**
+     * Checks if an event is newer than the version of the piece already indexed, and if so moves
+     * this panel on to its version.
+     *
+     * @param version   the version of the model after the change
+     * @return true if the event is new, false if it should be skipped
+     */
+    private boolean isNew(long version) {
+      if (version <= EditorPanel.this.version) {
+        return false;
+      }
+      EditorPanel.this.version = version;
+      return true;
     }
-    return high;
   }
 
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
     int offsetX = (this.scrollOffset * CELL_WIDTH);
-    this.drawNotes(g, offsetX);
-    this.drawGrid(g, offsetX);
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+    }
+    int firstTile = Math.max(0, Math.floorDiv(clip.x + offsetX - START_WIDTH, TILE_WIDTH));
+    int lastTile = Math.min((this.pieceLength / BUCKET_BEATS) + 1,
+        Math.floorDiv(clip.x + clip.width - 1 + offsetX - START_WIDTH, TILE_WIDTH));
+    for (int tile = firstTile; tile <= lastTile; tile++) {
+      g.drawImage(this.getTile(tile), START_WIDTH + (tile * TILE_WIDTH) - offsetX, 0, null);
+    }
+    this.drawPitchNames(g, Math.max(0, Math.floorDiv(clip.y - START_HEIGHT, this.cellHeight)),
+        Math.floorDiv(clip.y + clip.height - 1 - START_HEIGHT, this.cellHeight));
     this.drawCursor(g, offsetX);
     this.drawProgress(g);
   }
 
   /**
-   * Helper to the paintComponent method. Draws all of the notes in memory of the model onto the
-   * panel, adjusting the x-positions of every note to account for the current x-offset of the
-   * horizontal scroll in the window.
+   * Gets the number of tiles that can be kept at once, which is as many as fit in
+   * {@code TILE_CACHE_PIXELS} pixels, but always enough to cover the width of the panel.
    *
-   * @param g           the graphics object to draw on
-   * @param offsetX     the current x-offset for scrolling of the piece
-   * @throws IllegalArgumentException if the given graphics object is uninitialized
+   * @return the maximum number of tiles kept
    */
-  private void drawNotes(Graphics g, int offsetX) {
-    for (Integer[] note : this.notes) {
-      int start = note[MidiConversion.NOTE_START];
-      int end = note[MidiConversion.NOTE_END];
-      int pitch = note[MidiConversion.NOTE_PITCH];
-      g.setColor(COLOR_NOTE_SUSTAIN);
-      g.fillRect(START_WIDTH + ((start + 1) * CELL_WIDTH) - offsetX,
-          START_HEIGHT + (this.highPitch - pitch) * this.cellHeight,
-          (end - start - 1) * CELL_WIDTH, this.cellHeight);
-      g.setColor(COLOR_NOTE_ONSET);
-      g.fillRect(START_WIDTH + (start * CELL_WIDTH) - offsetX,
-          START_HEIGHT + (this.highPitch - pitch) * this.cellHeight,
-          CELL_WIDTH, this.cellHeight);
+  private int maxTiles() {
+    int tilePixels = TILE_WIDTH * this.tileHeight();
+    return Math.max((this.getWidth() / TILE_WIDTH) + 2, TILE_CACHE_PIXELS / tilePixels);
+  }
+
+  /**
+   * Gets the height of every tile, which is the height of the grid and the measure numbers above
+   * it. A piece with no notes has no rows, so its tiles only hold the measure numbers.
+   *
+   * @return the height of a tile
+   */
+  private int tileHeight() {
+    return START_HEIGHT + Math.max(0, this.numRows * this.cellHeight) + 1;
+  }
+
+  /**
+   * Helper to the paintComponent method. Gets the image of the notes and grid drawn over the
+   * given bucket of beats, drawing it if it is not already kept. The image starts at the first
+   * beat of the bucket, and is transparent wherever nothing is drawn.
+   *
+   * @param bucket   the bucket of beats the tile is drawn for
+   * @return the image of the tile
+   */
+  private BufferedImage getTile(int bucket) {
+    BufferedImage tile = this.tiles.get(bucket);
+    if (tile == null) {
+      tile = new BufferedImage(TILE_WIDTH, this.tileHeight(), BufferedImage.TYPE_INT_ARGB);
+      Graphics g = tile.createGraphics();
+      if (this.getFont() != null) {
+        g.setFont(this.getFont());
+      }
+      this.drawContent(g, START_WIDTH + (bucket * TILE_WIDTH),
+          new Rectangle(0, 0, tile.getWidth(), tile.getHeight()));
+      g.dispose();
+      this.tiles.put(bucket, tile);
     }
+    return tile;
   }
 
   /**
-   * Helper to the paintComponent method. Constructs and draws the grid for the editor view,
-   * taking into account the current horizontal scroll of the view. The pitch names on the far
-   * left side will always stay at the same position, no matter the offset value.
+   * Helper to the getTile method. Draws the notes and grid that fall within the given bounds,
+   * adjusting the x-positions of everything to account for the given x-offset.
    *
    * @param g         the graphics object to draw on
-   * @param offsetX   the current x-offset for scrolling of the piece
+   * @param offsetX   the x-offset of the beginning of the graphics object
+   * @param clip      the bounds of the graphics object to draw within
    */
-  private void drawGrid(Graphics g, int offsetX) {
-    this.drawMeasureLines(g, offsetX);
-    this.drawPitchLines(g, offsetX);
-    this.drawPitchNames(g);
+  private void drawContent(Graphics g, int offsetX, Rectangle clip) {
+    int firstBeat = Math.max(0, Math.floorDiv(clip.x - START_WIDTH + offsetX, CELL_WIDTH));
+    int lastBeat = Math.floorDiv(clip.x + clip.width - 1 - START_WIDTH + offsetX, CELL_WIDTH);
+    int firstRow = Math.max(0, Math.floorDiv(clip.y - START_HEIGHT, this.cellHeight));
+    int lastRow = Math.floorDiv(clip.y + clip.height - 1 - START_HEIGHT, this.cellHeight);
+    this.drawNotes(g, offsetX, firstBeat, lastBeat, firstRow, lastRow);
+    this.drawMeasureLines(g, offsetX, firstBeat, lastBeat);
+    this.drawPitchLines(g, offsetX, firstRow, lastRow);
   }
 
   /**
-   * Helper to the drawGrid method. Draws the measure (vertical) lines every four beats in the
+   * Helper to the drawContent method. Draws the notes of the model that are drawn over the
+   * given beats and rows, adjusting the x-positions of every note to account for
+   * the current x-offset of the horizontal scroll in the window. Only the buckets of the given
+   * beats are visited, and a note held by several of them is only drawn from the first.
+   *
+   * @param g           the graphics object to draw on
+   * @param offsetX     the current x-offset for scrolling of the piece
+   * @param firstBeat   the first beat in view
+   * @param lastBeat    the last beat in view
+   * @param firstRow    the first pitch row in view
+   * @param lastRow     the last pitch row in view
+   */
+  private void drawNotes(Graphics g, int offsetX, int firstBeat, int lastBeat, int firstRow,
+                         int lastRow) {
+    int firstBucket = firstBeat / BUCKET_BEATS;
+    int lastBucket = Math.min(this.buckets.length - 1, lastBeat / BUCKET_BEATS);
+    for (int b = firstBucket; b <= lastBucket; b++) {
+      for (int i = 0; i < this.bucketSizes[b]; i++) {
+        int note = this.buckets[b][i];
+        int start = this.noteStarts[note];
+        int end = this.noteEnds[note];
+        int row = this.highPitch - this.notePitches[note];
+        if (Math.max(start / BUCKET_BEATS, firstBucket) != b || start > lastBeat
+            || lastBeat(start, end) < firstBeat || row < firstRow || row > lastRow) {
+          continue;
+        }
+        g.setColor(COLOR_NOTE_SUSTAIN);
+        g.fillRect(START_WIDTH + ((start + 1) * CELL_WIDTH) - offsetX,
+            START_HEIGHT + row * this.cellHeight,
+            (end - start - 1) * CELL_WIDTH, this.cellHeight);
+        g.setColor(COLOR_NOTE_ONSET);
+        g.fillRect(START_WIDTH + (start * CELL_WIDTH) - offsetX,
+            START_HEIGHT + row * this.cellHeight,
+            CELL_WIDTH, this.cellHeight);
+      }
+    }
+  }
+
+  /**
+   * Helper to the drawContent method. Draws the measure (vertical) lines every four beats in the
    * view. If the final beat of the piece is not divisible by 4, draws the line anyway to display
-   * the ending of the piece.
+   * the ending of the piece. Starts a measure early, as the number of a measure can be wider than
+   * a beat.
    *
-   * @param g         the graphics object to draw on
-   * @param offsetX   the current x-offset for scrolling of the piece
+   * @param g           the graphics object to draw on
+   * @param offsetX     the current x-offset for scrolling of the piece
+   * @param firstBeat   the first beat in view
+   * @param lastBeat    the last beat in view
    */
-  private void drawMeasureLines(Graphics g, int offsetX) {
-    for (int i = 0; i <= this.pieceLength; i++) {
+  private void drawMeasureLines(Graphics g, int offsetX, int firstBeat, int lastBeat) {
+    for (int i = Math.max(0, firstBeat - 4); i <= Math.min(this.pieceLength, lastBeat + 1); i++) {
       if (i % 4 == 0 || i == this.pieceLength) {
         g.setColor(COLOR_LINES_DARK);
         if (i != this.pieceLength || this.pieceLength % 4 == 0) {
@@ -187,14 +614,16 @@ public class EditorPanel extends JViewport {
   }
 
   /**
-   * Helper to the drawGrid method. Draws the pitch (horizontal) lines that form the rows for
-   * every pitch for note cells to be placed in.
+   * Helper to the drawContent method. Draws the pitch (horizontal) lines that form the rows for
+   * every pitch in view for note cells to be placed in.
    *
-   * @param g         the graphics object to draw on
-   * @param offsetX   the current x-offset for scrolling of the piece
+   * @param g          the graphics object to draw on
+   * @param offsetX    the current x-offset for scrolling of the piece
+   * @param firstRow   the first pitch row in view
+   * @param lastRow    the last pitch row in view
    */
-  private void drawPitchLines(Graphics g, int offsetX) {
-    for (int i = 0; i <= this.numRows; i++) {
+  private void drawPitchLines(Graphics g, int offsetX, int firstRow, int lastRow) {
+    for (int i = firstRow; i <= Math.min(this.numRows, lastRow + 1); i++) {
       if (i == 0 || i == this.numRows) {
         g.setColor(COLOR_LINES_DARK);
       } else {
@@ -207,18 +636,21 @@ public class EditorPanel extends JViewport {
   }
 
   /**
-   * Helper to the drawGrid method. Draws the pitch names alongside their corresponding rows in
-   * the grid.
+   * Helper to the paintComponent method. Draws the pitch names alongside their corresponding
+   * rows in view in the grid, which stay at the same position no matter the scroll of the view.
    *
-   * @param g   the graphics object to draw on
+   * @param g          the graphics object to draw on
+   * @param firstRow   the first pitch row in view
+   * @param lastRow    the last pitch row in view
    */
-  private void drawPitchNames(Graphics g) {
+  private void drawPitchNames(Graphics g, int firstRow, int lastRow) {
     g.setColor(Color.white);
     g.fillRect(0, 0, START_WIDTH, getHeight());
     g.setColor(COLOR_LINES_DARK);
     g.drawLine(START_WIDTH, START_HEIGHT, START_WIDTH, START_HEIGHT + (numRows * this.cellHeight));
     g.setColor(COLOR_TEXT);
-    for (int i = this.highPitch; i >= this.lowPitch; i--) {
+    for (int i = Math.min(this.highPitch, this.highPitch - firstRow + 1);
+         i >= Math.max(this.lowPitch, this.highPitch - lastRow - 1); i--) {
       g.drawString(MidiConversion.getPitchName(i), 1,
           (int) ((this.highPitch - i + 0.5) * this.cellHeight) + START_HEIGHT);
     }
@@ -233,7 +665,7 @@ public class EditorPanel extends JViewport {
    */
   private void drawCursor(Graphics g, int offsetX) {
     int cursorWidth = 4;
-    int headDiameter = 14;
+    int headDiameter = CURSOR_HEAD_DIAMETER;
     int headCutDiameter = 8;
     g.setColor(COLOR_CURSOR);
     g.fillRect(START_WIDTH + (this.cursorPosition * CELL_WIDTH) - (cursorWidth / 2) - offsetX,
@@ -254,7 +686,8 @@ public class EditorPanel extends JViewport {
   private void drawProgress(Graphics g) {
     g.setColor(COLOR_CURSOR);
     g.fillRect(0, 0,
-        (int) ((this.cursorPosition / (double) this.pieceLength) * this.getWidth()), 2);
+        (int) ((this.cursorPosition / (double) this.pieceLength) * this.getWidth()),
+        PROGRESS_HEIGHT);
   }
 
   /**
@@ -273,16 +706,70 @@ public class EditorPanel extends JViewport {
       if ((cellsShown + this.scrollOffset - 2) >= this.pieceLength) {
         this.reachedEnd = true;
       }
-      this.log.append("<EP>cFor:- ");
     } else {
       this.cursorPosition = Math.max(0, this.cursorPosition - 1);
-      this.log.append("<EP>cBac:- ");
     }
+    int startingOffset = this.scrollOffset;
     this.updateScrollOffset(this.cursorPosition - startingPos);
-    this.log.append(cursorPosition + " </EP>\n");
+    this.log.add("EditorPanel",
+        (forward ? "<EP>cFor:- " : "<EP>cBac:- ") + this.cursorPosition + " </EP>");
+    if (this.scrollOffset != startingOffset) {
+      this.repaint();
+    } else if (this.cursorPosition != startingPos) {
+      this.repaintCursor(startingPos);
+      this.repaintCursor(this.cursorPosition);
+      this.repaint(0, 0, this.getWidth(), PROGRESS_HEIGHT);
+    }
     return this.cursorPosition;
   }
 
+  /**
+   * Moves the cursor straight to the given beat, stopping at beat 0 and the length of the piece
+   * in the model. The scroll offset is only changed if the cursor would otherwise be within
+   * {@code SCROLL_PADDING} beats of either side of the window, and never scrolls further than
+   * moving the cursor forward one beat at a time would.
+   *
+   * @param beat   the beat to move the cursor to
+   * @return the current position of the moved cursor
+   */
+  protected int setCursorPosition(int beat) {
+    int startingPos = this.cursorPosition;
+    int startingOffset = this.scrollOffset;
+    int cellsShown = (this.getWidth() - START_WIDTH) / CELL_WIDTH;
+    int maxOffset = Math.max(0, this.pieceLength + 2 - cellsShown);
+    this.cursorPosition = Math.min(this.pieceLength, Math.max(0, beat));
+    if (this.cursorPosition <= this.scrollOffset + SCROLL_PADDING) {
+      this.scrollOffset = Math.min(this.scrollOffset,
+          Math.max(0, this.cursorPosition - SCROLL_PADDING));
+    } else if (this.cursorPosition + SCROLL_PADDING > this.scrollOffset + cellsShown) {
+      this.scrollOffset = Math.max(this.scrollOffset,
+          Math.min(maxOffset, this.cursorPosition + SCROLL_PADDING - cellsShown));
+    }
+    this.reachedEnd = this.scrollOffset >= maxOffset;
+    this.log.add("EditorPanel", "<EP>cJmp:- " + this.cursorPosition + " </EP>");
+    if (this.scrollOffset != startingOffset) {
+      this.repaint();
+    } else if (this.cursorPosition != startingPos) {
+      this.repaintCursor(startingPos);
+      this.repaintCursor(this.cursorPosition);
+      this.repaint(0, 0, this.getWidth(), PROGRESS_HEIGHT);
+    }
+    return this.cursorPosition;
+  }
+
+  /**
+   * Helper to the updateCursor and setCursorPosition methods. Repaints only the column of the
+   * panel that the cursor is drawn in when at the given position.
+   *
+   * @param position   the position of the cursor
+   */
+  private void repaintCursor(int position) {
+    int x = START_WIDTH + ((position - this.scrollOffset) * CELL_WIDTH);
+    int height = Math.max(this.numRows * this.cellHeight, CURSOR_HEAD_DIAMETER / 2);
+    this.repaint(x - (CURSOR_HEAD_DIAMETER / 2) - 1, START_HEIGHT - (CURSOR_HEAD_DIAMETER / 2) - 1,
+        CURSOR_HEAD_DIAMETER + 2, height + (CURSOR_HEAD_DIAMETER / 2) + 2);
+  }
+
   /**
    * Updates the scroll offset of the window when the cursor position has changed. If the last
    * note is in view of the window, the scroll offset will remain the same until the cursor moves
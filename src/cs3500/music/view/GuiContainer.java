@@ -1,6 +1,7 @@
 package cs3500.music.view;
 
 import cs3500.music.model.MusicEditorOperations;
+import cs3500.music.util.EventLog;
 
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
@@ -14,7 +15,7 @@ import java.awt.event.MouseEvent;
  * editor panel (encapsulated in a scroll pane), as well as the piano panel.
  */
 public class GuiContainer extends JPanel {
-  private final StringBuilder log;
+  private final EventLog log;
   private final PianoPanel pianoPanel;
   private final EditorPanel editorPanel;
   private final MusicEditorOperations model;
@@ -35,7 +36,7 @@ public class GuiContainer extends JPanel {
     } else if (width <= 0) {
       throw new IllegalArgumentException("Width cannot be negative or zero.");
     }
-    this.log = new StringBuilder();
+    this.log = new EventLog();
     this.model = model;
     this.setLayout(new BorderLayout(0, 0));
     int contHeight = 500;
@@ -54,14 +55,25 @@ public class GuiContainer extends JPanel {
   /**
    * Updates the position of the cursor in the editor view, as well as the keys highlighted in
    * the piano view. Won't move the cursor past the limitations of the editor (before 0 or after
-   * the last beat displayed).
+   * the last beat displayed). Each panel repaints only the parts of it that have changed.
    *
    * @param forward   moves cursor forward if true, backward if false
    */
   protected void updatePosition(boolean forward) {
     int beat = this.editorPanel.updateCursor(forward);
     this.pianoPanel.updateHighlights(this.model.getNotesAtBeat(beat));
-    repaint();
+  }
+
+  /**
+   * Moves the cursor straight to the given beat, without stepping through the beats in between.
+   * Won't move the cursor past the limitations of the editor (before 0 or after the last beat
+   * displayed). Updates the piano panel as well to reflect this change.
+   *
+   * @param beat   the beat to move the cursor to
+   */
+  protected void jumpToBeat(int beat) {
+    int position = this.editorPanel.setCursorPosition(beat);
+    this.pianoPanel.updateHighlights(this.model.getNotesAtBeat(position));
   }
 
   /**
@@ -69,11 +81,7 @@ public class GuiContainer extends JPanel {
    * well to reflect this change.
    */
   protected void jumpToBeginning() {
-    while (this.editorPanel.getCursorPosition() > 0) {
-      this.editorPanel.updateCursor(false);
-    }
-    this.pianoPanel.updateHighlights(this.model.getNotesAtBeat(0));
-    repaint();
+    this.jumpToBeat(0);
   }
 
   /**
@@ -81,11 +89,7 @@ public class GuiContainer extends JPanel {
    * well to reflect this change.
    */
   protected void jumpToEnd() {
-    while (this.editorPanel.getCursorPosition() < this.model.getLength()) {
-      this.editorPanel.updateCursor(true);
-    }
-    this.pianoPanel.updateHighlights(this.model.getNotesAtBeat(this.model.getLength()));
-    repaint();
+    this.jumpToBeat(this.model.getLength());
   }
 
   /**
@@ -104,7 +108,7 @@ public class GuiContainer extends JPanel {
    * @return the log of operations as a String
    */
   protected String getLog() {
-    return this.log.append(this.editorPanel.getLog()).append(this.pianoPanel.getLog()).toString();
+    return this.log.toString() + this.editorPanel.getLog() + this.pianoPanel.getLog();
   }
 
   /**
@@ -138,6 +142,7 @@ public class GuiContainer extends JPanel {
   protected void updatePanels() {
     this.editorPanel.update(this.model, this.getWidth(), this.getHeight());
     this.pianoPanel.updateHighlights(this.model.getNotesAtBeat(this.getCursorPosition()));
+    repaint();
   }
 
   /**
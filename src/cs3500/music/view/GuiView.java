@@ -66,6 +66,16 @@ public class GuiView extends JFrame implements MusicEditorView {
     this.container.updatePosition(forward);
   }
 
+  /**
+   * Moves the cursor in the editor view straight to the given beat, as well as the keys
+   * highlighted in the piano view. Won't move the cursor past the limitations of the editor.
+   *
+   * @param beat   the beat to move the cursor to
+   */
+  protected void jumpToBeat(int beat) {
+    this.container.jumpToBeat(beat);
+  }
+
   /**
    * Sets the different key events for a KeyListener attached to this view. Provides
    * {@code Runnable}s per keyCode for the KeyListener to run when the respective key is pressed.
@@ -83,6 +93,12 @@ public class GuiView extends JFrame implements MusicEditorView {
     return this.keyEventRunnables;
   }
 
+  @Override
+  public boolean isPlaying() {
+    // never plays the piece
+    return false;
+  }
+
   @Override
   public void addListeners(MusicEditorController controller, KeyListener keyListener)
       throws IllegalArgumentException {
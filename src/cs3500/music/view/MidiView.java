@@ -1,9 +1,12 @@
 package cs3500.music.view;
 
 import cs3500.music.controller.MusicEditorController;
+import cs3500.music.model.MusicEditorListener;
 import cs3500.music.model.MusicEditorOperations;
-import cs3500.music.util.MidiConversion;
+import cs3500.music.model.PieceSnapshot;
+import cs3500.music.util.EventLog;
 
+import javax.sound.midi.MetaEventListener;
 import javax.sound.midi.MidiSystem;
 import javax.sound.midi.Sequencer;
 import javax.sound.midi.Sequence;
@@ -15,19 +18,22 @@ import javax.sound.midi.MidiMessage;
 import javax.sound.midi.ShortMessage;
 
 import java.awt.event.KeyListener;
-import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * Represents the MIDI view for a music editor, in which it stores and plays all of the notes of
- * a model through the system's MIDI.
+ * a model through the system's MIDI. The view listens to the model, and patches the events of
+ * its sequence with every edit to the piece, so the sequence is only created again when another
+ * piece is opened.
  */
 public class MidiView implements MusicEditorView {
-  private final StringBuilder log;
+  private final EventLog log;
   private final MusicEditorOperations model;
   private final Sequencer sequencer;
   private Sequence sequence;
+  private Track track;
+  private long version;
   private int tickPosition;
 
   /**
@@ -89,11 +95,14 @@ public class MidiView implements MusicEditorView {
    * @param builder   the builder for this MidiView
    */
   private MidiView(Builder builder) {
-    this.log = new StringBuilder();
+    this.log = new EventLog();
     this.model = builder.model;
     this.sequencer = builder.sequencer;
     this.sequence = null;
+    this.track = null;
+    this.version = 0;
     this.tickPosition = 0;
+    this.model.addListener(new SequencePatcher());
   }
 
   @Override
@@ -140,12 +149,8 @@ public class MidiView implements MusicEditorView {
     return this.tickPosition;
   }
 
-  /**
-   * Checks whether or not the sequencer in the midi is actively playing something.
-   *
-   * @return true if the midi is playing the sequence, false otherwise
-   */
-  protected boolean isPlaying() {
+  @Override
+  public boolean isPlaying() {
     return this.sequencer.isRunning();
   }
 
@@ -159,31 +164,157 @@ public class MidiView implements MusicEditorView {
   }
 
   /**
-   * Helper to the playSequence method. Creates a sequence from the list of note data currently in
-   * the model, to be sent to the sequencer.
+   * Registers a listener for the meta events of the sequencer, such as reaching the end of the
+   * sequence.
+   *
+   * @param listener   the listener to be registered
+   * @return true if the listener was registered, false otherwise
+   */
+  protected boolean addMetaEventListener(MetaEventListener listener) {
+    return this.sequencer.addMetaEventListener(listener);
+  }
+
+  /**
+   * Helper to the update method. Creates a sequence from the notes currently in the model, to be
+   * sent to the sequencer. Any note that cannot be turned into MIDI messages is logged and left
+   * out of the sequence. Visible to the package so that it can be benchmarked on its own.
    *
-   * @param notes    the list of note data of the piece currently from the model
-   * @throws InvalidMidiDataException if an invalid note or tempo in the model is passed to the MIDI
+   * @return the sequence of every note currently in the model
+   * @throws InvalidMidiDataException if the sequence cannot be created
    */
-  private Sequence createSequence(List<Integer[]> notes) throws InvalidMidiDataException {
+  protected Sequence createSequence() throws InvalidMidiDataException {
+    return this.createSequence(this.model.getSnapshot());
+  }
+
+  /**
+   * Helper to the update method. Creates a sequence from the notes in the given snapshot of the
+   * currently opened piece, as described in {@link #createSequence()}.
+   *
+   * @param snapshot   the snapshot of the piece
+   * @return the sequence of every note in the snapshot
+   * @throws InvalidMidiDataException if the sequence cannot be created
+   */
+  private Sequence createSequence(PieceSnapshot snapshot) throws InvalidMidiDataException {
     Sequence sequence = new Sequence(Sequence.PPQ, 1);
     Track tr = sequence.createTrack();
-    for (Integer[] note : notes) {
-      int start = note[MidiConversion.NOTE_START];
-      int end = note[MidiConversion.NOTE_END];
-      int instrum = note[MidiConversion.NOTE_INSTRUMENT];
-      int pitch = Math.max(0, Math.min(127, note[MidiConversion.NOTE_PITCH]));
-      int volume = note[MidiConversion.NOTE_VOLUME];
-      MidiMessage startMsg = new ShortMessage(ShortMessage.NOTE_ON, 0, pitch, volume);
-      MidiMessage stopMsg = new ShortMessage(ShortMessage.NOTE_OFF, 0, pitch, volume);
-      MidiMessage addInstrum = new ShortMessage(ShortMessage.PROGRAM_CHANGE, 0, instrum, 0);
-      tr.add(new MidiEvent(addInstrum, start));
-      tr.add(new MidiEvent(startMsg, start));
-      tr.add(new MidiEvent(stopMsg, end));
-    }
+    snapshot.forEachNote((start, end, instrum, pitch, volume) -> {
+      try {
+        this.addNoteEvents(tr, start, end, instrum, Math.max(0, Math.min(127, pitch)), volume);
+      } catch (InvalidMidiDataException e) {
+        this.log.add("MidiView", "Encountered fatal InvalidMidiDataException: "
+            + e.getMessage());
+      }
+    });
     return sequence;
   }
 
+  /**
+   * Helper to the createSequence and addNote methods. Adds the MIDI events for playing a single
+   * note to the given track.
+   *
+   * @param tr        the track to add the events to
+   * @param start     the starting position of the note (measured in beats)
+   * @param end       the ending position of the note (measured in beats)
+   * @param instrum   the instrument the note is played in [0, 127]
+   * @param pitch     the pitch at which the note is played [0, 127]
+   * @param volume    the volume at which the note is played [0, 127]
+   * @throws InvalidMidiDataException if any of the note data is invalid for MIDI
+   */
+  private void addNoteEvents(Track tr, int start, int end, int instrum, int pitch, int volume)
+      throws InvalidMidiDataException {
+    MidiMessage startMsg = new ShortMessage(ShortMessage.NOTE_ON, 0, pitch, volume);
+    MidiMessage stopMsg = new ShortMessage(ShortMessage.NOTE_OFF, 0, pitch, volume);
+    MidiMessage addInstrum = new ShortMessage(ShortMessage.PROGRAM_CHANGE, 0, instrum, 0);
+    tr.add(new MidiEvent(addInstrum, start));
+    tr.add(new MidiEvent(startMsg, start));
+    tr.add(new MidiEvent(stopMsg, end));
+  }
+
+  /**
+   * Adds the MIDI events for a note that has just been added to the model to the current
+   * sequence, rather than creating the whole sequence again. Does nothing if no sequence has
+   * been created yet, as the note will be included when it is.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the pitch at which the note is played
+   * @param volume       the volume at which the note is played [0, 127]
+   */
+  protected void addNote(int start, int end, int instrument, int pitch, int volume) {
+    if (this.track == null) {
+      return;
+    }
+    try {
+      this.addNoteEvents(this.track, start, end, instrument, Math.max(0, Math.min(127, pitch)),
+          volume);
+    } catch (InvalidMidiDataException e) {
+      this.log.add("MidiView", "Encountered fatal InvalidMidiDataException: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Removes the MIDI events for a note that has just been removed from the model from the
+   * current sequence, rather than creating the whole sequence again. The events are found by
+   * searching the track for the ticks of the start and end of the note. Does nothing if no
+   * sequence has been created yet, or if the note has no events in it.
+   *
+   * @param start        the starting position of the note (measured in beats)
+   * @param end          the ending position of the note (measured in beats)
+   * @param instrument   the instrument the note is played in [0, 127]
+   * @param pitch        the pitch at which the note is played
+   * @param volume       the volume at which the note is played [0, 127]
+   */
+  protected void removeNote(int start, int end, int instrument, int pitch, int volume) {
+    if (this.track == null) {
+      return;
+    }
+    int midiPitch = Math.max(0, Math.min(127, pitch));
+    MidiEvent addInstrum = this.findEvent(start, ShortMessage.PROGRAM_CHANGE, instrument, 0);
+    MidiEvent startEvent = this.findEvent(start, ShortMessage.NOTE_ON, midiPitch, volume);
+    MidiEvent stopEvent = this.findEvent(end, ShortMessage.NOTE_OFF, midiPitch, volume);
+    if (addInstrum != null && startEvent != null && stopEvent != null) {
+      this.track.remove(addInstrum);
+      this.track.remove(startEvent);
+      this.track.remove(stopEvent);
+    }
+  }
+
+  /**
+   * Helper to the removeNote method. Finds an event at the given tick of the current track with
+   * the given message, using a binary search for the first event at the tick, as the events of
+   * a track are kept in order of their ticks.
+   *
+   * @param tick      the tick of the event
+   * @param command   the command of the event's message
+   * @param data1     the first data byte of the event's message
+   * @param data2     the second data byte of the event's message
+   * @return the event, or null if there is no such event at the tick
+   */
+  private MidiEvent findEvent(long tick, int command, int data1, int data2) {
+    int low = 0;
+    int high = this.track.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.track.get(mid).getTick() < tick) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    for (int i = low; i < this.track.size() && this.track.get(i).getTick() == tick; i++) {
+      MidiEvent event = this.track.get(i);
+      if (event.getMessage() instanceof ShortMessage) {
+        ShortMessage msg = (ShortMessage) event.getMessage();
+        if (msg.getCommand() == command && msg.getData1() == data1
+            && msg.getData2() == data2) {
+          return event;
+        }
+      }
+    }
+    return null;
+  }
+
   @Override
   public String getLog() {
     return this.log.toString();
@@ -201,19 +332,100 @@ public class MidiView implements MusicEditorView {
     return;
   }
 
+  /**
+   * Creates the sequence of the notes currently in the model and sets it in the sequencer. The
+   * sequence is only created if it has not been yet, or another piece has been opened since, as
+   * every other change to the model is patched into it as it is made.
+   */
   @Override
   public void update() {
     try {
-      this.sequence = createSequence(this.model.getNotes());
-      if (this.sequencer.isOpen()) {
-        this.sequencer.close();
+      if (this.sequence == null) {
+        PieceSnapshot snapshot = this.model.getSnapshot();
+        this.sequence = this.createSequence(snapshot);
+        this.track = this.sequence.getTracks()[0];
+        this.version = Math.max(this.version, snapshot.getVersion());
+      }
+      if (!this.sequencer.isOpen()) {
+        this.sequencer.open();
       }
-      this.sequencer.open();
       this.sequencer.setSequence(this.sequence);
     } catch (InvalidMidiDataException e) {
-      this.log.append("Encountered fatal InvalidMidiDataException: " + e.getMessage() + "\n");
+      this.log.add("MidiView", "Encountered fatal InvalidMidiDataException: " + e.getMessage());
     } catch (MidiUnavailableException e) {
-      this.log.append("Encountered fatal MidiUnavailableException: " + e.getMessage() + "\n");
+      this.log.add("MidiView", "Encountered fatal MidiUnavailableException: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Represents the listener this view registers with its model, which patches the events of the
+   * current sequence with every change to the piece. Events no newer than the version of the
+   * piece the sequence was created from are skipped, as are events before the sequence is
+   * created. A new tempo is set in the sequencer straight away if it is playing.
+   */
+  private final class SequencePatcher implements MusicEditorListener {
+    @Override
+    public void noteAdded(long version, int start, int end, int instrument, int pitch,
+                          int volume) {
+      if (this.isNew(version)) {
+        addNote(start, end, instrument, pitch, volume);
+      }
+    }
+
+    @Override
+    public void noteRemoved(long version, int start, int end, int instrument, int pitch,
+                            int volume) {
+      if (this.isNew(version)) {
+        removeNote(start, end, instrument, pitch, volume);
+      }
+    }
+
+    @Override
+    public void noteMoved(long version, int start, int end, int instrument, int pitch,
+                          int volume, int newStart, int newPitch) {
+      if (this.isNew(version)) {
+        removeNote(start, end, instrument, pitch, volume);
+        addNote(newStart, newStart + (end - start), instrument, newPitch, volume);
+      }
+    }
+
+    @Override
+    public void noteResized(long version, int start, int end, int instrument, int pitch,
+                            int volume, int newEnd) {
+      if (this.isNew(version)) {
+        removeNote(start, end, instrument, pitch, volume);
+        addNote(start, newEnd, instrument, pitch, volume);
+      }
+    }
+
+    @Override
+    public void tempoChanged(long version, int tempo, int newTempo) {
+      if (this.isNew(version) && sequencer.isRunning()) {
+        sequencer.setTempoInMPQ(newTempo);
+      }
+    }
+
+    @Override
+    public void pieceChanged(long version) {
+      if (this.isNew(version)) {
+        sequence = null;
+        track = null;
+      }
+    }
+
+    /**
+     * Checks if an event is newer than the version of the piece the sequence was created from,
+     * and if so moves this view on to its version.
+     *
+     * @param version   the version of the model after the change
+     * @return true if the event is new, false if it should be skipped
+     */
+    private boolean isNew(long version) {
+      if (version <= MidiView.this.version) {
+        return false;
+      }
+      MidiView.this.version = version;
+      return true;
     }
   }
 }
@@ -17,6 +17,8 @@ public interface MusicEditorView {
 
   /**
    * Gets the log of all operations that the view has done at the point of calling this method.
+   * Views keep their logs in {@link cs3500.music.util.EventLog}s, so only the most recent
+   * operations are included, one per line.
    *
    * @return the log of operations as a String
    */
@@ -30,6 +32,14 @@ public interface MusicEditorView {
    */
   Map<Integer, Runnable> getKeyEventRunnables();
 
+  /**
+   * Checks whether or not the view is playing the piece. The model should not be edited while it
+   * is, as views that play the piece cannot follow edits mid-play.
+   *
+   * @return true if the view is playing the piece, false otherwise
+   */
+  boolean isPlaying();
+
   /**
    * Adds the key listener for handling key events, as well as the controller for updating the
    * model from changes within view.
@@ -1,6 +1,7 @@
 package cs3500.music.view;
 
 import cs3500.music.model.Pitch;
+import cs3500.music.util.EventLog;
 import cs3500.music.util.MidiConversion;
 
 import javax.swing.JPanel;
@@ -8,6 +9,7 @@ import javax.swing.JPanel;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Color;
+import java.awt.Rectangle;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -27,7 +29,7 @@ public class PianoPanel extends JPanel {
   private static final int KEY_HEIGHT = 200;
   private static final double SHARP_KEY_MULTIPLIER = 0.5;
 
-  private final StringBuilder log;
+  private final EventLog log;
   private Map<Integer, List<Pitch>> highlights;
   private int numOctaves;
   private int numKeys;
@@ -59,16 +61,50 @@ public class PianoPanel extends JPanel {
     }
     this.setPreferredSize(new Dimension(width, KEY_HEIGHT + 30));
     this.initKeyMouseAreas(width);
-    this.log = new StringBuilder();
+    this.log = new EventLog();
   }
 
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
+    Rectangle clip = g.getClipBounds();
     int position = getStartPos(getWidth());
+    int octaveWidth = this.numKeys * KEY_WIDTH;
     for (int i = 0; i < 10; i++) {
-      position = drawOctave(g, position, i, this.highlights.getOrDefault(i, new ArrayList<>()));
+      if (clip != null && (position + octaveWidth < clip.x
+          || position - KEY_WIDTH > clip.x + clip.width)) {
+        position += octaveWidth;
+      } else {
+        position = drawOctave(g, position, i,
+            this.highlights.getOrDefault(i, new ArrayList<>()));
+      }
+    }
+  }
+
+  /**
+   * Gets the bounds of the key for the given pitch in the given octave as it is drawn, including
+   * its outline.
+   *
+   * @param octave   the number of the octave the key is in, starting from 0
+   * @param pitch    the pitch of the key
+   * @return the bounds of the key
+   */
+  private Rectangle getKeyBounds(int octave, Pitch pitch) {
+    int position = getStartPos(getWidth()) + (octave * this.numKeys * KEY_WIDTH);
+    for (Pitch p : Pitch.values()) {
+      if (p == pitch) {
+        break;
+      } else if (!p.isSharp()) {
+        position += KEY_WIDTH;
+      }
+    }
+    if (pitch.isSharp()) {
+      int sharpKeyWidth = (int) (KEY_WIDTH * SHARP_KEY_MULTIPLIER);
+      int sharpKeyHeight = (int) (KEY_HEIGHT * SHARP_KEY_MULTIPLIER);
+      return new Rectangle(position - ((3 * sharpKeyWidth) / 4), 0, sharpKeyWidth + 1,
+          sharpKeyHeight + 1);
     }
+    return new Rectangle(position, 0, KEY_WIDTH + 1, KEY_HEIGHT + 1);
   }
 
   /**
@@ -210,6 +246,7 @@ public class PianoPanel extends JPanel {
     if (notes == null || notes.contains(null)) {
       throw new IllegalArgumentException("Cannot pass uninitialized note or list of notes.");
     }
+    Map<Integer, List<Pitch>> previous = this.highlights;
     this.highlights = new TreeMap<>();
     for (Integer[] note : notes) {
       int octave = MidiConversion.getOctave(note[MidiConversion.NOTE_PITCH]) - 1;
@@ -220,6 +257,30 @@ public class PianoPanel extends JPanel {
         this.highlights.put(octave, new ArrayList<>(Arrays.asList(pitch)));
       }
     }
+    if (previous != null) {
+      this.repaintChangedKeys(previous);
+    }
+  }
+
+  /**
+   * Helper to the updateHighlights method. Repaints only the keys that were highlighted before
+   * and are not now, or the other way around.
+   *
+   * @param previous   the pitches highlighted in each octave before the update
+   */
+  private void repaintChangedKeys(Map<Integer, List<Pitch>> previous) {
+    for (int i = 0; i < this.numOctaves; i++) {
+      List<Pitch> before = previous.getOrDefault(i, new ArrayList<>());
+      List<Pitch> after = this.highlights.getOrDefault(i, new ArrayList<>());
+      if (before.isEmpty() && after.isEmpty()) {
+        continue;
+      }
+      for (Pitch p : Pitch.values()) {
+        if (before.contains(p) != after.contains(p)) {
+          this.repaint(this.getKeyBounds(i, p));
+        }
+      }
+    }
   }
 
   /**
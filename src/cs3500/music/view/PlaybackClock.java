@@ -0,0 +1,84 @@
+package cs3500.music.view;
+
+import java.util.function.IntConsumer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Represents the clock that keeps a visual view in step with the playback of a MIDI view. Rather
+ * than polling the sequencer in a loop, the clock checks the position of the sequencer on a
+ * Swing timer, at about the refresh rate of a display, and once more when the sequencer reaches
+ * the end of the piece. Changes of beat are passed on from the event dispatch thread.
+ */
+public class PlaybackClock {
+  private static final int REFRESH_DELAY = 16;
+  private static final int END_OF_TRACK = 47;
+
+  private final MidiView midi;
+  private final IntConsumer beatListener;
+  private final Timer timer;
+  private int beat;
+
+  /**
+   * Constructs a new {@code PlaybackClock} for the given MIDI view, which passes every change of
+   * beat during playback to the given listener.
+   *
+   * @param midi           the MIDI view whose playback is followed
+   * @param beatListener   the listener given the new beat whenever it changes
+   * @throws IllegalArgumentException if the given view or listener is uninitialized
+   */
+  protected PlaybackClock(MidiView midi, IntConsumer beatListener)
+      throws IllegalArgumentException {
+    if (midi == null || beatListener == null) {
+      throw new IllegalArgumentException("Cannot pass uninitialized MIDI view or listener.");
+    }
+    this.midi = midi;
+    this.beatListener = beatListener;
+    this.timer = new Timer(REFRESH_DELAY, e -> this.tick());
+    this.beat = -1;
+    this.midi.addMetaEventListener(meta -> {
+      if (meta.getType() == END_OF_TRACK) {
+        SwingUtilities.invokeLater(this::tick);
+      }
+    });
+  }
+
+  /**
+   * Starts following the playback of the MIDI view. Should be called once playback has started.
+   */
+  protected void start() {
+    this.beat = -1;
+    this.timer.start();
+  }
+
+  /**
+   * Stops following the playback of the MIDI view.
+   */
+  protected void stop() {
+    this.timer.stop();
+  }
+
+  /**
+   * Checks whether or not this clock is following the playback of the MIDI view.
+   *
+   * @return true if the clock is running, false otherwise
+   */
+  protected boolean isRunning() {
+    return this.timer.isRunning();
+  }
+
+  /**
+   * Checks the current beat of the MIDI view, passing it to the listener if it has changed since
+   * the last check. Stops the clock once the MIDI view is no longer playing.
+   */
+  protected void tick() {
+    int position = this.midi.getTickPosition();
+    if (position != this.beat) {
+      this.beat = position;
+      this.beatListener.accept(position);
+    }
+    if (!this.midi.isPlaying()) {
+      this.timer.stop();
+    }
+  }
+}
@@ -20,6 +20,8 @@ public class MusicEditorControllerTest {
   private KeyEvent end;
   private KeyEvent space;
   private KeyEvent doesNothing;
+  private KeyEvent undo;
+  private KeyEvent redo;
   private static final int MARY_LAMB_PIECE_SIZE = 64;
 
   // Initializes the visual view
@@ -35,6 +37,8 @@ public class MusicEditorControllerTest {
     end = new KeyEvent(a, 2, 20, 1, KeyEvent.VK_END, 'e');
     space = new KeyEvent(a, 2, 20, 1, KeyEvent.VK_SPACE, ' ');
     doesNothing = new KeyEvent(a, 2, 20, 1, KeyEvent.VK_3, '3');
+    undo = new KeyEvent(a, 2, 20, KeyEvent.CTRL_DOWN_MASK, KeyEvent.VK_Z, 'z');
+    redo = new KeyEvent(a, 2, 20, KeyEvent.CTRL_DOWN_MASK, KeyEvent.VK_Y, 'y');
   }
 
   // Initializes the composite view
@@ -88,6 +92,38 @@ public class MusicEditorControllerTest {
     assertEquals(before, controller.getLog());
   }
 
+  @Test
+  public void testUndoWithNoEdits() {
+    initVisualView();
+    assertEquals(false, controller.undo());
+    assertEquals(false, controller.redo());
+  }
+
+  @Test
+  public void testCtrlZUndoesAndCtrlYRedoes() {
+    initVisualView();
+    controller.addNote(0, 3, 1, 60, 100);
+    controller.keyPressed(undo);
+    assertEquals(false, controller.undo());
+    controller.keyPressed(redo);
+    assertEquals(false, controller.redo());
+    assertEquals(true, controller.undo());
+  }
+
+  @Test
+  public void testCannotUndoDuringCompositeViewPlaying() {
+    initVisualView();
+    controller.setModelAndView("resources/mary-little-lamb.txt", "composite");
+    controller.addNote(0, 3, 1, 60, 100);
+    controller.keyPressed(undo);
+    assertEquals(false, controller.undo());
+    controller.keyPressed(space);
+    assertEquals(true, controller.undo());
+    controller.keyPressed(space);
+    controller.keyPressed(redo);
+    assertEquals(false, controller.redo());
+  }
+
   @Test
   public void testEndWorks() {
     initVisualView();
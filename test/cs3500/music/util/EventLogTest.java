@@ -0,0 +1,155 @@
+package cs3500.music.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link EventLog} class.
+ */
+public class EventLogTest {
+  private final EventLog log = new EventLog(3);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorZeroCapacity() {
+    new EventLog(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void addNullSource() {
+    this.log.add(null, "message");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void addNullMessage() {
+    this.log.add("source", null);
+  }
+
+  @Test
+  public void emptyLog() {
+    assertEquals("", this.log.toString());
+    assertEquals(0, this.log.getEntries().size());
+    assertEquals(0, this.log.getDropped());
+  }
+
+  @Test
+  public void addKeepsEntries() {
+    this.log.add("a", "first");
+    this.log.add("b", "second");
+    assertEquals("first\nsecond\n", this.log.toString());
+    List<EventLog.Entry> entries = this.log.getEntries();
+    assertEquals(2, entries.size());
+    assertEquals(0, entries.get(0).getSequence());
+    assertEquals("a", entries.get(0).getSource());
+    assertEquals("first", entries.get(0).getMessage());
+    assertEquals(1, entries.get(1).getSequence());
+    assertEquals("b", entries.get(1).getSource());
+    assertTrue(entries.get(0).getTime() <= entries.get(1).getTime());
+  }
+
+  @Test
+  public void addPastCapacityDropsOldest() {
+    for (int i = 0; i < 5; i++) {
+      this.log.add("a", Integer.toString(i));
+    }
+    assertEquals("2\n3\n4\n", this.log.toString());
+    assertEquals(2, this.log.getDropped());
+    assertEquals(2, this.log.getEntries().get(0).getSequence());
+  }
+
+  @Test
+  public void drainToOnlyWritesNewEntries() throws IOException {
+    StringBuilder sink = new StringBuilder();
+    this.log.add("a", "0");
+    this.log.add("a", "1");
+    assertEquals(2, this.log.drainTo(sink));
+    assertEquals(0, this.log.drainTo(sink));
+    this.log.add("a", "2");
+    assertEquals(1, this.log.drainTo(sink));
+    assertEquals("0\n1\n2\n", sink.toString());
+    assertEquals("0\n1\n2\n", this.log.toString());
+  }
+
+  @Test
+  public void drainToSkipsDroppedEntries() throws IOException {
+    StringBuilder sink = new StringBuilder();
+    for (int i = 0; i < 5; i++) {
+      this.log.add("a", Integer.toString(i));
+    }
+    assertEquals(3, this.log.drainTo(sink));
+    assertEquals("2\n3\n4\n", sink.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void drainToNullSink() throws IOException {
+    this.log.drainTo(null);
+  }
+
+  @Test
+  public void addFromManyThreads() throws InterruptedException {
+    EventLog shared = new EventLog(100);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      String source = Integer.toString(t);
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          shared.add(source, Integer.toString(i));
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    List<EventLog.Entry> entries = shared.getEntries();
+    assertEquals(100, entries.size());
+    assertEquals(39900, shared.getDropped());
+    for (int i = 0; i < entries.size(); i++) {
+      assertEquals(39900 + i, entries.get(i).getSequence());
+    }
+  }
+
+  @Test
+  public void drainWhileAddingFromManyThreadsSkipsNothing() throws InterruptedException,
+      IOException {
+    EventLog shared = new EventLog(40000);
+    StringBuilder sink = new StringBuilder();
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      String source = Integer.toString(t);
+      Thread thread = new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          shared.add(source, source + "-" + i);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    int drained = 0;
+    while (threads.stream().anyMatch(Thread::isAlive)) {
+      drained += shared.drainTo(sink);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    drained += shared.drainTo(sink);
+    assertEquals(40000, drained);
+    Map<String, Long> sequences = new HashMap<>();
+    for (EventLog.Entry entry : shared.getEntries()) {
+      sequences.put(entry.getMessage(), entry.getSequence());
+    }
+    String[] lines = sink.toString().split("\n");
+    assertEquals(40000, lines.length);
+    for (int i = 0; i < lines.length; i++) {
+      assertEquals(i, (long) sequences.get(lines[i]));
+    }
+  }
+}
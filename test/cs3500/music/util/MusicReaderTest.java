@@ -0,0 +1,77 @@
+package cs3500.music.util;
+
+import cs3500.music.model.MusicEditorBuilder;
+import cs3500.music.model.MusicEditorOperations;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the {@link MusicReader} class.
+ */
+public class MusicReaderTest {
+  /**
+   * Parses the given text into a new model, or returns the message of the exception thrown.
+   *
+   * @param text   the text to be parsed
+   * @return the parsed model, or the message of the exception thrown while parsing
+   */
+  private Object parse(String text) {
+    try {
+      return MusicReader.parseFile(new StringReader(text), new MusicEditorBuilder());
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  // Tests for the parseFile method
+  @Test
+  public void parseFileTempoAndNotes() {
+    MusicEditorOperations model = (MusicEditorOperations) parse("tempo 200000\n"
+        + "note 0 2 1 60 64\r\nnote 4 8 2 72 100\n");
+    assertEquals(200000, model.getTempo());
+    assertEquals(2, model.getNotes().size());
+    assertEquals(72, (int) model.getNotes().get(1)[MidiConversion.NOTE_PITCH]);
+    assertEquals(100, (int) model.getNotes().get(1)[MidiConversion.NOTE_VOLUME]);
+  }
+
+  @Test
+  public void parseFileTokensAcrossLines() {
+    MusicEditorOperations model = (MusicEditorOperations) parse("note 0 2\n\t1 +60\n 64");
+    assertEquals(1, model.getNotes().size());
+    assertEquals(60, (int) model.getNotes().get(0)[MidiConversion.NOTE_PITCH]);
+  }
+
+  @Test
+  public void parseFileLongInput() {
+    StringBuilder text = new StringBuilder("tempo 100000\n");
+    for (int i = 0; i < 5000; i++) {
+      text.append("note ").append(i).append(' ').append(i + 1).append(" 1 60 64\n");
+    }
+    assertEquals(5000, ((MusicEditorOperations) parse(text.toString())).getNotes().size());
+  }
+
+  @Test
+  public void parseFileBadLineType() {
+    assertEquals("Bad line type: notes", parse("tempo 1\nnotes 0 2 1 60 64\n"));
+  }
+
+  @Test
+  public void parseFileMalformedTempo() {
+    assertEquals("Malformed tempo line: fast", parse("tempo fast\nnote 0 2 1 60 64\n"));
+  }
+
+  @Test
+  public void parseFileMalformedNote() {
+    assertEquals("Malformed note line: x 60 64", parse("note 0 2 x 60 64\nnote 0 2 1 60 64"));
+  }
+
+  @Test
+  public void parseFileIntegerOverflow() {
+    assertEquals("Malformed note line: 2147483648 1 60 64",
+        parse("note 0 2147483648 1 60 64\n"));
+  }
+}
@@ -5,6 +5,8 @@ import cs3500.music.model.MusicEditorBuilder;
 
 import org.junit.Test;
 
+import java.io.StringWriter;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -89,6 +91,33 @@ public class ConsoleViewTest {
     assertEquals(output, this.app.toString());
   }
 
+  @Test
+  public void initializeOverlappingNotes() {
+    MusicEditorOperations model = builder.addNote(0, 5, 1, 60, 100).addNote(2, 3, 1, 60, 100)
+        .addNote(3, 4, 1, 62, 100).build();
+    init(model);
+    this.view.initialize();
+    assertEquals(""
+        + "     C4  C#4   D4 \n"
+        + "0    X            \n"
+        + "1    |            \n"
+        + "2    X            \n"
+        + "3    |         X  \n"
+        + "4    |         |  \n"
+        + "5    |            \n", this.app.toString());
+  }
+
+  @Test
+  public void initializeWriter() {
+    StringWriter writer = new StringWriter();
+    new ConsoleView.Builder(builder.addNote(0, 1, 4, 60, 64).build()).setAppendable(writer)
+        .build().initialize();
+    assertEquals(""
+        + "     C4 \n"
+        + "0    X  \n"
+        + "1    |  \n", writer.toString());
+  }
+
   @Test
   public void initializeMaryLittleLamb() {
     MusicEditorOperations model = builder.setTempo(200000)
@@ -175,4 +204,34 @@ public class ConsoleViewTest {
         + "64    |                                       |                                     \n";
     assertEquals(output, this.app.toString());
   }
+
+  @Test
+  public void updateUnchangedModelPrintsNothing() {
+    MusicEditorOperations model = builder.addNote(0, 1, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    this.view.update();
+    assertEquals(""
+        + "     C4 \n"
+        + "0    X  \n"
+        + "1    |  \n", this.app.toString());
+  }
+
+  @Test
+  public void updateChangedModelPrintsAgain() {
+    MusicEditorOperations model = builder.addNote(0, 1, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    model.editNoteDuration(0, 4, 60, 3);
+    this.view.update();
+    this.view.update();
+    assertEquals(""
+        + "     C4 \n"
+        + "0    X  \n"
+        + "1    |  \n"
+        + "     C4 \n"
+        + "0    X  \n"
+        + "1    |  \n"
+        + "2    |  \n", this.app.toString());
+  }
 }
@@ -1,10 +1,22 @@
 package cs3500.music.view;
 
+import cs3500.music.model.ConcurrentModel;
 import cs3500.music.model.MusicEditorBuilder;
 import cs3500.music.model.MusicEditorOperations;
 import org.junit.Test;
 
 import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
 
 import static org.junit.Assert.assertEquals;
 
@@ -114,4 +126,314 @@ public class EditorPanelTest {
     ep.updateCursor(false);
     assertEquals(0, ep.getCursorPosition());
   }
+
+  /**
+   * Paints the given editor panel into a new image, only within the given clip.
+   *
+   * @param panel   the editor panel to be painted
+   * @param clip    the bounds of the panel to be painted
+   * @return the painted image
+   */
+  private BufferedImage paint(EditorPanel panel, Rectangle clip) {
+    flushEvents();
+    BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(),
+        BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setClip(clip);
+    panel.paintComponent(g);
+    g.dispose();
+    return image;
+  }
+
+  /**
+   * Waits for the event dispatch thread to handle every event already queued on it, such as the
+   * patches an editor panel makes for edits made on other threads.
+   */
+  private static void flushEvents() {
+    try {
+      SwingUtilities.invokeAndWait(() -> { });
+    } catch (InterruptedException | InvocationTargetException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @Test
+  public void paintClippedSameAsFullPaint() {
+    model = m1.build();
+    for (int i = 0; i < 200; i++) {
+      model.addNote(i, i + 1 + ((i * 7) % 40), 1, 48 + ((i * 5) % 24), 100);
+    }
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    for (int i = 0; i < 70; i++) {
+      ep.updateCursor(true);
+    }
+    BufferedImage full = paint(ep, new Rectangle(0, 0, 600, 400));
+    Rectangle[] clips = {new Rectangle(0, 0, 600, 50), new Rectangle(35, 100, 97, 83),
+        new Rectangle(300, 0, 30, 400), new Rectangle(571, 377, 29, 23)};
+    for (Rectangle clip : clips) {
+      BufferedImage clipped = paint(ep, clip);
+      for (int x = clip.x; x < clip.x + clip.width; x++) {
+        for (int y = clip.y; y < clip.y + clip.height; y++) {
+          assertEquals(full.getRGB(x, y), clipped.getRGB(x, y));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void paintAfterEditSameAsNewPanel() {
+    model = m1.build();
+    for (int i = 0; i < 200; i++) {
+      model.addNote(i, i + 1 + ((i * 7) % 40), 1, 48 + ((i * 5) % 24), 100);
+    }
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    Rectangle bounds = new Rectangle(0, 0, 600, 400);
+    paint(ep, bounds);
+    model.addNote(5, 9, 1, 50, 100);
+    model.removeNote(12, 1, 48 + ((12 * 5) % 24));
+    flushEvents();
+    ep.update(model, 600, 400);
+    EditorPanel fresh = new EditorPanel(model, 600, 400);
+    fresh.setSize(600, 400);
+    BufferedImage edited = paint(ep, bounds);
+    BufferedImage expected = paint(fresh, bounds);
+    for (int x = 0; x < 600; x++) {
+      for (int y = 0; y < 400; y++) {
+        assertEquals(expected.getRGB(x, y), edited.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void paintAfterEveryKindOfEditSameAsNewPanel() {
+    model = m1.build();
+    for (int i = 0; i < 200; i++) {
+      model.addNote(i, i + 1 + ((i * 7) % 40), 1, 48 + ((i * 5) % 24), 100);
+    }
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    Rectangle bounds = new Rectangle(0, 0, 600, 400);
+    paint(ep, bounds);
+    model.addNote(3, 6, 1, 61, 100);
+    assertSameAsNewPanel(bounds);
+    model.editNotePitch(3, 1, 61, 64);
+    assertSameAsNewPanel(bounds);
+    model.editNotePosition(3, 1, 64, 17);
+    assertSameAsNewPanel(bounds);
+    model.editNoteDuration(17, 1, 64, 9);
+    assertSameAsNewPanel(bounds);
+    model.editNoteDuration(0, 1, 48, 30);
+    assertSameAsNewPanel(bounds);
+    model.addNote(2, 4, 1, 80, 100);
+    assertSameAsNewPanel(bounds);
+    model.undo();
+    assertSameAsNewPanel(bounds);
+    model.removeNote(199, 1, 48 + ((199 * 5) % 24));
+    assertSameAsNewPanel(bounds);
+  }
+
+  @Test
+  public void paintAfterOpeningPieceSameAsNewPanel() {
+    model = m1.build();
+    model.addNote(0, 30, 1, 60, 100);
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    Rectangle bounds = new Rectangle(0, 0, 600, 400);
+    paint(ep, bounds);
+    model.create();
+    model.addNote(2, 8, 1, 50, 100);
+    model.addNote(4, 5, 1, 70, 100);
+    assertSameAsNewPanel(bounds);
+  }
+
+  @Test
+  public void paintEmptyPiece() {
+    model = m1.build();
+    model.create();
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    paint(ep, new Rectangle(0, 0, 600, 400));
+  }
+
+  @Test
+  public void paintAfterRemovingOnlyNoteSameAsNewPanel() {
+    model = m1.build();
+    model.create();
+    model.addNote(0, 4, 1, 60, 100);
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    Rectangle bounds = new Rectangle(0, 0, 600, 400);
+    paint(ep, bounds);
+    model.removeNote(0, 1, 60);
+    assertSameAsNewPanel(bounds);
+    model.undo();
+    assertSameAsNewPanel(bounds);
+    model.undo();
+    assertSameAsNewPanel(bounds);
+  }
+
+  /**
+   * Checks that the editor panel paints the same within the given bounds as a new panel of the
+   * same model.
+   *
+   * @param bounds   the bounds of the panels to be painted
+   */
+  private void assertSameAsNewPanel(Rectangle bounds) {
+    flushEvents();
+    ep.update(model, bounds.width, bounds.height);
+    EditorPanel fresh = new EditorPanel(model, bounds.width, bounds.height);
+    fresh.setSize(bounds.width, bounds.height);
+    assertEquals(fresh.getPreferredSize(), ep.getPreferredSize());
+    BufferedImage edited = paint(ep, bounds);
+    BufferedImage expected = paint(fresh, bounds);
+    for (int x = 0; x < bounds.width; x++) {
+      for (int y = 0; y < bounds.height; y++) {
+        assertEquals(expected.getRGB(x, y), edited.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void editFromAnotherThreadPatchedOnEventThread() throws InterruptedException {
+    init();
+    ep = new EditorPanel(model, 600, 400);
+    Dimension before = ep.getPreferredSize();
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SwingUtilities.invokeLater(() -> {
+      blocked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    blocked.await();
+    try {
+      model.addNote(0, 4, 1, 72, 100);
+      assertEquals(before, ep.getPreferredSize());
+    } finally {
+      release.countDown();
+    }
+    flushEvents();
+    ep.update(model, 600, 400);
+    assertEquals(new EditorPanel(model, 600, 400).getPreferredSize(), ep.getPreferredSize());
+  }
+
+  @Test(timeout = 60000)
+  public void paintWhileEditedFromAnotherThreadSameAsNewPanel() throws InterruptedException {
+    model = new ConcurrentModel(m1.build());
+    for (int i = 0; i < 100; i++) {
+      model.addNote(i, i + 1 + ((i * 7) % 40), 1, 48 + ((i * 5) % 24), 100);
+    }
+    ep = new EditorPanel(model, 600, 400);
+    ep.setSize(600, 400);
+    Rectangle bounds = new Rectangle(0, 0, 600, 400);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread editor = new Thread(() -> {
+      try {
+        for (int i = 0; i < 500; i++) {
+          int start = (i * 3) % 120;
+          int pitch = 40 + ((i * 11) % 40);
+          model.addNote(start, start + 1 + (i % 9), 2, pitch, 100);
+          if (i % 3 == 0) {
+            model.editNotePosition(start, 2, pitch, start + 7);
+          } else if (i % 3 == 1) {
+            model.removeNote(start, 2, pitch);
+          }
+        }
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    editor.start();
+    while (editor.isAlive()) {
+      try {
+        SwingUtilities.invokeAndWait(() -> {
+          BufferedImage image = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+          Graphics2D g = image.createGraphics();
+          ep.paintComponent(g);
+          g.dispose();
+        });
+      } catch (InvocationTargetException e) {
+        throw new AssertionError(e.getCause());
+      }
+    }
+    editor.join();
+    assertEquals(null, failure.get());
+    assertSameAsNewPanel(bounds);
+  }
+
+  @Test
+  public void updateCursorRepaintsOnlyCursorAndProgress() {
+    init();
+    ep = new EditorPanel(model, 2000, 400);
+    ep.setSize(2000, 400);
+    RecordingRepaintManager manager = new RecordingRepaintManager();
+    RepaintManager.setCurrentManager(manager);
+    try {
+      ep.updateCursor(true);
+    } finally {
+      RepaintManager.setCurrentManager(null);
+    }
+    List<Rectangle> regions = manager.getRegions(ep);
+    assertEquals(3, regions.size());
+    assertEquals(new Rectangle(32, 22, 16, 59), regions.get(0));
+    assertEquals(new Rectangle(62, 22, 16, 59), regions.get(1));
+    assertEquals(new Rectangle(0, 0, 2000, 2), regions.get(2));
+  }
+
+  @Test
+  public void updateCursorRepaintsAllWhenScrolling() {
+    init();
+    ep = new EditorPanel(model, 200, 400);
+    ep.setSize(200, 400);
+    RecordingRepaintManager manager = new RecordingRepaintManager();
+    RepaintManager.setCurrentManager(manager);
+    try {
+      ep.updateCursor(true);
+    } finally {
+      RepaintManager.setCurrentManager(null);
+    }
+    assertEquals(Arrays.asList(new Rectangle(0, 0, 200, 400)), manager.getRegions(ep));
+  }
+
+  @Test
+  public void setCursorPositionLogsOnce() {
+    init();
+    assertEquals(17, ep.setCursorPosition(17));
+    assertEquals(17, ep.getCursorPosition());
+    assertEquals("<EP>cJmp:- 17 </EP>\n", ep.getLog());
+  }
+
+  @Test
+  public void setCursorPositionStopsAtEnds() {
+    init();
+    assertEquals(30, ep.setCursorPosition(1000));
+    assertEquals(0, ep.setCursorPosition(-4));
+    assertEquals(0, ep.getCursorPosition());
+  }
+
+  @Test
+  public void setCursorPositionSameAsStepping() {
+    init();
+    ep = new EditorPanel(model, 300, 400);
+    ep.setSize(300, 400);
+    EditorPanel stepped = new EditorPanel(model, 300, 400);
+    stepped.setSize(300, 400);
+    Rectangle bounds = new Rectangle(0, 0, 300, 400);
+    for (int i = 0; i < 30; i++) {
+      stepped.updateCursor(true);
+    }
+    ep.setCursorPosition(30);
+    BufferedImage expected = paint(stepped, bounds);
+    BufferedImage actual = paint(ep, bounds);
+    for (int x = 0; x < 300; x++) {
+      for (int y = 0; y < 400; y++) {
+        assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
 }
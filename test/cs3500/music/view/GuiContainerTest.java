@@ -58,6 +58,18 @@ public class GuiContainerTest {
     assertEquals(gc.getLog(), "");
   }
 
+  @Test
+  public void getLogDoesNotGrowOnRead() {
+    init();
+    model.addNote(0, 30, 1, 24, 64);
+    gc = new GuiContainer(model, 1100);
+    gc.updatePosition(true);
+    gc.updatePosition(false);
+    String log = gc.getLog();
+    assertEquals("<EP>cFor:- 1 </EP>\n<EP>cBac:- 0 </EP>\n", log);
+    assertEquals(log, gc.getLog());
+  }
+
   // Tests for the getNote method
   @Test(expected = IllegalArgumentException.class)
   public void getNoteNullMouseEvent() {
@@ -169,6 +181,29 @@ public class GuiContainerTest {
     assertEquals(30, gc.getCursorPosition());
   }
 
+  // Tests for the jumpToBeat method
+  @Test
+  public void jumpToBeatValid() {
+    init();
+    model.addNote(0, 30, 1, 24, 64);
+    gc = new GuiContainer(model, 1100);
+    gc.jumpToBeat(12);
+    assertEquals(12, gc.getCursorPosition());
+    gc.jumpToBeat(3);
+    assertEquals(3, gc.getCursorPosition());
+  }
+
+  @Test
+  public void jumpToBeatPastEnds() {
+    init();
+    model.addNote(0, 30, 1, 24, 64);
+    gc = new GuiContainer(model, 1100);
+    gc.jumpToBeat(45);
+    assertEquals(30, gc.getCursorPosition());
+    gc.jumpToBeat(-1);
+    assertEquals(0, gc.getCursorPosition());
+  }
+
   // Tests for the updatePosition method
   @Test
   public void updatePositionNoNotes() {
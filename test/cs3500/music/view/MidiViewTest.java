@@ -4,10 +4,12 @@ import cs3500.music.model.MusicEditorBuilder;
 import cs3500.music.model.MusicEditorOperations;
 
 import javax.sound.midi.MidiUnavailableException;
+import javax.sound.midi.Sequence;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * Tests for the {@link MidiView} class, using the {@link MockSequencer} to test how the MidiView
@@ -122,4 +124,132 @@ public class MidiViewTest {
         + "note 56 64 1 52 72\n"
         + "note 56 64 1 60 73\n", this.seq.getLog());
   }
+
+  @Test
+  public void addNoteAfterInitialize() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    Sequence sequence = this.seq.getSequence();
+    model.addNote(2, 5, 1, 62, 70);
+    this.view.play();
+    assertSame(sequence, this.seq.getSequence());
+    assertEquals("tempo 100\n"
+        + "note 0 3 4 60 64\n"
+        + "tempo 100\n"
+        + "note 0 3 4 60 64\n"
+        + "note 2 5 1 62 70\n", this.seq.getLog());
+  }
+
+  @Test
+  public void addNoteBeforeInitialize() {
+    MusicEditorOperations model = builder.setTempo(100).build();
+    init(model);
+    model.addNote(2, 5, 1, 62, 70);
+    this.view.initialize();
+    assertEquals("tempo 100\nnote 2 5 1 62 70\n", this.seq.getLog());
+  }
+
+  @Test
+  public void removeNoteAfterInitialize() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64)
+        .addNote(2, 4, 1, 60, 50).addNote(1, 3, 4, 55, 80).build();
+    init(model);
+    this.view.initialize();
+    model.removeNote(0, 4, 60);
+    this.view.play();
+    assertEquals("tempo 100\n"
+        + "note 1 3 4 55 80\n"
+        + "note 0 3 4 60 64\n"
+        + "note 2 4 1 60 50\n"
+        + "tempo 100\n"
+        + "note 1 3 4 55 80\n"
+        + "note 2 4 1 60 50\n", this.seq.getLog());
+  }
+
+  @Test
+  public void removeNoteNotInSequence() {
+    init(builder.setTempo(100).addNote(0, 3, 4, 60, 64).build());
+    this.view.initialize();
+    this.view.removeNote(0, 3, 4, 61, 64);
+    this.view.removeNote(1, 3, 4, 60, 64);
+    this.view.play();
+    assertEquals("tempo 100\nnote 0 3 4 60 64\ntempo 100\nnote 0 3 4 60 64\n",
+        this.seq.getLog());
+  }
+
+  @Test
+  public void updateUnchangedModelKeepsSequence() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    Sequence sequence = this.seq.getSequence();
+    this.view.update();
+    assertSame(sequence, this.seq.getSequence());
+  }
+
+  @Test
+  public void updateEditedModelKeepsPatchedSequence() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    Sequence sequence = this.seq.getSequence();
+    model.removeNote(0, 4, 60);
+    this.view.update();
+    assertSame(sequence, this.seq.getSequence());
+    this.view.play();
+    assertEquals("tempo 100\n"
+        + "note 0 3 4 60 64\n"
+        + "tempo 100\n", this.seq.getLog());
+  }
+
+  @Test
+  public void editsPatchedIntoSequence() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64)
+        .addNote(2, 4, 1, 62, 50).build();
+    init(model);
+    this.view.initialize();
+    model.editNotePosition(0, 4, 60, 5);
+    model.editNotePitch(2, 1, 62, 64);
+    model.editNoteDuration(2, 1, 64, 5);
+    this.view.play();
+    assertEquals("tempo 100\n"
+        + "note 0 3 4 60 64\n"
+        + "note 2 4 1 62 50\n"
+        + "tempo 100\n"
+        + "note 2 6 1 64 50\n"
+        + "note 5 8 4 60 64\n", this.seq.getLog());
+  }
+
+  @Test
+  public void undoPatchedIntoSequence() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    model.editNotePosition(0, 4, 60, 5);
+    model.undo();
+    this.view.play();
+    assertEquals("tempo 100\n"
+        + "note 0 3 4 60 64\n"
+        + "tempo 100\n"
+        + "note 0 3 4 60 64\n", this.seq.getLog());
+  }
+
+  @Test
+  public void updateOpenedPieceCreatesSequence() {
+    MusicEditorOperations model = builder.setTempo(100).addNote(0, 3, 4, 60, 64).build();
+    init(model);
+    this.view.initialize();
+    Sequence sequence = this.seq.getSequence();
+    model.create();
+    model.setTempo(200);
+    model.addNote(1, 2, 1, 50, 70);
+    this.view.update();
+    assertEquals(false, sequence == this.seq.getSequence());
+    this.view.play();
+    assertEquals("tempo 100\n"
+        + "note 0 3 4 60 64\n"
+        + "tempo 200\n"
+        + "note 1 2 1 50 70\n", this.seq.getLog());
+  }
 }
@@ -4,9 +4,15 @@ import cs3500.music.model.Pitch;
 import cs3500.music.util.MidiConversion;
 import org.junit.Test;
 
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import javax.swing.RepaintManager;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -55,4 +61,61 @@ public class PianoPanelTest {
     assertEquals(MidiConversion.getPitch(p.getPitch(maxNotePosition.getX(),
         maxNotePosition.getY())), Pitch.B);
   }
+
+  @Test
+  public void updateHighlightsRepaintsOnlyChangedKeys() {
+    init();
+    p = new PianoPanel(loai, 1050);
+    p.setSize(1050, 230);
+    List<Integer[]> next = new ArrayList<>();
+    next.add(new Integer[]{0, 1, 1, 60, 100});
+    next.add(new Integer[]{0, 1, 1, 61, 100});
+    next.add(new Integer[]{0, 1, 1, 62, 100});
+    RecordingRepaintManager manager = new RecordingRepaintManager();
+    RepaintManager.setCurrentManager(manager);
+    try {
+      p.updateHighlights(next);
+      p.updateHighlights(next);
+    } finally {
+      RepaintManager.setCurrentManager(null);
+    }
+    assertEquals(Arrays.asList(new Rectangle(325, 0, 8, 101), new Rectangle(330, 0, 16, 201)),
+        manager.getRegions(p));
+  }
+
+  @Test
+  public void paintClippedSameAsFullPaint() {
+    loai = new ArrayList<>();
+    loai.add(new Integer[]{0, 1, 1, 60, 100});
+    loai.add(new Integer[]{0, 1, 1, 73, 100});
+    p = new PianoPanel(loai, 1100);
+    p.setSize(1100, 230);
+    BufferedImage full = paint(new Rectangle(0, 0, 1100, 230));
+    Rectangle[] clips = {new Rectangle(420, 0, 8, 101), new Rectangle(100, 50, 333, 150),
+        new Rectangle(0, 0, 26, 230), new Rectangle(1070, 0, 30, 230)};
+    for (Rectangle clip : clips) {
+      BufferedImage clipped = paint(clip);
+      for (int x = clip.x; x < clip.x + clip.width; x++) {
+        for (int y = clip.y; y < clip.y + clip.height; y++) {
+          assertEquals(full.getRGB(x, y), clipped.getRGB(x, y));
+        }
+      }
+    }
+  }
+
+  /**
+   * Paints the piano panel into a new image, only within the given clip.
+   *
+   * @param clip   the bounds of the panel to be painted
+   * @return the painted image
+   */
+  private BufferedImage paint(Rectangle clip) {
+    BufferedImage image = new BufferedImage(p.getWidth(), p.getHeight(),
+        BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setClip(clip);
+    p.paintComponent(g);
+    g.dispose();
+    return image;
+  }
 }
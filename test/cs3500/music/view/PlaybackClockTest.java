@@ -0,0 +1,94 @@
+package cs3500.music.view;
+
+import cs3500.music.model.MusicEditorBuilder;
+
+import javax.sound.midi.MidiUnavailableException;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link PlaybackClock} class, following a {@link MidiView} that plays through the
+ * {@link MockSequencer}.
+ */
+public class PlaybackClockTest {
+  private final List<Integer> beats = new ArrayList<>();
+  private MidiView midi;
+  private PlaybackClock clock;
+
+  /**
+   * Initializes the clock to follow a MIDI view of a piece with a single note.
+   */
+  public void init() {
+    try {
+      this.midi = new MidiView.Builder(new MusicEditorBuilder().addNote(0, 6, 1, 60, 64).build())
+          .setSequencer(new MockSequencer()).build();
+    } catch (MidiUnavailableException e) {
+      // Should not happen because sequencer is set to the mock one
+    }
+    this.clock = new PlaybackClock(this.midi, this.beats::add);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorNullMidi() {
+    new PlaybackClock(null, this.beats::add);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructorNullListener() {
+    init();
+    new PlaybackClock(this.midi, null);
+  }
+
+  @Test
+  public void tickPassesBeat() {
+    init();
+    this.clock.tick();
+    assertEquals(Arrays.asList(0), this.beats);
+  }
+
+  @Test
+  public void tickOnlyPassesChangedBeats() {
+    init();
+    this.clock.tick();
+    this.clock.tick();
+    this.midi.initialize();
+    this.clock.tick();
+    this.clock.tick();
+    assertEquals(Arrays.asList(0, 6), this.beats);
+  }
+
+  @Test
+  public void startRunsClock() {
+    init();
+    assertFalse(this.clock.isRunning());
+    this.clock.start();
+    assertTrue(this.clock.isRunning());
+    this.clock.stop();
+    assertFalse(this.clock.isRunning());
+  }
+
+  @Test
+  public void tickStopsWhenNotPlaying() {
+    init();
+    this.clock.start();
+    this.clock.tick();
+    assertFalse(this.clock.isRunning());
+  }
+
+  @Test
+  public void startPassesBeatAgain() {
+    init();
+    this.clock.tick();
+    this.clock.start();
+    this.clock.tick();
+    assertEquals(Arrays.asList(0, 0), this.beats);
+  }
+}
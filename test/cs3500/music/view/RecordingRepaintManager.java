@@ -0,0 +1,48 @@
+package cs3500.music.view;
+
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a mock repaint manager, that records every region of a component asked to be
+ * repainted instead of painting it.
+ */
+public class RecordingRepaintManager extends RepaintManager {
+  private final List<JComponent> components;
+  private final List<Rectangle> regions;
+
+  /**
+   * Constructs a new {@code RecordingRepaintManager} with no recorded regions.
+   */
+  public RecordingRepaintManager() {
+    this.components = new ArrayList<>();
+    this.regions = new ArrayList<>();
+  }
+
+  @Override
+  public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+    this.components.add(c);
+    this.regions.add(new Rectangle(x, y, w, h));
+  }
+
+  /**
+   * Gets every region of the given component asked to be repainted, in the order they were
+   * asked for.
+   *
+   * @param c   the component
+   * @return the regions of the component asked to be repainted
+   */
+  public List<Rectangle> getRegions(JComponent c) {
+    List<Rectangle> result = new ArrayList<>();
+    for (int i = 0; i < this.components.size(); i++) {
+      if (this.components.get(i) == c) {
+        result.add(this.regions.get(i));
+      }
+    }
+    return result;
+  }
+}